@@ -0,0 +1,35 @@
+package com.easyhome.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Temporary data directories for benchmark state.
+ */
+public final class BenchmarkFiles {
+    private BenchmarkFiles() {
+    }
+
+    /**
+     * A fresh temp directory with a generated dataset of the given size.
+     */
+    public static Path dataset(int players) throws Exception {
+        Path directory = Files.createTempDirectory("easyhome-bench-");
+        DatasetGenerator.generate(directory, players, 42L);
+        return directory;
+    }
+
+    public static void delete(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.easyhome.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates an EasyHome data directory with realistic players:
+ * homes/<uuid>.json, grants/<uuid>.json for some players, and player_cache.json.
+ *
+ * Usage: java -cp benchmarks.jar com.easyhome.benchmarks.DatasetGenerator <dir> <players> [seed]
+ * Player counts accept suffixes, e.g. 10k, 100k, 1m.
+ *
+ * Output is deterministic for a given player count and seed.
+ */
+public final class DatasetGenerator {
+    private static final String[] HOME_NAMES = {
+            "home", "base", "mine", "farm", "shop", "spawn", "village", "portal",
+            "nether", "castle", "tower", "storage", "enchant", "xp", "fishing", "island"
+    };
+
+    // Most players keep a few homes; a small tail uses dozens
+    private static final int[] HOME_COUNTS = {1, 1, 1, 1, 2, 2, 2, 3, 3, 5, 5, 10, 10, 25};
+
+    private static final String[] WORLDS = {"default", "default", "default", "default", "default",
+            "default", "default", "default", "nether", "end"};
+
+    private static final int FILES_PER_TASK = 1000;
+
+    private DatasetGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: DatasetGenerator <dir> <players> [seed]");
+            System.exit(1);
+        }
+        Path directory = Path.of(args[0]);
+        int players = parseCount(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        long start = System.nanoTime();
+        generate(directory, players, seed);
+        System.out.printf("Generated %d players in %s (%d ms)%n", players, directory.toAbsolutePath(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Write a dataset for the given number of players into directory.
+     */
+    public static void generate(Path directory, int players, long seed) throws Exception {
+        Path homesDirectory = directory.resolve("homes");
+        Path grantsDirectory = directory.resolve("grants");
+        Files.createDirectories(homesDirectory);
+        Files.createDirectories(grantsDirectory);
+
+        Gson gson = new Gson();
+        Map<String, String> playerCache = new LinkedHashMap<>();
+        for (int i = 0; i < players; i++) {
+            playerCache.put(username(i, seed), playerId(i, seed).toString());
+        }
+
+        // Files are independent, so write them in parallel on virtual threads
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?>[] tasks = new Future<?>[(players + FILES_PER_TASK - 1) / FILES_PER_TASK];
+            for (int t = 0; t < tasks.length; t++) {
+                int from = t * FILES_PER_TASK;
+                int to = Math.min(from + FILES_PER_TASK, players);
+                tasks[t] = executor.submit(() -> {
+                    for (int i = from; i < to; i++) {
+                        writePlayer(homesDirectory, grantsDirectory, gson, i, seed);
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+
+        Files.writeString(directory.resolve("player_cache.json"), gson.toJson(playerCache));
+    }
+
+    public static UUID playerId(int index, long seed) {
+        Random random = new Random(seed * 31 + index);
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    public static String username(int index, long seed) {
+        Random random = new Random(seed * 17 + index);
+        StringBuilder name = new StringBuilder();
+        int letters = 3 + random.nextInt(8);
+        for (int i = 0; i < letters; i++) {
+            char c = (char) ('a' + random.nextInt(26));
+            name.append(i == 0 ? Character.toUpperCase(c) : c);
+        }
+        // The index suffix keeps names unique
+        return name.append('_').append(index).toString();
+    }
+
+    /**
+     * Pick how many homes a player keeps, from the same skewed distribution
+     * the generated files use.
+     */
+    public static int homeCount(Random random) {
+        return HOME_COUNTS[random.nextInt(HOME_COUNTS.length)];
+    }
+
+    /**
+     * Build one player's homes JSON in the format HomeStorage reads.
+     */
+    public static JsonObject homesJson(String username, int homeCount, Random random) {
+        JsonObject homes = new JsonObject();
+        for (int h = 0; h < homeCount; h++) {
+            String name = h < HOME_NAMES.length ? HOME_NAMES[h] : HOME_NAMES[h % HOME_NAMES.length] + h;
+            JsonObject home = new JsonObject();
+            home.addProperty("world", WORLDS[random.nextInt(WORLDS.length)]);
+            home.addProperty("x", Math.round(random.nextGaussian() * 2000 * 10) / 10.0);
+            home.addProperty("y", 40 + random.nextInt(120));
+            home.addProperty("z", Math.round(random.nextGaussian() * 2000 * 10) / 10.0);
+            home.addProperty("yaw", random.nextInt(360) - 180);
+            home.addProperty("pitch", random.nextInt(60) - 30);
+            homes.add(name, home);
+        }
+
+        JsonObject data = new JsonObject();
+        data.addProperty("username", username);
+        data.add("homes", homes);
+        return data;
+    }
+
+    private static void writePlayer(Path homesDirectory, Path grantsDirectory, Gson gson, int index, long seed) {
+        Random random = new Random(seed * 7 + index);
+        String filename = playerId(index, seed) + ".json";
+        int homeCount = homeCount(random);
+
+        try {
+            Files.writeString(homesDirectory.resolve(filename),
+                    gson.toJson(homesJson(username(index, seed), homeCount, random)));
+
+            // About one player in ten has been granted something
+            if (random.nextInt(10) == 0) {
+                JsonObject grants = new JsonObject();
+                grants.addProperty("bonusHomes", 1 + random.nextInt(5));
+                grants.addProperty("instantTeleport", random.nextInt(4) == 0);
+                Files.writeString(grantsDirectory.resolve(filename), gson.toJson(grants));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static int parseCount(String value) {
+        String lowered = value.toLowerCase(Locale.ROOT);
+        if (lowered.endsWith("k")) {
+            return Integer.parseInt(lowered.substring(0, lowered.length() - 1)) * 1_000;
+        }
+        if (lowered.endsWith("m")) {
+            return Integer.parseInt(lowered.substring(0, lowered.length() - 1)) * 1_000_000;
+        }
+        return Integer.parseInt(lowered);
+    }
+}
@@ -0,0 +1,150 @@
+package com.easyhome.benchmarks;
+
+import com.easyhome.data.Home;
+import com.easyhome.data.HomeStorage;
+import com.easyhome.data.PlayerHomes;
+import com.easyhome.util.IoExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how much heap a large number of homes retains, as used heap
+ * after a full GC before and after building them.
+ *
+ * Three layouts are measured in turn:
+ *   boxed    - a HashMap of lowercase name to Home per player (the old layout)
+ *   packed   - one PlayerHomes per player
+ *   storage  - a HomeStorage holding every player, with the spatial and world indexes
+ *
+ * Usage: java -cp benchmarks.jar com.easyhome.benchmarks.HomeFootprint [options]
+ *   --players N     players (default 200k)
+ *   --homes N       homes per player (default 5)
+ *   --max-bytes N   fail if storage retains more than N bytes per home (default: no limit)
+ *
+ * Run with a heap big enough for the boxed layout, e.g. -Xmx2g for 1M homes.
+ * Exits with status 1 if --max-bytes is exceeded, so it can gate CI.
+ */
+public final class HomeFootprint {
+    private static final long SEED = 42L;
+    private static final String[] WORLDS = {"default", "nether", "the_end"};
+
+    private HomeFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int players = DatasetGenerator.parseCount(options.getOrDefault("players", "200k"));
+        int homes = Integer.parseInt(options.getOrDefault("homes", "5"));
+        long maxBytes = Long.parseLong(options.getOrDefault("max-bytes", "0"));
+        long total = (long) players * homes;
+
+        UUID[] playerIds = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            playerIds[i] = DatasetGenerator.playerId(i, SEED);
+        }
+        System.out.printf("Measuring %d homes (%d players x %d)%n", total, players, homes);
+
+        long before = usedHeap();
+        List<Map<String, Home>> boxed = new ArrayList<>(players);
+        Random random = new Random(SEED);
+        for (int i = 0; i < players; i++) {
+            Map<String, Home> map = new HashMap<>();
+            for (int h = 0; h < homes; h++) {
+                Home home = home(random, h);
+                map.put(home.getName().toLowerCase(Locale.ROOT), home);
+            }
+            boxed.add(map);
+        }
+        double boxedBytes = (double) (usedHeap() - before) / total;
+        Reference.reachabilityFence(boxed);
+        boxed = null;
+
+        before = usedHeap();
+        List<PlayerHomes> packed = new ArrayList<>(players);
+        random = new Random(SEED);
+        for (int i = 0; i < players; i++) {
+            PlayerHomes playerHomes = new PlayerHomes();
+            for (int h = 0; h < homes; h++) {
+                playerHomes.setHome(home(random, h));
+            }
+            packed.add(playerHomes);
+        }
+        double packedBytes = (double) (usedHeap() - before) / total;
+        Reference.reachabilityFence(packed);
+        packed = null;
+
+        Path directory = Files.createTempDirectory("easyhome-footprint-");
+        Files.createDirectories(directory.resolve("homes"));
+        IoExecutor io = new IoExecutor();
+        before = usedHeap();
+        HomeStorage storage = new HomeStorage(directory, io);
+        random = new Random(SEED);
+        for (UUID playerId : playerIds) {
+            for (int h = 0; h < homes; h++) {
+                storage.setHomeIfUnderLimit(playerId, home(random, h), Integer.MAX_VALUE);
+            }
+        }
+        double storageBytes = (double) (usedHeap() - before) / total;
+        int indexed = storage.getSpatialIndex().size();
+        Reference.reachabilityFence(storage);
+        io.shutdown(10, TimeUnit.SECONDS);
+        BenchmarkFiles.delete(directory);
+
+        System.out.println();
+        System.out.printf("boxed    %6.1f B/home  (HashMap of Home per player)%n", boxedBytes);
+        System.out.printf("packed   %6.1f B/home  (PlayerHomes)%n", packedBytes);
+        System.out.printf("storage  %6.1f B/home  (HomeStorage with indexes, %d homes indexed)%n", storageBytes, indexed);
+
+        boolean passed = indexed == total && (maxBytes <= 0 || storageBytes <= maxBytes);
+        System.out.println(passed ? "PASSED" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+
+    // Homes spread over a few worlds and a 20k block square, named like players name them
+    private static Home home(Random random, int index) {
+        String name = index == 0 ? "home" : "Base" + index;
+        return new Home(new String(name), new String(WORLDS[random.nextInt(WORLDS.length)]),
+                random.nextInt(20000) - 10000.5, 40 + random.nextInt(80), random.nextInt(20000) - 10000.5,
+                random.nextFloat() * 360, 0);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // Repeat until a full GC frees nothing more
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
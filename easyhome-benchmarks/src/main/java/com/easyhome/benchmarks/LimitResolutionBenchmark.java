@@ -0,0 +1,71 @@
+package com.easyhome.benchmarks;
+
+import com.easyhome.config.HomeConfig;
+import com.easyhome.data.GrantStorage;
+import com.easyhome.util.IoExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Home limit resolution with permission overrides off: the config default
+ * plus granted bonus homes, capped at the max. Permission-based limits need
+ * a live server Player and are not covered here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LimitResolutionBenchmark {
+    private static final int MASK = 1023;
+
+    private Path directory;
+    private IoExecutor io;
+    private HomeConfig config;
+    private GrantStorage grants;
+    private UUID[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = BenchmarkFiles.dataset(10_000);
+        io = new IoExecutor();
+        config = new HomeConfig(directory, io);
+        grants = new GrantStorage(directory, io);
+
+        // Warm the grant cache, as it is for online players
+        ids = new UUID[MASK + 1];
+        for (int i = 0; i <= MASK; i++) {
+            ids[i] = DatasetGenerator.playerId(i * 9, 42L);
+            grants.getGrants(ids[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        io.shutdown(10, TimeUnit.SECONDS);
+        BenchmarkFiles.delete(directory);
+    }
+
+    @Benchmark
+    public int resolveLimit() {
+        UUID playerId = ids[next++ & MASK];
+        int limit = config.getDefaultHomeLimit() + grants.getBonusHomes(playerId);
+        return Math.min(limit, config.getMaxHomeLimit());
+    }
+}
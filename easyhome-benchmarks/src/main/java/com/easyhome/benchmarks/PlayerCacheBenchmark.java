@@ -0,0 +1,112 @@
+package com.easyhome.benchmarks;
+
+import com.easyhome.data.PlayerCache;
+import com.easyhome.util.IoExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PlayerCache lookups on the command path: name to UUID, UUID to name,
+ * the per-command updatePlayer call, renames, tab completion and "did you
+ * mean" suggestions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerCacheBenchmark {
+    private static final long SEED = 42L;
+    private static final int MASK = 1023;
+
+    @Param({"10000", "100000"})
+    public int players;
+
+    private Path directory;
+    private IoExecutor io;
+    private PlayerCache cache;
+    private UUID[] ids;
+    private String[] names;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = BenchmarkFiles.dataset(players);
+        io = new IoExecutor();
+        cache = new PlayerCache(directory, io);
+
+        // Spread lookups over the whole table, in mixed case like typed input
+        ids = new UUID[MASK + 1];
+        names = new String[MASK + 1];
+        prefixes = new String[MASK + 1];
+        for (int i = 0; i <= MASK; i++) {
+            int index = (int) ((long) i * players / (MASK + 1));
+            ids[i] = DatasetGenerator.playerId(index, SEED);
+            String username = DatasetGenerator.username(index, SEED);
+            names[i] = (i & 1) == 0 ? username : username.toUpperCase();
+            prefixes[i] = username.substring(0, Math.min(3, username.length()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        io.shutdown(10, TimeUnit.SECONDS);
+        BenchmarkFiles.delete(directory);
+    }
+
+    @Benchmark
+    public UUID getUuid() {
+        return cache.getUuid(names[next++ & MASK]);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return cache.getUsername(ids[next++ & MASK]);
+    }
+
+    /**
+     * The common case: a known player runs a command under the same name.
+     */
+    @Benchmark
+    public void updatePlayerUnchanged() {
+        int i = next++ & MASK;
+        cache.updatePlayer(ids[i], DatasetGenerator.username((int) ((long) i * players / (MASK + 1)), SEED));
+    }
+
+    /**
+     * A player joins under a new name: the suggestion index is updated in place.
+     */
+    @Benchmark
+    public void updatePlayerRenamed() {
+        int i = next++ & MASK;
+        cache.updatePlayer(ids[i], names[i] + "_" + (next & 1));
+    }
+
+    @Benchmark
+    public List<String> completeUsernames() {
+        return cache.completeUsernames(prefixes[next++ & MASK], 10);
+    }
+
+    @Benchmark
+    public List<String> suggestUsernames() {
+        return cache.suggestUsernames(prefixes[next++ & MASK], 10);
+    }
+}
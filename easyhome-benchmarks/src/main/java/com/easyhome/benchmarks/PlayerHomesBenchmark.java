@@ -0,0 +1,74 @@
+package com.easyhome.benchmarks;
+
+import com.easyhome.data.Home;
+import com.easyhome.data.PlayerHomes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory home lookups for one player: /home, /home nearest,
+ * tab completion and /sethome replacing an existing home.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerHomesBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int homeCount;
+
+    private PlayerHomes homes;
+    private String existing;
+    private Home replacement;
+
+    @Setup
+    public void setup() {
+        homes = new PlayerHomes();
+        for (int i = 0; i < homeCount; i++) {
+            String world = i % 3 == 0 ? "nether" : "default";
+            homes.setHome(new Home("Home" + i, world, i * 100, 64, -i * 50, 0, 0));
+        }
+        existing = "home" + (homeCount / 2);
+        replacement = new Home("Home" + (homeCount / 2), "default", 1, 2, 3, 0, 0);
+    }
+
+    @Benchmark
+    public Home getHomeHit() {
+        return homes.getHome(existing);
+    }
+
+    @Benchmark
+    public Home getHomeMiss() {
+        return homes.getHome("missing");
+    }
+
+    @Benchmark
+    public Home getNearestHome() {
+        return homes.getNearestHome("default", 1234, 64, -567);
+    }
+
+    @Benchmark
+    public List<String> completeHomeNames() {
+        return homes.getHomeNamesStartingWith("home1", 10);
+    }
+
+    @Benchmark
+    public void setHomeReplace() {
+        homes.setHome(replacement);
+    }
+}
@@ -0,0 +1,94 @@
+package com.easyhome.benchmarks;
+
+import com.easyhome.data.Home;
+import com.easyhome.data.PlayerHomes;
+import com.easyhome.data.SpatialIndex;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /easyhome admin homes region against an index of 1M generated homes:
+ * a small box about the size of a base, and a large one covering a good
+ * part of the populated map. Boxes are centred where homes are densest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialIndexBenchmark {
+    private static final int HOMES = 1_000_000;
+    private static final long SEED = 42L;
+    private static final int MASK = 1023;
+    private static final double SMALL_EDGE = 128;
+    private static final double LARGE_EDGE = 2048;
+
+    private SpatialIndex index;
+    private double[] centerX;
+    private double[] centerZ;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Same players and homes as a generated dataset, built in memory
+        index = new SpatialIndex();
+        for (int i = 0; index.size() < HOMES; i++) {
+            Random random = new Random(SEED * 7 + i);
+            int homeCount = DatasetGenerator.homeCount(random);
+            JsonObject json = DatasetGenerator.homesJson(DatasetGenerator.username(i, SEED), homeCount, random);
+            index.update(DatasetGenerator.playerId(i, SEED), toPlayerHomes(json.getAsJsonObject("homes")));
+        }
+
+        Random random = new Random(SEED);
+        centerX = new double[MASK + 1];
+        centerZ = new double[MASK + 1];
+        for (int i = 0; i <= MASK; i++) {
+            centerX[i] = random.nextGaussian() * 1000;
+            centerZ[i] = random.nextGaussian() * 1000;
+        }
+    }
+
+    @Benchmark
+    public List<SpatialIndex.Entry> querySmallRegion() {
+        return query(SMALL_EDGE);
+    }
+
+    @Benchmark
+    public List<SpatialIndex.Entry> queryLargeRegion() {
+        return query(LARGE_EDGE);
+    }
+
+    private List<SpatialIndex.Entry> query(double edge) {
+        int i = next++ & MASK;
+        double half = edge / 2;
+        return index.queryRegion("default", centerX[i] - half, centerZ[i] - half, centerX[i] + half, centerZ[i] + half);
+    }
+
+    private static PlayerHomes toPlayerHomes(JsonObject homes) {
+        PlayerHomes playerHomes = new PlayerHomes();
+        for (Map.Entry<String, JsonElement> entry : homes.entrySet()) {
+            JsonObject home = entry.getValue().getAsJsonObject();
+            playerHomes.setHome(new Home(entry.getKey(), home.get("world").getAsString(),
+                    home.get("x").getAsDouble(), home.get("y").getAsDouble(), home.get("z").getAsDouble(),
+                    home.get("yaw").getAsFloat(), home.get("pitch").getAsFloat()));
+        }
+        return playerHomes;
+    }
+}
@@ -0,0 +1,69 @@
+package com.easyhome.benchmarks;
+
+import com.easyhome.data.HomeStorage;
+import com.easyhome.data.PlayerCache;
+import com.easyhome.util.IoExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup work that grows with the number of players: the homes directory
+ * scan and loading player_cache.json.
+ *
+ * Run with -p players=100000 or -p players=1m for server-scale numbers;
+ * the default keeps a full run short.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UsernameScanBenchmark {
+
+    @Param({"10000"})
+    public String players;
+
+    private Path directory;
+    private IoExecutor io;
+    private HomeStorage storage;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = BenchmarkFiles.dataset(DatasetGenerator.parseCount(players));
+        io = new IoExecutor();
+        storage = new HomeStorage(directory, io);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        io.shutdown(10, TimeUnit.SECONDS);
+        BenchmarkFiles.delete(directory);
+    }
+
+    @Benchmark
+    public Map<UUID, String> scanForUsernames() {
+        return storage.scanForUsernames();
+    }
+
+    @Benchmark
+    public PlayerCache loadPlayerCache() {
+        return new PlayerCache(directory, io);
+    }
+}
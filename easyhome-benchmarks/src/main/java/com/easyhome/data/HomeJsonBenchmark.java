@@ -0,0 +1,60 @@
+package com.easyhome.data;
+
+import com.easyhome.benchmarks.DatasetGenerator;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON load and save of one player's homes, the work HomeStorage does per
+ * file. Lives in com.easyhome.data to reach the package-private converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HomeJsonBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int homeCount;
+
+    // Same settings as HomeStorage
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private String json;
+    private PlayerHomes homes;
+
+    @Setup
+    public void setup() {
+        json = gson.toJson(DatasetGenerator.homesJson("Benchmark", homeCount, new Random(42)));
+        homes = HomeStorage.toPlayerHomes(gson.fromJson(json, HomeStorage.HomeData.class).homes);
+    }
+
+    @Benchmark
+    public PlayerHomes load() {
+        HomeStorage.HomeData data = gson.fromJson(json, HomeStorage.HomeData.class);
+        return HomeStorage.toPlayerHomes(data.homes);
+    }
+
+    @Benchmark
+    public String save() {
+        HomeStorage.HomeData data = new HomeStorage.HomeData();
+        data.username = "Benchmark";
+        data.homes = HomeStorage.toHomeJson(homes);
+        return gson.toJson(data);
+    }
+}
@@ -0,0 +1,78 @@
+package com.easyhome.data;
+
+import com.easyhome.benchmarks.BenchmarkFiles;
+import com.easyhome.util.IoExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HomeStorage against real files: saving one player's homes and a cold
+ * load of a generated player through a storage with an empty cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HomeStorageBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int homeCount;
+
+    private Path directory;
+    private IoExecutor io;
+    private HomeStorage storage;
+    private UUID saved;
+    private UUID[] stored;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = BenchmarkFiles.dataset(1000);
+        io = new IoExecutor();
+        storage = new HomeStorage(directory, io);
+
+        saved = UUID.randomUUID();
+        for (int h = 0; h < homeCount; h++) {
+            storage.setHomeIfUnderLimit(saved, new Home("home" + h, "default", h * 16, 64, -h * 16, 0, 0),
+                    Integer.MAX_VALUE);
+        }
+        stored = HomeStorage.listPlayerIds(directory.resolve("homes")).toArray(new UUID[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        io.shutdown(10, TimeUnit.SECONDS);
+        BenchmarkFiles.delete(directory);
+    }
+
+    @Benchmark
+    public void saveHomes() {
+        storage.saveHomes(saved);
+    }
+
+    /**
+     * A new storage has an empty cache, so every call reads and parses a file.
+     */
+    @Benchmark
+    public PlayerHomes loadHomesCold() {
+        HomeStorage cold = new HomeStorage(directory, io);
+        return cold.getHomes(stored[next++ % stored.length]);
+    }
+}
@@ -0,0 +1,184 @@
+package com.easyhome.data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hammers CompactPlayerTable with lock-free readers while one thread adds
+ * players (so every array is resized several times) and another renames
+ * them, and checks that readers never see a broken record.
+ *
+ * While running, every player a reader picks must be found by UUID, its
+ * name must be one the player has had, and that name must resolve to the
+ * player or to nobody (if renamed in between). Afterwards every player
+ * must resolve under their last name only, and the name arena must not
+ * have kept the bytes of old names.
+ *
+ * Usage: java -cp benchmarks.jar com.easyhome.data.PlayerTableStress [options]
+ *   --players N   players added (default 200000)
+ *   --renames N   renames done while adding (default 2000000)
+ *   --readers N   reader threads (default 4)
+ *
+ * Exits with status 1 on any failure, so it can gate CI.
+ */
+public final class PlayerTableStress {
+    // The arena may be up to four times the live names after the last resize
+    private static final int MAX_ARENA_FACTOR = 4;
+    private static final int MAX_REPORTED = 10;
+
+    private PlayerTableStress() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int players = Integer.parseInt(options.getOrDefault("players", "200000"));
+        int renames = Integer.parseInt(options.getOrDefault("renames", "2000000"));
+        int readers = Integer.parseInt(options.getOrDefault("readers", "4"));
+
+        CompactPlayerTable table = new CompactPlayerTable();
+        AtomicInteger added = new AtomicInteger();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        String[] lastNames = new String[players];
+
+        System.out.printf("Adding %d players with %d renames and %d readers%n", players, renames, readers);
+        long start = System.nanoTime();
+
+        Thread adder = new Thread(() -> {
+            for (int i = 0; i < players; i++) {
+                table.put(playerId(i), "p" + i);
+                added.set(i + 1);
+            }
+        }, "adder");
+
+        // Only the renamer writes lastNames; main reads them after join()
+        Thread renamer = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int n = 0; n < renames; n++) {
+                int available;
+                while ((available = added.get()) == 0) {
+                    Thread.onSpinWait();
+                }
+                int i = random.nextInt(available);
+                String name = "p" + i + "_r" + n;
+                table.put(playerId(i), (n & 1) == 0 ? name : name.toUpperCase(Locale.ROOT));
+                lastNames[i] = name;
+            }
+        }, "renamer");
+
+        List<Thread> readerThreads = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            Thread reader = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (writing.get()) {
+                    int available = added.get();
+                    if (available == 0) {
+                        continue;
+                    }
+                    int i = random.nextInt(available);
+                    String failure = check(table, i);
+                    if (failure != null) {
+                        report(failures, failure);
+                    }
+                    count++;
+                }
+                reads.addAndGet(count);
+            }, "reader-" + r);
+            readerThreads.add(reader);
+        }
+
+        for (Thread reader : readerThreads) {
+            reader.start();
+        }
+        adder.start();
+        renamer.start();
+        adder.join();
+        renamer.join();
+        writing.set(false);
+        for (Thread reader : readerThreads) {
+            reader.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long liveBytes = 0;
+        for (int i = 0; i < players; i++) {
+            UUID playerId = playerId(i);
+            String expected = lastNames[i] != null ? lastNames[i] : "p" + i;
+            liveBytes += expected.length();
+            String username = table.getUsername(playerId);
+            if (username == null || !username.equalsIgnoreCase(expected)) {
+                report(failures, "player " + i + " is named " + username + ", expected " + expected);
+            }
+            if (!playerId.equals(table.getUuid(expected))) {
+                report(failures, "last name " + expected + " does not resolve to player " + i);
+            }
+            if (lastNames[i] != null && table.getUuid("p" + i) != null) {
+                report(failures, "old name p" + i + " still resolves");
+            }
+        }
+        if (table.size() != players) {
+            report(failures, "table holds " + table.size() + " players, expected " + players);
+        }
+        int arenaUsed = table.arenaUsed();
+        if (arenaUsed > liveBytes * MAX_ARENA_FACTOR) {
+            report(failures, "arena holds " + arenaUsed + " bytes for " + liveBytes + " bytes of live names");
+        }
+
+        System.out.println();
+        System.out.printf("Finished in %.1fs, %d reads, %d failed%n", elapsed / 1e9, reads.get(), failures.get());
+        System.out.printf("Name arena: %d bytes for %d bytes of live names%n", arenaUsed, liveBytes);
+
+        boolean passed = failures.get() == 0;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+
+    // What a reader may see for a player that is known to have been added
+    private static String check(CompactPlayerTable table, int i) {
+        UUID playerId = playerId(i);
+        if (!table.containsUuid(playerId)) {
+            return "player " + i + " not found by UUID";
+        }
+        String username = table.getUsername(playerId);
+        String lowered = username == null ? null : username.toLowerCase(Locale.ROOT);
+        if (lowered == null || !(lowered.equals("p" + i) || lowered.startsWith("p" + i + "_r"))) {
+            return "player " + i + " has a name they never had: " + username;
+        }
+        UUID resolved = table.getUuid(username);
+        if (resolved != null && !resolved.equals(playerId)) {
+            return "name " + username + " resolves to " + resolved + " instead of player " + i;
+        }
+        return null;
+    }
+
+    private static void report(AtomicLong failures, String failure) {
+        if (failures.incrementAndGet() <= MAX_REPORTED) {
+            System.out.println("FAIL: " + failure);
+        }
+    }
+
+    private static UUID playerId(int i) {
+        return new UUID(0x5EED_0000_0000_0000L | i, ~(long) i * 0x9E3779B97F4A7C15L);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
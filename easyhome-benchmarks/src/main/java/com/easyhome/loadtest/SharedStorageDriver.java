@@ -0,0 +1,195 @@
+package com.easyhome.loadtest;
+
+import com.easyhome.benchmarks.BenchmarkFiles;
+import com.easyhome.data.DataFileWatcher;
+import com.easyhome.data.GrantStorage;
+import com.easyhome.data.Home;
+import com.easyhome.data.HomeStorage;
+import com.easyhome.util.IoExecutor;
+import com.easyhome.util.Metrics;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs several EasyHome storages in one JVM against one data directory in
+ * shared mode, as if they were separate servers, and checks that no
+ * server's changes are lost.
+ *
+ * Every server sets its own homes for the same players, deletes one of them
+ * and grants bonus homes, all at once. Afterwards every server's cache and a
+ * fresh read of the files must hold every server's homes and the sum of all
+ * grants.
+ *
+ * Usage: java -cp benchmarks.jar com.easyhome.loadtest.SharedStorageDriver [options]
+ *   --servers N   storages sharing the directory (default 3)
+ *   --players N   players every server changes (default 200)
+ *   --homes N     homes each server sets per player (default 4)
+ *   --grants N    bonus-home grants each server gives per player (default 3)
+ *   --threads N   worker threads per server (default 4)
+ *
+ * Exits with status 1 if anything was lost, so it can gate CI.
+ */
+public final class SharedStorageDriver {
+    private static final long SEED = 42L;
+    private static final int POLL_SECONDS = 1;
+    private static final long SETTLE_MILLIS = 4000;
+
+    private SharedStorageDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int servers = Integer.parseInt(options.getOrDefault("servers", "3"));
+        int players = Integer.parseInt(options.getOrDefault("players", "200"));
+        int homes = Integer.parseInt(options.getOrDefault("homes", "4"));
+        int grants = Integer.parseInt(options.getOrDefault("grants", "3"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+
+        Path directory = Files.createTempDirectory("easyhome-shared-");
+        List<UUID> playerIds = new ArrayList<>();
+        Random random = new Random(SEED);
+        for (int i = 0; i < players; i++) {
+            playerIds.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        List<Server> running = new ArrayList<>();
+        for (int i = 0; i < servers; i++) {
+            running.add(new Server(i, directory, threads));
+        }
+
+        System.out.printf("Running %d servers on %s: %d players, %d homes and %d grants each%n",
+                servers, directory, players, homes, grants);
+        Metrics.get().reset();
+        AtomicLong failures = new AtomicLong();
+        long start = System.nanoTime();
+        for (Server server : running) {
+            List<UUID> order = new ArrayList<>(playerIds);
+            Collections.shuffle(order, new Random(SEED + server.index));
+            for (UUID playerId : order) {
+                server.workers.submit(() -> {
+                    try {
+                        server.play(playerId, homes, grants);
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                        e.printStackTrace();
+                    }
+                });
+            }
+        }
+        for (Server server : running) {
+            server.workers.shutdown();
+            server.workers.awaitTermination(10, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // Give every watcher time to pick up the last writes of the others
+        Thread.sleep(SETTLE_MILLIS);
+
+        int expectedHomes = servers * (homes - 1);
+        int expectedBonus = servers * grants;
+        long stale = 0;
+        for (Server server : running) {
+            for (UUID playerId : playerIds) {
+                if (server.storage.getHomes(playerId).getHomeCount() != expectedHomes
+                        || server.grants.getBonusHomes(playerId) != expectedBonus) {
+                    stale++;
+                }
+            }
+            server.shutdown();
+        }
+
+        // What a server starting now would read
+        IoExecutor io = new IoExecutor();
+        HomeStorage stored = new HomeStorage(directory, io);
+        GrantStorage storedGrants = new GrantStorage(directory, io);
+        long lost = 0;
+        for (UUID playerId : playerIds) {
+            if (stored.getHomes(playerId).getHomeCount() != expectedHomes
+                    || storedGrants.getBonusHomes(playerId) != expectedBonus) {
+                lost++;
+            }
+        }
+        io.shutdown(10, TimeUnit.SECONDS);
+        BenchmarkFiles.delete(directory);
+
+        Map<String, Long> counters = Metrics.get().snapshot().counters();
+        System.out.println();
+        System.out.printf("Finished in %.1fs, %d failed%n", elapsed / 1e9, failures.get());
+        System.out.printf("Merges: %d homes, %d grants; watcher reloads: %d%n",
+                counters.getOrDefault("storage.homes.merges", 0L),
+                counters.getOrDefault("storage.grants.merges", 0L),
+                counters.getOrDefault("watch.reloads", 0L));
+        System.out.printf("Players lost on disk: %d, stale in a server's cache: %d%n", lost, stale);
+
+        boolean passed = failures.get() == 0 && lost == 0 && stale == 0;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    /**
+     * One simulated server: its own I/O executor, caches and watcher.
+     */
+    private static final class Server {
+        final int index;
+        final IoExecutor io;
+        final HomeStorage storage;
+        final GrantStorage grants;
+        final DataFileWatcher watcher;
+        final ExecutorService workers;
+
+        Server(int index, Path directory, int threads) throws Exception {
+            this.index = index;
+            this.io = new IoExecutor();
+            this.storage = new HomeStorage(directory, io, null, null, true);
+            this.grants = new GrantStorage(directory, io, null, null, true);
+            this.watcher = new DataFileWatcher(directory, storage, grants, io, POLL_SECONDS);
+            this.watcher.start();
+            this.workers = Executors.newFixedThreadPool(threads);
+        }
+
+        // What one server does for one player, saving after every change like the commands do
+        void play(UUID playerId, int homes, int grantCount) {
+            for (int i = 0; i < homes; i++) {
+                Home home = new Home("s" + index + "-" + i, "default", index, 64, i, 0, 0);
+                storage.setHomeIfUnderLimit(playerId, home, Integer.MAX_VALUE);
+                storage.saveHomes(playerId);
+            }
+            storage.deleteHome(playerId, "s" + index + "-0");
+            storage.saveHomes(playerId);
+
+            for (int i = 0; i < grantCount; i++) {
+                grants.grantHomes(playerId, 1);
+            }
+        }
+
+        void shutdown() {
+            watcher.close();
+            storage.saveAll();
+            grants.saveAll();
+            io.shutdown(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.easyhome.loadtest;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for the entity store's TransformComponent: the world, position
+ * and rotation of each simulated player.
+ *
+ * Players walk on their own threads while the world thread reads positions
+ * for warmup movement checks, so each update publishes a new Transform.
+ */
+public class FakeTransformStore {
+    private final Map<UUID, Transform> transforms = new ConcurrentHashMap<>();
+
+    public void spawn(UUID playerId, FakeWorld world, Random random) {
+        transforms.put(playerId, new Transform(world,
+                random.nextGaussian() * 2000, 40 + random.nextInt(120), random.nextGaussian() * 2000,
+                random.nextInt(360) - 180, 0));
+    }
+
+    public Transform get(UUID playerId) {
+        return transforms.get(playerId);
+    }
+
+    /**
+     * Walk a player up to the given distance on each axis.
+     */
+    public void move(UUID playerId, double distance, Random random) {
+        transforms.computeIfPresent(playerId, (id, t) -> new Transform(t.world(),
+                t.x() + (random.nextDouble() * 2 - 1) * distance,
+                t.y(),
+                t.z() + (random.nextDouble() * 2 - 1) * distance,
+                random.nextInt(360) - 180, t.pitch()));
+    }
+
+    /**
+     * What a Teleport component does when the world applies it.
+     */
+    public void teleport(UUID playerId, FakeWorld world, double x, double y, double z, float yaw, float pitch) {
+        transforms.put(playerId, new Transform(world, x, y, z, yaw, pitch));
+    }
+
+    public record Transform(FakeWorld world, double x, double y, double z, float yaw, float pitch) {
+        public double distance(Transform other) {
+            double dx = x - other.x;
+            double dy = y - other.y;
+            double dz = z - other.z;
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+    }
+}
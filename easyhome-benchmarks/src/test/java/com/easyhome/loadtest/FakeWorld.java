@@ -0,0 +1,116 @@
+package com.easyhome.loadtest;
+
+import com.easyhome.util.GameWorld;
+import com.easyhome.util.LatencyHistogram;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for a Hytale World: one thread that runs execute() tasks in order,
+ * like the world tick thread commands and teleports run on.
+ *
+ * Records how long tasks waited in the queue and how long they ran, so a
+ * load run shows when EasyHome work starts to back up a world.
+ */
+public class FakeWorld implements GameWorld {
+    private final String name;
+    private final BlockingQueue<Runnable> queue;
+    private final Thread thread;
+    private final LatencyHistogram queueDelay;
+    private final LatencyHistogram taskTime;
+    private final AtomicLong busyNanos;
+    private final AtomicLong failures;
+    private volatile boolean running;
+
+    public FakeWorld(String name) {
+        this.name = name;
+        this.queue = new LinkedBlockingQueue<>();
+        this.queueDelay = new LatencyHistogram();
+        this.taskTime = new LatencyHistogram();
+        this.busyNanos = new AtomicLong();
+        this.failures = new AtomicLong();
+        this.running = true;
+        this.thread = new Thread(this::run, "FakeWorld-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!running) {
+            throw new IllegalStateException("World " + name + " is shut down");
+        }
+        long queued = System.nanoTime();
+        queue.add(() -> {
+            long start = System.nanoTime();
+            queueDelay.recordNanos(start - queued);
+            try {
+                task.run();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                taskTime.recordNanos(elapsed);
+                busyNanos.addAndGet(elapsed);
+            }
+        });
+    }
+
+    public boolean isWorldThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    public LatencyHistogram getQueueDelay() {
+        return queueDelay;
+    }
+
+    public LatencyHistogram getTaskTime() {
+        return taskTime;
+    }
+
+    public long getBusyNanos() {
+        return busyNanos.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting tasks, run what is already queued, then stop the thread.
+     */
+    public void shutdown() throws InterruptedException {
+        running = false;
+        queue.add(() -> Thread.currentThread().interrupt());
+        thread.join();
+    }
+
+    private void run() {
+        while (true) {
+            Runnable task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                e.printStackTrace();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.easyhome.loadtest;
+
+import com.easyhome.benchmarks.BenchmarkFiles;
+import com.easyhome.benchmarks.DatasetGenerator;
+import com.easyhome.loadtest.RecordingMessages.Kind;
+import com.easyhome.util.LatencyHistogram;
+import com.easyhome.util.Metrics;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates many players using /sethome, /home and /delhome while walking
+ * around, against the real storage on a temp data directory.
+ *
+ * Usage: mvn test-compile exec:exec@load-test -Dload.args="[options]"
+ *   --players N      simulated players (default 2000, accepts 10k)
+ *   --seconds N      how long to run (default 30)
+ *   --think-ms N     mean pause between a player's actions (default 250)
+ *   --warmup N       teleport warmup in seconds (default 1)
+ *   --cooldown N     teleport cooldown in seconds (default 0)
+ *   --data DIR       use an existing data directory instead of a generated one
+ *   --max-p99-ms N   exit with status 1 if any command's p99 is above this
+ *
+ * Exits with status 1 if any command failed, so it can gate CI.
+ */
+public final class LoadDriver {
+    private static final String[] WORLDS = {"default", "nether", "end"};
+    private static final String[] HOME_NAMES = {"home", "base", "mine", "farm", "shop", "spawn", "portal", "tower"};
+    private static final String[] COMMANDS = {"sethome", "home", "delhome"};
+    private static final long SEED = 42L;
+    private static final long COMMAND_TIMEOUT_SECONDS = 30;
+
+    private LoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int players = DatasetGenerator.parseCount(options.getOrDefault("players", "2000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        long thinkMillis = Long.parseLong(options.getOrDefault("think-ms", "250"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "1"));
+        int cooldownSeconds = Integer.parseInt(options.getOrDefault("cooldown", "0"));
+        double maxP99Millis = Double.parseDouble(options.getOrDefault("max-p99-ms", "0"));
+
+        Path directory = options.containsKey("data") ? Path.of(options.get("data")) : null;
+        boolean generated = directory == null;
+        if (generated) {
+            System.out.printf("Generating %d players...%n", players);
+            directory = BenchmarkFiles.dataset(players);
+        }
+
+        SimulatedServer server = new SimulatedServer(directory, WORLDS);
+        server.getConfig().setWarmupSeconds(warmupSeconds);
+        server.getConfig().setCooldownSeconds(cooldownSeconds);
+        server.getConfig().setDefaultHomeLimit(5);
+
+        Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+        for (String command : COMMANDS) {
+            latencies.put(command, new LatencyHistogram());
+        }
+        AtomicLong failures = new AtomicLong();
+
+        System.out.printf("Running %d players for %ds (think %dms, warmup %ds, cooldown %ds)%n",
+                players, seconds, thinkMillis, warmupSeconds, cooldownSeconds);
+        Metrics.get().reset();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < players; i++) {
+                int index = i;
+                executor.submit(() -> runPlayer(server, index, deadline, thinkMillis, latencies, failures));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        server.shutdown();
+        if (generated) {
+            BenchmarkFiles.delete(directory);
+        }
+
+        boolean passed = report(server, latencies, failures.get(), elapsed, maxP99Millis);
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static void runPlayer(SimulatedServer server, int index, long deadline, long thinkMillis,
+                                  Map<String, LatencyHistogram> latencies, AtomicLong failures) {
+        Random random = new Random(SEED * 13 + index);
+        UUID playerId = DatasetGenerator.playerId(index, SEED);
+        String username = DatasetGenerator.username(index, SEED);
+        server.getTransforms().spawn(playerId, server.getWorlds().get(WORLDS[index % WORLDS.length]), random);
+
+        while (System.nanoTime() < deadline) {
+            try {
+                // Exponential think time, so players don't move in lockstep
+                Thread.sleep((long) (-Math.log(1 - random.nextDouble()) * thinkMillis));
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            // Mostly small steps; sometimes far enough to cancel a warmup
+            double step = random.nextInt(10) == 0 ? 8 : 0.3;
+            server.getTransforms().move(playerId, step, random);
+
+            int roll = random.nextInt(100);
+            String command;
+            String homeName;
+            if (roll < 25) {
+                command = "sethome";
+                homeName = HOME_NAMES[random.nextInt(HOME_NAMES.length)];
+            } else if (roll < 75) {
+                command = "home";
+                homeName = random.nextInt(4) == 0 ? "nearest" : HOME_NAMES[random.nextInt(HOME_NAMES.length)];
+            } else if (roll < 90) {
+                command = "delhome";
+                homeName = HOME_NAMES[random.nextInt(HOME_NAMES.length)];
+            } else {
+                continue;
+            }
+
+            long commandStart = System.nanoTime();
+            try {
+                server.command(playerId, username, command, homeName).get(COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                latencies.get(command).recordNanos(System.nanoTime() - commandStart);
+            } catch (ExecutionException | TimeoutException e) {
+                failures.incrementAndGet();
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static boolean report(SimulatedServer server, Map<String, LatencyHistogram> latencies,
+                                  long failures, long elapsedNanos, double maxP99Millis) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        long total = 0;
+        for (LatencyHistogram histogram : latencies.values()) {
+            total += histogram.getCount();
+        }
+
+        System.out.println();
+        System.out.printf("Commands: %d in %.1fs (%.0f/s), %d failed%n", total, elapsedSeconds, total / elapsedSeconds, failures);
+        System.out.printf("%-8s %9s %9s %9s %9s %9s %9s%n", "command", "count", "mean ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        boolean passed = failures == 0;
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            double p99 = histogram.getPercentileMicros(99) / 1000.0;
+            System.out.printf("%-8s %9d %9.3f %9.3f %9.3f %9.3f %9.3f%n", entry.getKey(), histogram.getCount(),
+                    histogram.getMeanMicros() / 1000.0, histogram.getPercentileMicros(50) / 1000.0, p99,
+                    histogram.getPercentileMicros(99.9) / 1000.0, histogram.getMaxMicros() / 1000.0);
+            if (maxP99Millis > 0 && p99 > maxP99Millis) {
+                System.out.printf("FAIL: %s p99 %.3f ms is above %.3f ms%n", entry.getKey(), p99, maxP99Millis);
+                passed = false;
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-8s %9s %9s %12s %12s %9s%n", "world", "tasks", "busy %", "wait p99 ms", "wait max ms", "errors");
+        for (FakeWorld world : server.getWorlds().values()) {
+            LatencyHistogram wait = world.getQueueDelay();
+            System.out.printf("%-8s %9d %9.1f %12.3f %12.3f %9d%n", world.getName(), world.getTaskTime().getCount(),
+                    100.0 * world.getBusyNanos() / elapsedNanos, wait.getPercentileMicros(99) / 1000.0,
+                    wait.getMaxMicros() / 1000.0, world.getFailures());
+            if (world.getFailures() > 0) {
+                passed = false;
+            }
+        }
+
+        System.out.println();
+        List<String> counts = new ArrayList<>();
+        RecordingMessages messages = server.getMessages();
+        for (Kind kind : Kind.values()) {
+            counts.add(kind.name().toLowerCase() + "=" + messages.count(kind));
+        }
+        System.out.println("Messages: " + String.join(", ", counts));
+
+        Metrics.Snapshot snapshot = Metrics.get().snapshot();
+        System.out.printf("Storage: %d bytes written, %d bytes read%n",
+                snapshot.counters().getOrDefault("storage.homes.bytes_written", 0L),
+                snapshot.counters().getOrDefault("storage.homes.bytes_read", 0L));
+        System.out.printf("World tasks: %d deferred a tick, %d slow%n",
+                snapshot.counters().getOrDefault("world.tasks.deferred", 0L),
+                snapshot.counters().getOrDefault("world.tasks.slow", 0L));
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,60 @@
+package com.easyhome.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for PlayerRef.sendMessage: counts every message by kind and keeps
+ * the last one each player received.
+ *
+ * Messages are recorded by kind rather than as Hytale Message objects so the
+ * harness runs without the server jar.
+ */
+public class RecordingMessages {
+
+    public enum Kind {
+        HOME_SET,
+        HOME_DELETED,
+        HOME_NOT_FOUND,
+        NO_HOMES_IN_WORLD,
+        LIMIT_REACHED,
+        WARMUP_STARTED,
+        TELEPORTED,
+        TELEPORT_CANCELLED,
+        ON_COOLDOWN,
+        WORLD_NOT_FOUND
+    }
+
+    private final Map<Kind, LongAdder> counts = new EnumMap<>(Kind.class);
+    private final Map<UUID, Kind> lastMessage = new ConcurrentHashMap<>();
+
+    public RecordingMessages() {
+        for (Kind kind : Kind.values()) {
+            counts.put(kind, new LongAdder());
+        }
+    }
+
+    public void send(UUID playerId, Kind kind) {
+        counts.get(kind).increment();
+        lastMessage.put(playerId, kind);
+    }
+
+    public long count(Kind kind) {
+        return counts.get(kind).sum();
+    }
+
+    public Kind last(UUID playerId) {
+        return lastMessage.get(playerId);
+    }
+
+    public long total() {
+        long total = 0;
+        for (LongAdder count : counts.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,113 @@
+package com.easyhome.loadtest;
+
+import com.easyhome.loadtest.FakeTransformStore.Transform;
+import com.easyhome.loadtest.RecordingMessages.Kind;
+import com.easyhome.util.GameWorld;
+import com.easyhome.util.TeleportTarget;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * TeleportTarget for a simulated player: positions and teleports go to the
+ * FakeTransformStore and messages are recorded by kind. Suggestions and
+ * hints that follow a "not found" are not counted separately.
+ */
+public class SimulatedPlayer implements TeleportTarget {
+    private final UUID playerId;
+    private final FakeWorld world;
+    private final FakeTransformStore transforms;
+    private final RecordingMessages messages;
+
+    public SimulatedPlayer(UUID playerId, FakeWorld world, FakeTransformStore transforms, RecordingMessages messages) {
+        this.playerId = playerId;
+        this.world = world;
+        this.transforms = transforms;
+        this.messages = messages;
+    }
+
+    @Override
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    @Override
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    @Override
+    public double[] getPosition() {
+        Transform transform = transforms.get(playerId);
+        return transform != null ? new double[] {transform.x(), transform.y(), transform.z()} : null;
+    }
+
+    @Override
+    public float[] getRotation() {
+        Transform transform = transforms.get(playerId);
+        return transform != null ? new float[] {transform.yaw(), transform.pitch()} : null;
+    }
+
+    @Override
+    public void teleport(double x, double y, double z, float yaw, float pitch) {
+        transforms.teleport(playerId, world, x, y, z, yaw, pitch);
+    }
+
+    @Override
+    public void sendWarmupStarted(String homeName, int seconds) {
+        messages.send(playerId, Kind.WARMUP_STARTED);
+    }
+
+    @Override
+    public void sendTeleportCancelled() {
+        messages.send(playerId, Kind.TELEPORT_CANCELLED);
+    }
+
+    @Override
+    public void sendTeleportedTo(String homeName) {
+        messages.send(playerId, Kind.TELEPORTED);
+    }
+
+    @Override
+    public void sendWorldNotFound(String world) {
+        messages.send(playerId, Kind.WORLD_NOT_FOUND);
+    }
+
+    @Override
+    public void sendHomeSet(String homeName) {
+        messages.send(playerId, Kind.HOME_SET);
+    }
+
+    @Override
+    public void sendHomeDeleted(String homeName) {
+        messages.send(playerId, Kind.HOME_DELETED);
+    }
+
+    @Override
+    public void sendHomeLimitReached(int limit) {
+        messages.send(playerId, Kind.LIMIT_REACHED);
+    }
+
+    @Override
+    public void sendHomeNotFound(String homeName) {
+        messages.send(playerId, Kind.HOME_NOT_FOUND);
+    }
+
+    @Override
+    public void sendDidYouMean(List<String> suggestions) {
+    }
+
+    @Override
+    public void sendUseHomesHint() {
+    }
+
+    @Override
+    public void sendNoHomesInWorld() {
+        messages.send(playerId, Kind.NO_HOMES_IN_WORLD);
+    }
+
+    @Override
+    public void sendOnCooldown(int seconds) {
+        messages.send(playerId, Kind.ON_COOLDOWN);
+    }
+}
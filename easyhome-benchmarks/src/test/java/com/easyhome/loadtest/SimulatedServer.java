@@ -0,0 +1,128 @@
+package com.easyhome.loadtest;
+
+import com.easyhome.commands.HomeActions;
+import com.easyhome.config.HomeConfig;
+import com.easyhome.data.GrantStorage;
+import com.easyhome.data.HomeStorage;
+import com.easyhome.data.PlayerCache;
+import com.easyhome.util.IoExecutor;
+import com.easyhome.util.WarmupManager;
+import com.easyhome.util.WorldTasks;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The plugin's real data layer, WorldTasks and WarmupManager wired to fake
+ * worlds, transforms and message sinks.
+ *
+ * sethome, home and delhome run the command handlers' own HomeActions, and
+ * teleports, warmup movement checks and their per-tick budget run through
+ * the plugin's own classes. Permission checks are left out: limits come
+ * from the config default plus grants, as with permission overrides off.
+ */
+public class SimulatedServer {
+    private final IoExecutor io;
+    private final HomeConfig config;
+    private final HomeStorage storage;
+    private final GrantStorage grants;
+    private final PlayerCache playerCache;
+    private final WorldTasks worldTasks;
+    private final WarmupManager warmups;
+    private final HomeActions actions;
+    private final Map<String, FakeWorld> worlds;
+    private final FakeTransformStore transforms;
+    private final RecordingMessages messages;
+
+    public SimulatedServer(Path dataDirectory, String... worldNames) {
+        this.io = new IoExecutor();
+        this.config = new HomeConfig(dataDirectory, io);
+        this.storage = new HomeStorage(dataDirectory, io);
+        this.grants = new GrantStorage(dataDirectory, io);
+        this.playerCache = new PlayerCache(dataDirectory, io);
+        this.worldTasks = new WorldTasks(config.getWorldTaskBudgetMicros(), config.getSlowTaskMillis());
+        this.warmups = new WarmupManager(worldTasks);
+        this.actions = new HomeActions(config, storage, grants, warmups);
+        this.worlds = new LinkedHashMap<>();
+        for (String name : worldNames) {
+            worlds.put(name, new FakeWorld(name));
+        }
+        this.transforms = new FakeTransformStore();
+        this.messages = new RecordingMessages();
+    }
+
+    public HomeConfig getConfig() {
+        return config;
+    }
+
+    public HomeStorage getStorage() {
+        return storage;
+    }
+
+    public Map<String, FakeWorld> getWorlds() {
+        return worlds;
+    }
+
+    public FakeTransformStore getTransforms() {
+        return transforms;
+    }
+
+    public RecordingMessages getMessages() {
+        return messages;
+    }
+
+    public WorldTasks getWorldTasks() {
+        return worldTasks;
+    }
+
+    public int getActiveWarmupCount() {
+        return warmups.getActiveWarmupCount();
+    }
+
+    /**
+     * Run a command on the player's world thread, as AbstractPlayerCommand does.
+     * Completes once the handler has returned.
+     */
+    public CompletableFuture<Void> command(UUID playerId, String username, String command, String homeName) {
+        FakeWorld world = transforms.get(playerId).world();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        world.execute(() -> {
+            try {
+                playerCache.updatePlayer(playerId, username);
+                storage.updateUsername(playerId, username);
+                SimulatedPlayer player = new SimulatedPlayer(playerId, world, transforms, messages);
+                switch (command) {
+                    case "sethome" -> actions.setHome(player, homeName, homeLimit(playerId));
+                    case "home" -> actions.home(player, homeName, false, false);
+                    case "delhome" -> actions.deleteHome(player, homeName);
+                    default -> throw new IllegalArgumentException("Unknown command " + command);
+                }
+                done.complete(null);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        });
+        return done;
+    }
+
+    private int homeLimit(UUID playerId) {
+        return Math.min(config.getDefaultHomeLimit() + grants.getBonusHomes(playerId), config.getMaxHomeLimit());
+    }
+
+    /**
+     * Cancel warmups, drain the worlds and flush every player's homes to disk.
+     */
+    public void shutdown() throws InterruptedException {
+        warmups.shutdown();
+        for (FakeWorld world : worlds.values()) {
+            world.shutdown();
+        }
+        storage.saveAll();
+        playerCache.save();
+        io.shutdown(30, TimeUnit.SECONDS);
+    }
+}
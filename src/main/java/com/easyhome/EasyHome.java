@@ -1,19 +1,34 @@
 package com.easyhome;
 
 import com.easyhome.commands.DelHomeCommand;
+import com.easyhome.commands.HomeActions;
 import com.easyhome.commands.HomeAdminCommand;
 import com.easyhome.commands.HomeCommand;
 import com.easyhome.commands.HomeHelpCommand;
 import com.easyhome.commands.HomesCommand;
 import com.easyhome.commands.SetHomeCommand;
 import com.easyhome.config.HomeConfig;
+import com.easyhome.data.DataFileWatcher;
 import com.easyhome.data.GrantStorage;
 import com.easyhome.data.HomeStorage;
 import com.easyhome.data.PlayerCache;
+import com.easyhome.data.ProfileStorage;
+import com.easyhome.event.HomeEventBus;
+import com.easyhome.util.IoExecutor;
+import com.easyhome.util.JfrEvents;
+import com.easyhome.util.MessageBundles;
+import com.easyhome.util.Messages;
+import com.easyhome.util.Metrics;
+import com.easyhome.util.MetricsHttpServer;
 import com.easyhome.util.WarmupManager;
+import com.easyhome.util.WorldTasks;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
@@ -23,12 +38,24 @@ import com.hypixel.hytale.server.core.universe.Universe;
  * EasyHome - A user-friendly home management plugin for Hytale.
  */
 public class EasyHome extends JavaPlugin {
+    // How often cached players' files are checked for other servers' changes in shared mode
+    private static final int SHARED_POLL_SECONDS = 5;
 
+    private IoExecutor ioExecutor;
     private HomeConfig config;
+    private MessageBundles messageBundles;
+    private ProfileStorage profileStorage;
+    private HomeEventBus events;
     private HomeStorage storage;
     private GrantStorage grantStorage;
     private PlayerCache playerCache;
+    private WorldTasks worldTasks;
     private WarmupManager warmupManager;
+    private HomeActions homeActions;
+    private final CompletableFuture<Void> indexReady = new CompletableFuture<>();
+    private MetricsHttpServer metricsServer;
+    private DataFileWatcher fileWatcher;
+    private boolean sharedStorage;
 
     public EasyHome(JavaPluginInit init) {
         super(init);
@@ -36,23 +63,67 @@ public class EasyHome extends JavaPlugin {
 
     @Override
     public void setup() {
+        // Shared executor for all disk I/O
+        ioExecutor = new IoExecutor();
+
         // Initialize configuration
-        config = new HomeConfig(getDataDirectory());
+        config = new HomeConfig(getDataDirectory(), ioExecutor);
+
+        // Load per-language message templates
+        messageBundles = new MessageBundles(getDataDirectory());
+        Messages.setBundles(messageBundles);
+
+        // Initialize player cache for offline player lookups (profiles store usernames themselves)
+        playerCache = new PlayerCache(getDataDirectory(), ioExecutor, !config.isUnifiedProfilesEnabled());
+
+        // Optional unified profile store (one file per player)
+        if (config.isUnifiedProfilesEnabled()) {
+            profileStorage = new ProfileStorage(getDataDirectory());
+            profileStorage.migrateLegacy(playerCache, ioExecutor);
+        } else {
+            // Bring back anything changed while unified profiles were on
+            ProfileStorage.exportToLegacy(getDataDirectory(), ioExecutor);
+        }
+
+        // Home and grant changes for other plugins, delivered in background batches
+        events = new HomeEventBus();
+
+        // Several servers may share homes/ and grants/ (not with unified profiles)
+        sharedStorage = config.isSharedStorage() && profileStorage == null;
 
         // Initialize storage
-        storage = new HomeStorage(getDataDirectory());
+        storage = new HomeStorage(getDataDirectory(), ioExecutor, profileStorage, events, sharedStorage);
 
         // Initialize grant storage
-        grantStorage = new GrantStorage(getDataDirectory());
-
-        // Initialize player cache for offline player lookups
-        playerCache = new PlayerCache(getDataDirectory());
+        grantStorage = new GrantStorage(getDataDirectory(), ioExecutor, profileStorage, events, sharedStorage);
 
         // Sync player cache from existing homes data (backwards compatibility)
         playerCache.syncFromHomeStorage(storage);
 
-        // Initialize warmup manager
-        warmupManager = new WarmupManager();
+        // Initialize warmup manager, with its world-thread work timed and budgeted
+        worldTasks = new WorldTasks(config.getWorldTaskBudgetMicros(), config.getSlowTaskMillis());
+        warmupManager = new WarmupManager(worldTasks);
+        homeActions = new HomeActions(config, storage, grantStorage, warmupManager);
+
+        // Restore running teleport cooldowns
+        if (config.isPersistCooldowns()) {
+            warmupManager.getCooldowns().load(getDataDirectory().resolve("cooldowns.json"));
+        }
+
+        // Live values for /easyhome admin metrics and metrics.json
+        Metrics metrics = Metrics.get();
+        metrics.gauge("cache.homes.size", storage::getCachedPlayerCount);
+        metrics.gauge("cache.grants.size", grantStorage::getCachedPlayerCount);
+        metrics.gauge("cache.players.size", playerCache::getPlayerCount);
+        metrics.gauge("warmups.active", warmupManager::getActiveWarmupCount);
+        metrics.gauge("cooldowns.active", warmupManager.getCooldowns()::size);
+        metrics.gauge("world.tasks.pending", worldTasks::getPendingCount);
+        metrics.gauge("events.pending", events::getPendingCount);
+        startMetricsSnapshots();
+        startMetricsServer();
+
+        // Pick up homes/ and grants/ files edited outside the server or by other servers
+        startFileWatcher();
 
         // Register commands
         getCommandRegistry().registerCommand(new SetHomeCommand(this));
@@ -61,6 +132,9 @@ public class EasyHome extends JavaPlugin {
         getCommandRegistry().registerCommand(new HomesCommand(this));
         getCommandRegistry().registerCommand(new HomeHelpCommand(this));
         getCommandRegistry().registerCommand(new HomeAdminCommand(this));
+
+        // Public queries for other plugins
+        EasyHomeApi.publish(new EasyHomeApi(this, indexReady));
     }
 
     @Override
@@ -75,30 +149,163 @@ public class EasyHome extends JavaPlugin {
         } catch (Exception e) {
             // Universe not ready or other error - skip server player sync
         }
+
+        // Index every stored home in the background for region queries
+        storage.buildIndex().whenComplete((players, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                indexReady.completeExceptionally(error);
+            } else {
+                indexReady.complete(null);
+            }
+        });
     }
 
     @Override
     public void shutdown() {
+        EasyHomeApi.publish(null);
+
+        // Final metrics snapshot
+        stopMetricsServer();
+        Metrics.get().stopSnapshots();
+        if (config != null && config.getMetricsSnapshotSeconds() > 0) {
+            Metrics.get().writeSnapshot(getDataDirectory().resolve("metrics.json"));
+        }
+
+        // Let queued writes finish before the final synchronous save
+        if (ioExecutor != null) {
+            ioExecutor.shutdown(10, TimeUnit.SECONDS);
+        }
+
         // Save all data
-        if (storage != null) {
-            storage.saveAll();
+        if (profileStorage != null) {
+            // Homes and grants share one file per player
+            profileStorage.saveAll();
+        } else {
+            if (storage != null) {
+                storage.saveAll();
+            }
+
+            // Save grant data
+            if (grantStorage != null) {
+                grantStorage.saveAll();
+            }
         }
 
-        // Save grant data
-        if (grantStorage != null) {
-            grantStorage.saveAll();
+        // Stop watching only after the final save; saves merge in any edit not reloaded yet
+        stopFileWatcher();
+
+        // Save player cache
+        if (playerCache != null) {
+            playerCache.save();
         }
 
         // Shutdown warmup manager
         if (warmupManager != null) {
+            if (config != null && config.isPersistCooldowns()) {
+                warmupManager.getCooldowns().save(getDataDirectory().resolve("cooldowns.json"));
+            }
             warmupManager.shutdown();
         }
+
+        // Deliver any last home changes to listeners
+        if (events != null) {
+            events.shutdown();
+        }
+    }
+
+    public IoExecutor getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Completes once every stored home is in the world and spatial indexes,
+     * or exceptionally if building them failed.
+     */
+    public CompletableFuture<Void> getIndexReady() {
+        return indexReady;
     }
 
     public HomeConfig getConfig() {
         return config;
     }
 
+    /**
+     * Register a HomeEventListener here to hear about home and grant changes.
+     */
+    public HomeEventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * (Re)start periodic metrics snapshots using the configured interval.
+     */
+    public void startMetricsSnapshots() {
+        Metrics.get().startSnapshots(getDataDirectory().resolve("metrics.json"), config.getMetricsSnapshotSeconds());
+    }
+
+    /**
+     * (Re)start the Prometheus endpoint on the configured port, or stop it if the port is 0.
+     *
+     * @return false if the port could not be bound
+     */
+    public synchronized boolean startMetricsServer() {
+        stopMetricsServer();
+        int port = config.getMetricsPort();
+        if (port <= 0) {
+            return true;
+        }
+        try {
+            metricsServer = MetricsHttpServer.start(port);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private synchronized void stopMetricsServer() {
+        if (metricsServer != null) {
+            metricsServer.stop();
+            metricsServer = null;
+        }
+    }
+
+    /**
+     * (Re)start watching homes/ and grants/ if enabled or shared with other
+     * servers, or stop it if not. Unified profiles are never watched.
+     *
+     * @return false if the data folder could not be watched
+     */
+    public synchronized boolean startFileWatcher() {
+        stopFileWatcher();
+        if ((!config.isWatchDataFiles() && !sharedStorage) || profileStorage != null) {
+            return true;
+        }
+        try {
+            // Other servers' writes to a network folder raise no watch events, so poll as well
+            int pollSeconds = sharedStorage ? SHARED_POLL_SECONDS : 0;
+            fileWatcher = new DataFileWatcher(getDataDirectory(), storage, grantStorage, ioExecutor, pollSeconds);
+            fileWatcher.start();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            stopFileWatcher();
+            return false;
+        }
+    }
+
+    private synchronized void stopFileWatcher() {
+        if (fileWatcher != null) {
+            fileWatcher.close();
+            fileWatcher = null;
+        }
+    }
+
+    public MessageBundles getMessageBundles() {
+        return messageBundles;
+    }
+
     public HomeStorage getStorage() {
         return storage;
     }
@@ -111,10 +318,18 @@ public class EasyHome extends JavaPlugin {
         return playerCache;
     }
 
+    public WorldTasks getWorldTasks() {
+        return worldTasks;
+    }
+
     public WarmupManager getWarmupManager() {
         return warmupManager;
     }
 
+    public HomeActions getHomeActions() {
+        return homeActions;
+    }
+
     /**
      * Get the home limit for a player.
      * Combines permission-based limits and grant-based bonuses additively.
@@ -123,8 +338,39 @@ public class EasyHome extends JavaPlugin {
      * Where baseLimit = permissionLimit (if enabled) or defaultLimit
      */
     public int getHomeLimit(Player player, UUID playerId) {
+        return getHomeLimit(player::hasPermission, playerId);
+    }
+
+    /**
+     * Get the home limit with permissions checked through the given test,
+     * for callers that only have a UUID (see EasyHomeApi).
+     */
+    int getHomeLimit(Predicate<String> hasPermission, UUID playerId) {
+        return getHomeLimit(hasPermission, playerId, grantStorage.getBonusHomes(playerId));
+    }
+
+    /**
+     * Get the home limit with the player's granted homes already looked up,
+     * so grants read without caching them can be used.
+     */
+    int getHomeLimit(Predicate<String> hasPermission, UUID playerId, int bonusHomes) {
+        JfrEvents.HomeLimit event = new JfrEvents.HomeLimit();
+        event.begin();
+
+        int limit = resolveHomeLimit(hasPermission, bonusHomes);
+
+        if (event.shouldCommit()) {
+            event.playerId = playerId.toString();
+            event.source = config.isPermissionOverridesEnabled() ? "permissions + grants" : "default + grants";
+            event.limit = limit;
+            event.commit();
+        }
+        return limit;
+    }
+
+    private int resolveHomeLimit(Predicate<String> hasPermission, int bonusHomes) {
         // Check for unlimited permission first
-        if (player.hasPermission("homes.limit.unlimited")) {
+        if (hasPermission.test("homes.limit.unlimited")) {
             return config.getMaxHomeLimit();
         }
 
@@ -133,23 +379,22 @@ public class EasyHome extends JavaPlugin {
         // If permission overrides are enabled, check for specific limits
         if (config.isPermissionOverridesEnabled()) {
             // Check for specific permission-based limits (highest first)
-            if (player.hasPermission("homes.limit.50")) {
+            if (hasPermission.test("homes.limit.50")) {
                 baseLimit = 50;
-            } else if (player.hasPermission("homes.limit.25")) {
+            } else if (hasPermission.test("homes.limit.25")) {
                 baseLimit = 25;
-            } else if (player.hasPermission("homes.limit.10")) {
+            } else if (hasPermission.test("homes.limit.10")) {
                 baseLimit = 10;
-            } else if (player.hasPermission("homes.limit.5")) {
+            } else if (hasPermission.test("homes.limit.5")) {
                 baseLimit = 5;
-            } else if (player.hasPermission("homes.limit.3")) {
+            } else if (hasPermission.test("homes.limit.3")) {
                 baseLimit = 3;
-            } else if (player.hasPermission("homes.limit.1")) {
+            } else if (hasPermission.test("homes.limit.1")) {
                 baseLimit = 1;
             }
         }
 
         // Add bonus homes from grants (additive stacking)
-        int bonusHomes = grantStorage.getBonusHomes(playerId);
         int effectiveLimit = baseLimit + bonusHomes;
 
         // Cap at max home limit
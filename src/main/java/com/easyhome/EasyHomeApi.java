@@ -0,0 +1,135 @@
+package com.easyhome;
+
+import com.easyhome.data.GrantStorage;
+import com.easyhome.data.Home;
+import com.easyhome.data.HomeStorage;
+import com.easyhome.data.PlayerGrants;
+import com.easyhome.data.PlayerHomes;
+import com.easyhome.event.HomeEventBus;
+import com.hypixel.hytale.server.core.permissions.PermissionsModule;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Read-only queries for other plugins. Available between EasyHome's setup
+ * and shutdown through EasyHomeApi.get().
+ *
+ * Every query returns a CompletableFuture and never blocks the caller:
+ * players already in memory get an already-completed future, and anyone
+ * else is read on EasyHome's I/O executor without being kept in memory.
+ * Bulk variants read cold players several files per task. Returned homes
+ * are snapshots; use
+ * getEvents() to hear about later changes.
+ */
+public final class EasyHomeApi {
+    private static volatile EasyHomeApi instance;
+
+    private final EasyHome plugin;
+    private final HomeStorage storage;
+    private final GrantStorage grants;
+    private final CompletableFuture<Void> indexReady;
+
+    EasyHomeApi(EasyHome plugin, CompletableFuture<Void> indexReady) {
+        this.plugin = plugin;
+        this.storage = plugin.getStorage();
+        this.grants = plugin.getGrantStorage();
+        this.indexReady = indexReady;
+    }
+
+    /**
+     * The running API.
+     *
+     * @throws IllegalStateException if EasyHome is not enabled
+     */
+    public static EasyHomeApi get() {
+        EasyHomeApi api = instance;
+        if (api == null) {
+            throw new IllegalStateException("EasyHome is not enabled");
+        }
+        return api;
+    }
+
+    public static boolean isAvailable() {
+        return instance != null;
+    }
+
+    static void publish(EasyHomeApi api) {
+        instance = api;
+    }
+
+    /**
+     * Register listeners here for home and grant changes.
+     */
+    public HomeEventBus getEvents() {
+        return plugin.getEvents();
+    }
+
+    /**
+     * A player's homes, sorted by name.
+     */
+    public CompletableFuture<Collection<Home>> getHomes(UUID playerId) {
+        return storage.readHomesAsync(playerId).thenApply(PlayerHomes::getAllHomes);
+    }
+
+    /**
+     * Homes for many players, keyed in the order given. Duplicates are ignored.
+     */
+    public CompletableFuture<Map<UUID, Collection<Home>>> getHomes(Collection<UUID> playerIds) {
+        return storage.readHomesAsync(playerIds).thenApply(loaded -> {
+            Map<UUID, Collection<Home>> result = new LinkedHashMap<>();
+            loaded.forEach((playerId, homes) -> result.put(playerId, homes.getAllHomes()));
+            return result;
+        });
+    }
+
+    /**
+     * How many homes a player may have: permission or default limit plus
+     * granted homes, capped at the configured maximum. Permissions are
+     * checked through the server's permission module, so this works for
+     * offline players too.
+     */
+    public CompletableFuture<Integer> getHomeLimit(UUID playerId) {
+        return grants.readGrantsAsync(playerId).thenApply(loaded -> resolveLimit(playerId, loaded));
+    }
+
+    /**
+     * Home limits for many players, keyed in the order given.
+     */
+    public CompletableFuture<Map<UUID, Integer>> getHomeLimits(Collection<UUID> playerIds) {
+        return grants.readGrantsAsync(playerIds).thenApply(loaded -> {
+            Map<UUID, Integer> result = new LinkedHashMap<>();
+            for (Map.Entry<UUID, PlayerGrants> entry : loaded.entrySet()) {
+                result.put(entry.getKey(), resolveLimit(entry.getKey(), entry.getValue()));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * A player's closest home in a world, or empty if they have none there.
+     */
+    public CompletableFuture<Optional<Home>> getNearestHome(UUID playerId, String world, double x, double y, double z) {
+        return storage.readHomesAsync(playerId)
+                .thenApply(homes -> Optional.ofNullable(homes.getNearestHome(world, x, y, z)));
+    }
+
+    /**
+     * Players with at least one home in a world. Completes once the startup
+     * home index is built, and immediately after that.
+     */
+    public CompletableFuture<Set<UUID>> getPlayersWithHomesIn(String world) {
+        return indexReady.thenApply(v -> storage.getWorldIndex().getPlayers(world));
+    }
+
+    private int resolveLimit(UUID playerId, PlayerGrants playerGrants) {
+        Predicate<String> hasPermission = node -> PermissionsModule.get().hasPermission(playerId, node);
+        return plugin.getHomeLimit(hasPermission, playerId, playerGrants.getBonusHomes());
+    }
+}
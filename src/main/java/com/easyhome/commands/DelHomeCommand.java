@@ -1,8 +1,8 @@
 package com.easyhome.commands;
 
 import com.easyhome.EasyHome;
-import com.easyhome.data.PlayerHomes;
-import com.easyhome.util.Messages;
+import com.easyhome.util.HytaleTeleportTarget;
+import com.easyhome.util.Metrics;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.Message;
@@ -48,6 +48,19 @@ public class DelHomeCommand extends AbstractPlayerCommand {
                           @Nonnull Ref<EntityStore> playerRef,
                           @Nonnull PlayerRef playerData,
                           @Nonnull World world) {
+        long start = System.nanoTime();
+        try {
+            handle(ctx, store, playerRef, playerData, world);
+        } finally {
+            Metrics.get().recordSince("command.delhome", start);
+        }
+    }
+
+    private void handle(CommandContext ctx,
+                        Store<EntityStore> store,
+                        Ref<EntityStore> playerRef,
+                        PlayerRef playerData,
+                        World world) {
 
         // Update player cache for offline lookups
         plugin.getPlayerCache().updatePlayer(playerData.getUuid(), playerData.getUsername());
@@ -59,14 +72,6 @@ public class DelHomeCommand extends AbstractPlayerCommand {
             return;
         }
 
-        PlayerHomes homes = plugin.getStorage().getHomes(playerData.getUuid());
-
-        if (!homes.removeHome(homeName)) {
-            playerData.sendMessage(Messages.homeNotFound(homeName));
-            return;
-        }
-
-        plugin.getStorage().saveHomes(playerData.getUuid());
-        playerData.sendMessage(Messages.homeDeleted(homeName));
+        plugin.getHomeActions().deleteHome(new HytaleTeleportTarget(playerData, playerRef, store, world), homeName);
     }
 }
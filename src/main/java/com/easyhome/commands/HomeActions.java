@@ -0,0 +1,135 @@
+package com.easyhome.commands;
+
+import com.easyhome.config.HomeConfig;
+import com.easyhome.data.GrantStorage;
+import com.easyhome.data.Home;
+import com.easyhome.data.HomeStorage;
+import com.easyhome.data.PlayerHomes;
+import com.easyhome.util.TeleportTarget;
+import com.easyhome.util.WarmupManager;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What /sethome, /home and /delhome do once their arguments are parsed and
+ * permissions looked up. Runs on the player's world thread.
+ *
+ * The commands call this with the real player; the load test calls it with
+ * simulated ones, so both exercise the same steps.
+ */
+public class HomeActions {
+    private static final String NEAREST_HOME_NAME = "nearest";
+    private static final int MAX_SUGGESTIONS = 5;
+
+    private final HomeConfig config;
+    private final HomeStorage storage;
+    private final GrantStorage grants;
+    private final WarmupManager warmups;
+
+    public HomeActions(HomeConfig config, HomeStorage storage, GrantStorage grants, WarmupManager warmups) {
+        this.config = config;
+        this.storage = storage;
+        this.grants = grants;
+        this.warmups = warmups;
+    }
+
+    /**
+     * Save the player's current position as a home, unless that would take
+     * them over their limit.
+     */
+    public void setHome(TeleportTarget player, String homeName, int limit) {
+        double[] position = player.getPosition();
+        float[] rotation = player.getRotation();
+        if (position == null || rotation == null) {
+            return;
+        }
+        UUID playerId = player.getPlayerId();
+        Home home = new Home(homeName, player.getWorld().getName(),
+                position[0], position[1], position[2], rotation[0], rotation[1]);
+
+        // Limit check and insert happen atomically per player
+        if (storage.setHomeIfUnderLimit(playerId, home, limit) == HomeStorage.SetResult.LIMIT_REACHED) {
+            player.sendHomeLimitReached(limit);
+            return;
+        }
+
+        storage.saveHomesAsync(playerId);
+        player.sendHomeSet(homeName);
+    }
+
+    /**
+     * Delete a home, suggesting similar names if there is none by that name.
+     */
+    public void deleteHome(TeleportTarget player, String homeName) {
+        UUID playerId = player.getPlayerId();
+        if (!storage.deleteHome(playerId, homeName)) {
+            player.sendHomeNotFound(homeName);
+
+            List<String> suggestions = storage.completeHomeNames(playerId, homeName, MAX_SUGGESTIONS);
+            if (!suggestions.isEmpty()) {
+                player.sendDidYouMean(suggestions);
+            }
+            return;
+        }
+
+        storage.saveHomesAsync(playerId);
+        player.sendHomeDeleted(homeName);
+    }
+
+    /**
+     * Start the teleport to a home, or to the closest one for "nearest".
+     *
+     * @param bypassCooldown Skip the cooldown check and don't start a new cooldown
+     * @param bypassWarmup   Teleport at once (instant teleport grants also do)
+     */
+    public void home(TeleportTarget player, String homeName, boolean bypassCooldown, boolean bypassWarmup) {
+        UUID playerId = player.getPlayerId();
+        PlayerHomes homes = storage.getHomes(playerId);
+
+        Home home = homes.getHome(homeName);
+
+        // "nearest" picks the closest home, unless the player named a home "nearest"
+        if (home == null && homeName.equalsIgnoreCase(NEAREST_HOME_NAME)) {
+            double[] position = player.getPosition();
+            if (position == null) {
+                return;
+            }
+            home = homes.getNearestHome(player.getWorld().getName(), position[0], position[1], position[2]);
+            if (home == null) {
+                player.sendNoHomesInWorld();
+                return;
+            }
+        }
+
+        if (home == null) {
+            player.sendHomeNotFound(homeName);
+
+            List<String> suggestions = storage.completeHomeNames(playerId, homeName, MAX_SUGGESTIONS);
+            if (!suggestions.isEmpty()) {
+                player.sendDidYouMean(suggestions);
+            } else if (homes.getHomeCount() > 0) {
+                player.sendUseHomesHint();
+            }
+            return;
+        }
+
+        // Check cooldown from the last successful teleport
+        int cooldownSeconds = config.getCooldownSeconds();
+        if (bypassCooldown) {
+            cooldownSeconds = 0;
+        } else {
+            int remaining = warmups.getCooldownRemaining(playerId);
+            if (remaining > 0) {
+                player.sendOnCooldown(remaining);
+                return;
+            }
+        }
+
+        // Warmup bypass - either via permission or via grant
+        boolean instant = bypassWarmup || grants.hasInstantTeleport(playerId);
+
+        warmups.startWarmup(player, home, config.getWarmupSeconds(), config.getMovementThreshold(),
+                instant, cooldownSeconds);
+    }
+}
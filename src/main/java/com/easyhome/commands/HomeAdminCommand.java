@@ -2,8 +2,14 @@ package com.easyhome.commands;
 
 import com.easyhome.EasyHome;
 import com.easyhome.config.HomeConfig;
+import com.easyhome.data.GrantStorage;
+import com.easyhome.data.HomeStorage;
 import com.easyhome.data.PlayerGrants;
 import com.easyhome.data.PlayerHomes;
+import com.easyhome.data.SpatialIndex;
+import com.easyhome.data.WorldIndex;
+import com.easyhome.util.Messages;
+import com.easyhome.util.Metrics;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
@@ -13,7 +19,21 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.NameMatching;
 
 import java.awt.Color;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * /easyhome admin - Admin configuration commands for EasyHome.
@@ -22,16 +42,33 @@ import java.util.UUID;
  * Subcommands:
  *   /easyhome admin config              - Show current settings
  *   /easyhome admin set <key> <value>   - Change a setting
- *   /easyhome admin reload              - Reload config from file
- *   /easyhome admin grant homes <player> <amount>
- *   /easyhome admin revoke homes <player> <amount>
+ *   /easyhome admin reload              - Reload config and message files
+ *   /easyhome admin metrics [reset]     - Show or reset plugin metrics
+ *   /easyhome admin grant homes <player|@online|@file:path> <amount>
+ *   /easyhome admin revoke homes <player|@online|@file:path> <amount>
  *   /easyhome admin grant instanttp <player>
  *   /easyhome admin revoke instanttp <player>
  *   /easyhome admin status <player>
+ *   /easyhome admin homes region <world> <x1> <z1> <x2> <z2>
+ *   /easyhome admin homes list|count world <name>
+ *   /easyhome admin homes purge world <name> [confirm]
+ *
+ * Subcommands that touch disk run on the plugin I/O executor and report
+ * back through the CommandContext when done.
  */
 public class HomeAdminCommand extends CommandBase {
     private final EasyHome plugin;
 
+    // How long an admin subcommand may spend on disk before we give up waiting
+    private static final long ASYNC_TIMEOUT_SECONDS = 30;
+    private static final long BULK_TIMEOUT_SECONDS = 600;
+
+    // Maximum individual homes printed by home queries
+    private static final int MAX_LISTED_HOMES = 20;
+
+    // Maximum "did you mean" names offered for an unknown player
+    private static final int MAX_SUGGESTIONS = 5;
+
     private static final Color GOLD = new Color(255, 170, 0);
     private static final Color GREEN = new Color(85, 255, 85);
     private static final Color RED = new Color(255, 85, 85);
@@ -39,6 +76,50 @@ public class HomeAdminCommand extends CommandBase {
     private static final Color AQUA = new Color(85, 255, 255);
     private static final Color YELLOW = new Color(255, 255, 85);
 
+    // Static output, built once and sent as a single message each time
+    private static final Message BLANK = line("", GRAY);
+    private static final Message USAGE = Messages.lines(
+            line("=== EasyHome ===", GOLD),
+            line("/easyhome admin - Admin settings", GRAY));
+    private static final Message ADMIN_HELP = Messages.lines(
+            line("=== EasyHome Admin ===", GOLD),
+            BLANK,
+            line("Configuration:", YELLOW),
+            line("  /easyhome admin config - Show current settings", GRAY),
+            line("  /easyhome admin set <key> <value> - Change a setting", GRAY),
+            line("  /easyhome admin reload - Reload settings and messages", GRAY),
+            BLANK,
+            line("Player Grants:", YELLOW),
+            line("  /easyhome admin grant homes <player> <amount>", GRAY),
+            line("  /easyhome admin revoke homes <player> <amount>", GRAY),
+            line("  /easyhome admin grant instanttp <player>", GRAY),
+            line("  /easyhome admin revoke instanttp <player>", GRAY),
+            line("  /easyhome admin status <player>", GRAY),
+            line("  <player> for homes can also be @online or @file:<path>", GRAY),
+            BLANK,
+            line("Home Queries:", YELLOW),
+            line("  /easyhome admin homes region <world> <x1> <z1> <x2> <z2>", GRAY),
+            line("  /easyhome admin homes list|count world <name>", GRAY),
+            line("  /easyhome admin homes purge world <name> confirm", GRAY),
+            BLANK,
+            line("Diagnostics:", YELLOW),
+            line("  /easyhome admin metrics [reset] - Command, storage and teleport stats", GRAY));
+    private static final Message HOMES_USAGE = Messages.lines(
+            line("Usage:", GOLD),
+            line("  /easyhome admin homes region <world> <x1> <z1> <x2> <z2>", GRAY),
+            line("  /easyhome admin homes list|count world <name>", GRAY),
+            line("  /easyhome admin homes purge world <name> confirm", GRAY));
+    private static final Message CONFIG_HEADER = line("=== EasyHome Settings ===", GOLD);
+    private static final Message CONFIG_FOOTER = Messages.lines(
+            line("Change settings with:", GRAY),
+            line("  /easyhome admin set default 5", YELLOW),
+            line("  /easyhome admin set max 25", YELLOW),
+            line("  /easyhome admin set warmup 0", YELLOW),
+            line("  /easyhome admin set cooldown 30", YELLOW),
+            line("  /easyhome admin set permissions on", YELLOW));
+    private static final Message STATUS_LIMITS_HEADER = line("Home Limits:", YELLOW);
+    private static final Message STATUS_PERKS_HEADER = line("Perks:", YELLOW);
+
     public HomeAdminCommand(EasyHome plugin) {
         super("easyhome", "EasyHome admin commands");
         this.plugin = plugin;
@@ -71,15 +152,19 @@ public class HomeAdminCommand extends CommandBase {
         String subcommand = args[0];
 
         if (subcommand.equalsIgnoreCase("admin")) {
-            handleAdmin(ctx, args);
+            long start = System.nanoTime();
+            try {
+                handleAdmin(ctx, args);
+            } finally {
+                Metrics.get().recordSince("command.easyhome", start);
+            }
         } else {
             showUsage(ctx);
         }
     }
 
     private void showUsage(CommandContext ctx) {
-        ctx.sendMessage(Message.raw("=== EasyHome ===").color(GOLD));
-        ctx.sendMessage(Message.raw("/easyhome admin - Admin settings").color(GRAY));
+        ctx.sendMessage(USAGE);
     }
 
     private void handleAdmin(CommandContext ctx, String[] args) {
@@ -117,6 +202,12 @@ public class HomeAdminCommand extends CommandBase {
             case "status":
                 handleStatus(ctx, arg1);
                 break;
+            case "homes":
+                handleHomes(ctx, args);
+                break;
+            case "metrics":
+                handleMetrics(ctx, arg1);
+                break;
             default:
                 ctx.sendMessage(Message.raw("Unknown command: " + adminCmd).color(RED));
                 showAdminHelp(ctx);
@@ -139,35 +230,31 @@ public class HomeAdminCommand extends CommandBase {
     }
 
     private void showAdminHelp(CommandContext ctx) {
-        ctx.sendMessage(Message.raw("=== EasyHome Admin ===").color(GOLD));
-        ctx.sendMessage(Message.raw("").color(GRAY));
-        ctx.sendMessage(Message.raw("Configuration:").color(YELLOW));
-        ctx.sendMessage(Message.raw("  /easyhome admin config - Show current settings").color(GRAY));
-        ctx.sendMessage(Message.raw("  /easyhome admin set <key> <value> - Change a setting").color(GRAY));
-        ctx.sendMessage(Message.raw("  /easyhome admin reload - Reload settings").color(GRAY));
-        ctx.sendMessage(Message.raw("").color(GRAY));
-        ctx.sendMessage(Message.raw("Player Grants:").color(YELLOW));
-        ctx.sendMessage(Message.raw("  /easyhome admin grant homes <player> <amount>").color(GRAY));
-        ctx.sendMessage(Message.raw("  /easyhome admin revoke homes <player> <amount>").color(GRAY));
-        ctx.sendMessage(Message.raw("  /easyhome admin grant instanttp <player>").color(GRAY));
-        ctx.sendMessage(Message.raw("  /easyhome admin revoke instanttp <player>").color(GRAY));
-        ctx.sendMessage(Message.raw("  /easyhome admin status <player>").color(GRAY));
+        ctx.sendMessage(ADMIN_HELP);
     }
 
     private void showConfig(CommandContext ctx) {
         HomeConfig config = plugin.getConfig();
-        ctx.sendMessage(Message.raw("=== EasyHome Settings ===").color(GOLD));
-        ctx.sendMessage(Message.raw("").color(GRAY));
-        ctx.sendMessage(Message.raw("Default homes: " + config.getDefaultHomeLimit()).color(AQUA));
-        ctx.sendMessage(Message.raw("Max homes: " + config.getMaxHomeLimit()).color(AQUA));
-        ctx.sendMessage(Message.raw("Teleport delay: " + config.getWarmupSeconds() + " seconds").color(AQUA));
-        ctx.sendMessage(Message.raw("Permission mode: " + (config.isPermissionOverridesEnabled() ? "on" : "off")).color(AQUA));
-        ctx.sendMessage(Message.raw("").color(GRAY));
-        ctx.sendMessage(Message.raw("Change settings with:").color(GRAY));
-        ctx.sendMessage(Message.raw("  /easyhome admin set default 5").color(YELLOW));
-        ctx.sendMessage(Message.raw("  /easyhome admin set max 25").color(YELLOW));
-        ctx.sendMessage(Message.raw("  /easyhome admin set warmup 0").color(YELLOW));
-        ctx.sendMessage(Message.raw("  /easyhome admin set permissions on").color(YELLOW));
+        ctx.sendMessage(Messages.lines(
+                CONFIG_HEADER,
+                BLANK,
+                line("Default homes: " + config.getDefaultHomeLimit(), AQUA),
+                line("Max homes: " + config.getMaxHomeLimit(), AQUA),
+                line("Teleport delay: " + config.getWarmupSeconds() + " seconds", AQUA),
+                line("Teleport cooldown: " + config.getCooldownSeconds() + " seconds"
+                        + (config.isPersistCooldowns() ? " (kept across restarts)" : ""), AQUA),
+                line("Permission mode: " + (config.isPermissionOverridesEnabled() ? "on" : "off"), AQUA),
+                line("Unified profiles: " + (config.isUnifiedProfilesEnabled() ? "on" : "off"), AQUA),
+                line("Watch data files: " + (config.isWatchDataFiles() ? "on" : "off"), AQUA),
+                line("Shared storage: " + (config.isSharedStorage() ? "on" : "off"), AQUA),
+                line("Metrics snapshot: " + (config.getMetricsSnapshotSeconds() > 0
+                        ? "every " + config.getMetricsSnapshotSeconds() + " seconds" : "off"), AQUA),
+                line("Metrics endpoint: " + (config.getMetricsPort() > 0
+                        ? "http://127.0.0.1:" + config.getMetricsPort() + "/metrics" : "off"), AQUA),
+                line("World task budget: " + config.getWorldTaskBudgetMicros() + " us per tick, slow over "
+                        + config.getSlowTaskMillis() + " ms", AQUA),
+                BLANK,
+                CONFIG_FOOTER));
     }
 
     private void handleSet(CommandContext ctx, String key, String valueStr) {
@@ -179,6 +266,12 @@ public class HomeAdminCommand extends CommandBase {
             ctx.sendMessage(Message.raw("    Max homes anyone can have").color(GRAY));
             ctx.sendMessage(Message.raw("  /easyhome admin set warmup 0").color(YELLOW));
             ctx.sendMessage(Message.raw("    Teleport delay (0 = instant)").color(GRAY));
+            ctx.sendMessage(Message.raw("  /easyhome admin set cooldown 30").color(YELLOW));
+            ctx.sendMessage(Message.raw("    Wait between /home teleports (0 = none)").color(GRAY));
+            ctx.sendMessage(Message.raw("  /easyhome admin set persistcooldowns on").color(YELLOW));
+            ctx.sendMessage(Message.raw("    Keep cooldowns across restarts").color(GRAY));
+            ctx.sendMessage(Message.raw("  /easyhome admin set profiles on").color(YELLOW));
+            ctx.sendMessage(Message.raw("    One data file per player (after restart)").color(GRAY));
             ctx.sendMessage(Message.raw("  /easyhome admin set permissions on").color(YELLOW));
             ctx.sendMessage(Message.raw("    Let permissions override default").color(GRAY));
             return;
@@ -223,6 +316,122 @@ public class HomeAdminCommand extends CommandBase {
                 }
                 break;
 
+            case "cooldown":
+                try {
+                    int value = Integer.parseInt(valueStr);
+                    config.setCooldownSeconds(value);
+                    if (value <= 0) {
+                        ctx.sendMessage(Message.raw("Teleport cooldown disabled!").color(GREEN));
+                    } else {
+                        ctx.sendMessage(Message.raw("Teleport cooldown set to " + value + " seconds!").color(GREEN));
+                    }
+                } catch (NumberFormatException e) {
+                    ctx.sendMessage(Message.raw("Please enter a number!").color(RED));
+                }
+                break;
+
+            case "metrics":
+                try {
+                    int value = Integer.parseInt(valueStr);
+                    config.setMetricsSnapshotSeconds(value);
+                    plugin.startMetricsSnapshots();
+                    if (value <= 0) {
+                        ctx.sendMessage(Message.raw("Metrics snapshots disabled!").color(GREEN));
+                    } else {
+                        ctx.sendMessage(Message.raw("Metrics written to metrics.json every " + value + " seconds!").color(GREEN));
+                    }
+                } catch (NumberFormatException e) {
+                    ctx.sendMessage(Message.raw("Please enter a number!").color(RED));
+                }
+                break;
+
+            case "metricsport":
+                try {
+                    int value = Integer.parseInt(valueStr);
+                    config.setMetricsPort(value);
+                    if (config.getMetricsPort() <= 0) {
+                        plugin.startMetricsServer();
+                        ctx.sendMessage(Message.raw("Metrics endpoint disabled!").color(GREEN));
+                    } else if (plugin.startMetricsServer()) {
+                        ctx.sendMessage(Message.raw("Metrics served at http://127.0.0.1:" + value + "/metrics").color(GREEN));
+                    } else {
+                        ctx.sendMessage(Message.raw("Could not open port " + value + " - is it in use?").color(RED));
+                    }
+                } catch (NumberFormatException e) {
+                    ctx.sendMessage(Message.raw("Please enter a port number (0 to disable)!").color(RED));
+                }
+                break;
+
+            case "taskbudget":
+                try {
+                    int value = Integer.parseInt(valueStr);
+                    config.setWorldTaskBudgetMicros(value);
+                    plugin.getWorldTasks().setBudgetMicros(config.getWorldTaskBudgetMicros());
+                    ctx.sendMessage(Message.raw("Movement checks limited to " + config.getWorldTaskBudgetMicros()
+                            + " microseconds per world per tick!").color(GREEN));
+                } catch (NumberFormatException e) {
+                    ctx.sendMessage(Message.raw("Please enter a number of microseconds!").color(RED));
+                }
+                break;
+
+            case "slowtask":
+                try {
+                    int value = Integer.parseInt(valueStr);
+                    config.setSlowTaskMillis(value);
+                    plugin.getWorldTasks().setSlowTaskMillis(config.getSlowTaskMillis());
+                    ctx.sendMessage(Message.raw("World tasks over " + config.getSlowTaskMillis() + " ms will be logged!").color(GREEN));
+                } catch (NumberFormatException e) {
+                    ctx.sendMessage(Message.raw("Please enter a number of milliseconds!").color(RED));
+                }
+                break;
+
+            case "persistcooldowns":
+                boolean persist = valueStr.equalsIgnoreCase("on") ||
+                                  valueStr.equalsIgnoreCase("true") ||
+                                  valueStr.equalsIgnoreCase("yes") ||
+                                  valueStr.equalsIgnoreCase("enabled");
+                config.setPersistCooldowns(persist);
+                ctx.sendMessage(Message.raw("Cooldown persistence " + (persist ? "enabled" : "disabled") + "!").color(GREEN));
+                break;
+
+            case "profiles":
+                boolean unified = valueStr.equalsIgnoreCase("on") ||
+                                  valueStr.equalsIgnoreCase("true") ||
+                                  valueStr.equalsIgnoreCase("yes") ||
+                                  valueStr.equalsIgnoreCase("enabled");
+                config.setUnifiedProfilesEnabled(unified);
+                ctx.sendMessage(Message.raw("Unified player profiles " + (unified ? "enabled" : "disabled") + "!").color(GREEN));
+                ctx.sendMessage(Message.raw("Restart the server to apply. Data changed in the other format is carried over on startup.").color(GRAY));
+                break;
+
+            case "watchfiles":
+                boolean watch = valueStr.equalsIgnoreCase("on") ||
+                                valueStr.equalsIgnoreCase("true") ||
+                                valueStr.equalsIgnoreCase("yes") ||
+                                valueStr.equalsIgnoreCase("enabled");
+                config.setWatchDataFiles(watch);
+                if (!watch) {
+                    plugin.startFileWatcher();
+                    ctx.sendMessage(Message.raw("Data file watching disabled!").color(GREEN));
+                } else if (config.isUnifiedProfilesEnabled()) {
+                    ctx.sendMessage(Message.raw("Data file watching only works without unified profiles.").color(RED));
+                } else if (plugin.startFileWatcher()) {
+                    ctx.sendMessage(Message.raw("Edited homes/ and grants/ files will be reloaded automatically!").color(GREEN));
+                } else {
+                    ctx.sendMessage(Message.raw("Could not watch the data folder - see the server log.").color(RED));
+                }
+                break;
+
+            case "shared":
+                boolean shared = valueStr.equalsIgnoreCase("on") ||
+                                 valueStr.equalsIgnoreCase("true") ||
+                                 valueStr.equalsIgnoreCase("yes") ||
+                                 valueStr.equalsIgnoreCase("enabled");
+                config.setSharedStorage(shared);
+                ctx.sendMessage(Message.raw("Shared storage " + (shared ? "enabled" : "disabled") + "!").color(GREEN));
+                ctx.sendMessage(Message.raw("Restart the server to apply. Turn it on for every server using this folder.").color(GRAY));
+                break;
+
             case "permissions":
             case "perms":
                 boolean enabled = valueStr.equalsIgnoreCase("on") ||
@@ -240,14 +449,260 @@ public class HomeAdminCommand extends CommandBase {
                 break;
 
             default:
-                ctx.sendMessage(Message.raw("Unknown setting! Try: default, max, warmup, permissions").color(RED));
+                ctx.sendMessage(Message.raw("Unknown setting! Try: default, max, warmup, cooldown, persistcooldowns, profiles, watchfiles, shared, metrics, metricsport, taskbudget, slowtask, permissions").color(RED));
         }
     }
 
     private void handleReload(CommandContext ctx) {
-        plugin.getConfig().reload();
-        ctx.sendMessage(Message.raw("Configuration reloaded!").color(GREEN));
-        showConfig(ctx);
+        // Message bundles are re-read on the same I/O task, after the config
+        CompletableFuture<Integer> reload = plugin.getConfig().reloadAsync()
+                .thenApply(ignored -> {
+                    HomeConfig config = plugin.getConfig();
+                    plugin.getWorldTasks().setBudgetMicros(config.getWorldTaskBudgetMicros());
+                    plugin.getWorldTasks().setSlowTaskMillis(config.getSlowTaskMillis());
+                    plugin.startFileWatcher();
+                    return plugin.getMessageBundles().reload();
+                });
+        completeAsync(ctx, "reload", reload, languages -> {
+            ctx.sendMessage(Message.raw("Configuration reloaded! (" + languages + " languages)").color(GREEN));
+            showConfig(ctx);
+        });
+    }
+
+    /**
+     * Run blocking work on the I/O executor and report the result when done.
+     */
+    private <T> void runAsync(CommandContext ctx, String action, Supplier<T> task, Consumer<T> onSuccess) {
+        completeAsync(ctx, action, plugin.getIoExecutor().supply(task), onSuccess);
+    }
+
+    /**
+     * Wait for an async result with a timeout, reporting failures to the sender.
+     */
+    private <T> void completeAsync(CommandContext ctx, String action, CompletableFuture<T> future, Consumer<T> onSuccess) {
+        completeAsync(ctx, action, future, ASYNC_TIMEOUT_SECONDS, onSuccess);
+    }
+
+    private <T> void completeAsync(CommandContext ctx, String action, CompletableFuture<T> future,
+                                   long timeoutSeconds, Consumer<T> onSuccess) {
+        // The timeout only stops the wait: the work itself can't be interrupted, so report it when it ends
+        future.copy().orTimeout(timeoutSeconds, TimeUnit.SECONDS).whenComplete((result, error) -> {
+            if (unwrap(error) instanceof TimeoutException) {
+                ctx.sendMessage(Message.raw("Admin " + action + " is still running after " + timeoutSeconds
+                        + " seconds; the result will be shown here when it finishes.").color(YELLOW));
+                future.whenComplete((late, lateError) -> report(ctx, action, late, lateError, onSuccess));
+                return;
+            }
+            report(ctx, action, result, error, onSuccess);
+        });
+    }
+
+    private static <T> void report(CommandContext ctx, String action, T result, Throwable error, Consumer<T> onSuccess) {
+        if (error == null) {
+            onSuccess.accept(result);
+            return;
+        }
+
+        Throwable cause = unwrap(error);
+        String reason = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        ctx.sendMessage(Message.raw("Admin " + action + " failed: " + reason).color(RED));
+        cause.printStackTrace();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void handleHomes(CommandContext ctx, String[] args) {
+        // args: admin homes <query> ...
+        String query = args.length > 2 ? args[2].toLowerCase() : "";
+
+        switch (query) {
+            case "region":
+            case "list":
+            case "count":
+            case "purge":
+                break;
+            default:
+                showHomesUsage(ctx);
+                return;
+        }
+
+        // Until the startup index is complete, answers would be partial and purges would miss homes
+        CompletableFuture<Void> indexReady = plugin.getIndexReady();
+        if (indexReady.isCompletedExceptionally()) {
+            ctx.sendMessage(Message.raw("The home index could not be built - see the server log.").color(RED));
+            return;
+        }
+        if (!indexReady.isDone()) {
+            ctx.sendMessage(Message.raw("The home index is still being built, try again in a moment.").color(YELLOW));
+            return;
+        }
+
+        if (query.equals("region")) {
+            handleRegionQuery(ctx, args);
+            return;
+        }
+
+        // list|count|purge world <name>
+        if (args.length < 5 || !args[3].equalsIgnoreCase("world")) {
+            if (query.equals("count") || query.equals("list")) {
+                showWorldCounts(ctx);
+            } else {
+                showHomesUsage(ctx);
+            }
+            return;
+        }
+
+        String world = args[4];
+        switch (query) {
+            case "list":
+                listWorldHomes(ctx, world);
+                break;
+            case "count":
+                WorldIndex index = plugin.getStorage().getWorldIndex();
+                ctx.sendMessage(Message.raw(world + ": " + index.countHomes(world) + " homes owned by "
+                        + index.countPlayers(world) + " players").color(AQUA));
+                break;
+            case "purge":
+                boolean confirmed = args.length > 5 && args[5].equalsIgnoreCase("confirm");
+                purgeWorldHomes(ctx, world, confirmed);
+                break;
+        }
+    }
+
+    private void showHomesUsage(CommandContext ctx) {
+        ctx.sendMessage(HOMES_USAGE);
+    }
+
+    private void showWorldCounts(CommandContext ctx) {
+        Map<String, Integer> counts = plugin.getStorage().getWorldIndex().getWorldCounts();
+        ctx.sendMessage(Message.raw("=== Homes per world ===").color(GOLD));
+        if (counts.isEmpty()) {
+            ctx.sendMessage(Message.raw("No homes stored.").color(GRAY));
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            ctx.sendMessage(Message.raw("  " + entry.getKey() + ": " + entry.getValue()).color(AQUA));
+        }
+    }
+
+    private void listWorldHomes(CommandContext ctx, String world) {
+        WorldIndex index = plugin.getStorage().getWorldIndex();
+        List<UUID> players = new ArrayList<>(index.getPlayers(world));
+
+        ctx.sendMessage(Message.raw("=== Homes in " + world + " ===").color(GOLD));
+        ctx.sendMessage(Message.raw(index.countHomes(world) + " homes owned by " + players.size() + " players").color(GRAY));
+
+        int shown = Math.min(players.size(), MAX_LISTED_HOMES);
+        for (int i = 0; i < shown; i++) {
+            UUID owner = players.get(i);
+            ctx.sendMessage(Message.raw("  " + displayName(owner) + ": "
+                    + String.join(", ", index.getHomeNames(world, owner))).color(AQUA));
+        }
+        if (players.size() > shown) {
+            ctx.sendMessage(Message.raw("  ... and " + (players.size() - shown) + " more players").color(GRAY));
+        }
+    }
+
+    private void purgeWorldHomes(CommandContext ctx, String world, boolean confirmed) {
+        WorldIndex index = plugin.getStorage().getWorldIndex();
+        int homeCount = index.countHomes(world);
+        int playerCount = index.countPlayers(world);
+
+        if (homeCount == 0) {
+            ctx.sendMessage(Message.raw("No homes found in world " + world).color(YELLOW));
+            return;
+        }
+        if (!confirmed) {
+            ctx.sendMessage(Message.raw("This will delete " + homeCount + " homes from " + playerCount + " players.").color(YELLOW));
+            ctx.sendMessage(Message.raw("Run /easyhome admin homes purge world " + world + " confirm to continue.").color(GRAY));
+            return;
+        }
+
+        ctx.sendMessage(Message.raw("Purging " + homeCount + " homes in " + world + "...").color(GRAY));
+        CompletableFuture<HomeStorage.PurgeResult> purge = plugin.getStorage().purgeWorld(world);
+        completeAsync(ctx, "purge", purge, BULK_TIMEOUT_SECONDS, result -> {
+            ctx.sendMessage(Message.raw("Deleted " + result.homes() + " homes from " + result.players()
+                    + " players in " + world).color(GREEN));
+            ctx.sendMessage(Message.raw("Took " + result.elapsedMillis() + " ms").color(GRAY));
+        });
+    }
+
+    private void handleRegionQuery(CommandContext ctx, String[] args) {
+        if (args.length < 8) {
+            ctx.sendMessage(Message.raw("Usage: /easyhome admin homes region <world> <x1> <z1> <x2> <z2>").color(YELLOW));
+            return;
+        }
+
+        String world = args[3];
+        double x1, z1, x2, z2;
+        try {
+            x1 = Double.parseDouble(args[4]);
+            z1 = Double.parseDouble(args[5]);
+            x2 = Double.parseDouble(args[6]);
+            z2 = Double.parseDouble(args[7]);
+        } catch (NumberFormatException e) {
+            ctx.sendMessage(Message.raw("Coordinates must be numbers!").color(RED));
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<SpatialIndex.Entry> results = plugin.getStorage().getSpatialIndex().queryRegion(world, x1, z1, x2, z2);
+        double micros = (System.nanoTime() - start) / 1000.0;
+
+        ctx.sendMessage(Message.raw("=== Homes in " + world + " region ===").color(GOLD));
+        ctx.sendMessage(Message.raw(String.format("Found %d homes (%.0f us)", results.size(), micros)).color(GRAY));
+
+        int shown = Math.min(results.size(), MAX_LISTED_HOMES);
+        for (int i = 0; i < shown; i++) {
+            SpatialIndex.Entry entry = results.get(i);
+            ctx.sendMessage(Message.raw("  " + displayName(entry.owner()) + ": " + entry.name()
+                    + " (" + entry.getFormattedLocation() + ")").color(AQUA));
+        }
+        if (results.size() > shown) {
+            ctx.sendMessage(Message.raw("  ... and " + (results.size() - shown) + " more").color(GRAY));
+        }
+    }
+
+    private void handleMetrics(CommandContext ctx, String action) {
+        if ("reset".equalsIgnoreCase(action)) {
+            Metrics.get().reset();
+            ctx.sendMessage(Message.raw("Metrics reset.").color(GREEN));
+            return;
+        }
+
+        Metrics.Snapshot snapshot = Metrics.get().snapshot();
+        List<Message> lines = new ArrayList<>();
+        lines.add(line("=== EasyHome Metrics ===", GOLD));
+
+        lines.add(line("Timers (count, mean / p50 / p99 / max ms):", YELLOW));
+        if (snapshot.timers().isEmpty()) {
+            lines.add(line("  Nothing recorded yet.", GRAY));
+        }
+        for (Map.Entry<String, Metrics.TimerStats> entry : snapshot.timers().entrySet()) {
+            Metrics.TimerStats stats = entry.getValue();
+            lines.add(line("  " + entry.getKey() + ": " + stats.count() + ", "
+                    + millis(stats.meanMicros()) + " / " + millis(stats.p50Micros()) + " / "
+                    + millis(stats.p99Micros()) + " / " + millis(stats.maxMicros()), AQUA));
+        }
+
+        lines.add(line("Counters:", YELLOW));
+        snapshot.counters().forEach((name, value) -> lines.add(line("  " + name + ": " + value, AQUA)));
+
+        lines.add(line("Gauges:", YELLOW));
+        snapshot.gauges().forEach((name, value) -> lines.add(line("  " + name + ": " + value, AQUA)));
+
+        ctx.sendMessage(Messages.lines(lines));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    private String displayName(UUID playerId) {
+        String username = plugin.getPlayerCache().getUsername(playerId);
+        return username != null ? username : playerId.toString();
     }
 
     /**
@@ -284,6 +739,17 @@ public class HomeAdminCommand extends CommandBase {
         return null;
     }
 
+    private void sendPlayerNotFound(CommandContext ctx, String playerIdentifier) {
+        ctx.sendMessage(Message.raw("Player not found: " + playerIdentifier).color(RED));
+
+        List<String> suggestions = plugin.getPlayerCache().suggestUsernames(playerIdentifier, MAX_SUGGESTIONS);
+        if (!suggestions.isEmpty()) {
+            ctx.sendMessage(Message.raw("Did you mean: " + String.join(", ", suggestions) + "?").color(YELLOW));
+        } else {
+            ctx.sendMessage(Message.raw("Note: For offline players, use their UUID.").color(GRAY));
+        }
+    }
+
     private void handleGrant(CommandContext ctx, String type, String playerIdentifier, String amountStr) {
         if (type == null) {
             ctx.sendMessage(Message.raw("Usage:").color(GOLD));
@@ -307,14 +773,21 @@ public class HomeAdminCommand extends CommandBase {
 
     private void grantHomes(CommandContext ctx, String playerIdentifier, String amountStr) {
         if (playerIdentifier == null || amountStr == null) {
-            ctx.sendMessage(Message.raw("Usage: /easyhome admin grant homes <player|uuid> <amount>").color(YELLOW));
+            ctx.sendMessage(Message.raw("Usage: /easyhome admin grant homes <player|uuid|@online|@file:path> <amount>").color(YELLOW));
+            return;
+        }
+
+        if (playerIdentifier.startsWith("@")) {
+            Integer amount = parseAmount(ctx, amountStr);
+            if (amount != null) {
+                bulkUpdateHomes(ctx, playerIdentifier, amount);
+            }
             return;
         }
 
         UUID targetUuid = resolvePlayer(playerIdentifier);
         if (targetUuid == null) {
-            ctx.sendMessage(Message.raw("Player not found: " + playerIdentifier).color(RED));
-            ctx.sendMessage(Message.raw("Note: For offline players, use their UUID.").color(GRAY));
+            sendPlayerNotFound(ctx, playerIdentifier);
             return;
         }
 
@@ -330,11 +803,137 @@ public class HomeAdminCommand extends CommandBase {
             return;
         }
 
-        plugin.getGrantStorage().grantHomes(targetUuid, amount);
+        runAsync(ctx, "grant", () -> {
+            plugin.getGrantStorage().grantHomes(targetUuid, amount);
+            return plugin.getGrantStorage().getBonusHomes(targetUuid);
+        }, newTotal -> {
+            ctx.sendMessage(Message.raw("Granted +" + amount + " home slots to " + playerIdentifier).color(GREEN));
+            ctx.sendMessage(Message.raw("They now have +" + newTotal + " bonus homes.").color(GRAY));
+        });
+    }
 
-        int newTotal = plugin.getGrantStorage().getBonusHomes(targetUuid);
-        ctx.sendMessage(Message.raw("Granted +" + amount + " home slots to " + playerIdentifier).color(GREEN));
-        ctx.sendMessage(Message.raw("They now have +" + newTotal + " bonus homes.").color(GRAY));
+    private Integer parseAmount(CommandContext ctx, String amountStr) {
+        try {
+            int amount = Integer.parseInt(amountStr);
+            if (amount <= 0) {
+                ctx.sendMessage(Message.raw("Amount must be positive!").color(RED));
+                return null;
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            ctx.sendMessage(Message.raw("Invalid amount: " + amountStr).color(RED));
+            return null;
+        }
+    }
+
+    /**
+     * Resolve a relative path inside the plugin data folder, or null if it is
+     * absolute, invalid or leads outside the folder (e.g. through "..").
+     */
+    private Path resolveDataFile(String input) {
+        Path dataDirectory = plugin.getDataDirectory().toAbsolutePath().normalize();
+        try {
+            Path relative = Path.of(input);
+            if (relative.isAbsolute() || relative.getRoot() != null) {
+                return null;
+            }
+            Path file = dataDirectory.resolve(relative).normalize();
+            return file.startsWith(dataDirectory) && !file.equals(dataDirectory) ? file : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Grant (positive delta) or revoke (negative delta) bonus homes for a group of players.
+     * Selectors: @online for everyone connected, @file:<path> for a list of names or UUIDs
+     * (one per line, # for comments; the path must be inside the plugin data folder).
+     */
+    private void bulkUpdateHomes(CommandContext ctx, String selector, int delta) {
+        String action = delta >= 0 ? "grant" : "revoke";
+
+        CompletableFuture<BulkTargets> targetsFuture;
+        if (selector.equalsIgnoreCase("@online")) {
+            List<UUID> online = new ArrayList<>();
+            for (PlayerRef player : Universe.get().getPlayers()) {
+                online.add(player.getUuid());
+            }
+            targetsFuture = CompletableFuture.completedFuture(new BulkTargets(online, List.of()));
+        } else if (selector.regionMatches(true, 0, "@file:", 0, 6) && selector.length() > 6) {
+            Path file = resolveDataFile(selector.substring(6));
+            if (file == null) {
+                ctx.sendMessage(Message.raw("The file must be inside the EasyHome data folder: " + selector.substring(6)).color(RED));
+                return;
+            }
+            targetsFuture = plugin.getIoExecutor().supply(() -> readTargets(file));
+        } else {
+            ctx.sendMessage(Message.raw("Unknown selector: " + selector).color(RED));
+            ctx.sendMessage(Message.raw("Valid selectors: @online, @file:<path>").color(GRAY));
+            return;
+        }
+
+        CompletableFuture<BulkOutcome> outcome = targetsFuture.thenCompose(targets -> {
+            int total = targets.players.size();
+            if (total == 0) {
+                return CompletableFuture.completedFuture(new BulkOutcome(targets, null));
+            }
+
+            ctx.sendMessage(Message.raw("Updating " + total + " players...").color(GRAY));
+            int step = Math.max(1, total / 4);
+            return plugin.getGrantStorage()
+                    .updateHomesBatch(targets.players, delta, done -> {
+                        if (done % step == 0 && done < total) {
+                            ctx.sendMessage(Message.raw("  Progress: " + done + "/" + total).color(GRAY));
+                        }
+                    })
+                    .thenApply(result -> new BulkOutcome(targets, result));
+        });
+
+        completeAsync(ctx, action, outcome, BULK_TIMEOUT_SECONDS, done -> {
+            if (!done.targets.unknown.isEmpty()) {
+                List<String> shown = done.targets.unknown.subList(0, Math.min(5, done.targets.unknown.size()));
+                ctx.sendMessage(Message.raw("Skipped " + done.targets.unknown.size() + " unknown players: "
+                        + String.join(", ", shown) + (done.targets.unknown.size() > shown.size() ? ", ..." : "")).color(YELLOW));
+            }
+            if (done.result == null) {
+                ctx.sendMessage(Message.raw("No players matched " + selector).color(RED));
+                return;
+            }
+
+            int amount = Math.abs(delta);
+            String verb = delta >= 0 ? "Granted +" + amount + " home slots to " : "Revoked " + amount + " home slots from ";
+            ctx.sendMessage(Message.raw(verb + done.result.players() + " players").color(GREEN));
+            ctx.sendMessage(Message.raw(String.format("Took %d ms (%.0f players/s)",
+                    done.result.elapsedMillis(), done.result.playersPerSecond())).color(GRAY));
+        });
+    }
+
+    /**
+     * Read a target list file, resolving each line to a player UUID.
+     */
+    private BulkTargets readTargets(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file.getFileName(), e);
+        }
+
+        List<UUID> players = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        for (String line : lines) {
+            String entry = line.trim();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            UUID uuid = resolvePlayer(entry);
+            if (uuid != null) {
+                players.add(uuid);
+            } else {
+                unknown.add(entry);
+            }
+        }
+        return new BulkTargets(players, unknown);
     }
 
     private void grantInstantTeleport(CommandContext ctx, String playerIdentifier) {
@@ -345,13 +944,14 @@ public class HomeAdminCommand extends CommandBase {
 
         UUID targetUuid = resolvePlayer(playerIdentifier);
         if (targetUuid == null) {
-            ctx.sendMessage(Message.raw("Player not found: " + playerIdentifier).color(RED));
-            ctx.sendMessage(Message.raw("Note: For offline players, use their UUID.").color(GRAY));
+            sendPlayerNotFound(ctx, playerIdentifier);
             return;
         }
 
-        plugin.getGrantStorage().grantInstantTeleport(targetUuid);
-        ctx.sendMessage(Message.raw("Granted instant teleport to " + playerIdentifier).color(GREEN));
+        runAsync(ctx, "grant", () -> {
+            plugin.getGrantStorage().grantInstantTeleport(targetUuid);
+            return null;
+        }, ignored -> ctx.sendMessage(Message.raw("Granted instant teleport to " + playerIdentifier).color(GREEN)));
     }
 
     private void handleRevoke(CommandContext ctx, String type, String playerIdentifier, String amountStr) {
@@ -377,14 +977,21 @@ public class HomeAdminCommand extends CommandBase {
 
     private void revokeHomes(CommandContext ctx, String playerIdentifier, String amountStr) {
         if (playerIdentifier == null || amountStr == null) {
-            ctx.sendMessage(Message.raw("Usage: /easyhome admin revoke homes <player|uuid> <amount>").color(YELLOW));
+            ctx.sendMessage(Message.raw("Usage: /easyhome admin revoke homes <player|uuid|@online|@file:path> <amount>").color(YELLOW));
+            return;
+        }
+
+        if (playerIdentifier.startsWith("@")) {
+            Integer amount = parseAmount(ctx, amountStr);
+            if (amount != null) {
+                bulkUpdateHomes(ctx, playerIdentifier, -amount);
+            }
             return;
         }
 
         UUID targetUuid = resolvePlayer(playerIdentifier);
         if (targetUuid == null) {
-            ctx.sendMessage(Message.raw("Player not found: " + playerIdentifier).color(RED));
-            ctx.sendMessage(Message.raw("Note: For offline players, use their UUID.").color(GRAY));
+            sendPlayerNotFound(ctx, playerIdentifier);
             return;
         }
 
@@ -400,11 +1007,13 @@ public class HomeAdminCommand extends CommandBase {
             return;
         }
 
-        plugin.getGrantStorage().revokeHomes(targetUuid, amount);
-
-        int newTotal = plugin.getGrantStorage().getBonusHomes(targetUuid);
-        ctx.sendMessage(Message.raw("Revoked " + amount + " home slots from " + playerIdentifier).color(GREEN));
-        ctx.sendMessage(Message.raw("They now have +" + newTotal + " bonus homes.").color(GRAY));
+        runAsync(ctx, "revoke", () -> {
+            plugin.getGrantStorage().revokeHomes(targetUuid, amount);
+            return plugin.getGrantStorage().getBonusHomes(targetUuid);
+        }, newTotal -> {
+            ctx.sendMessage(Message.raw("Revoked " + amount + " home slots from " + playerIdentifier).color(GREEN));
+            ctx.sendMessage(Message.raw("They now have +" + newTotal + " bonus homes.").color(GRAY));
+        });
     }
 
     private void revokeInstantTeleport(CommandContext ctx, String playerIdentifier) {
@@ -415,13 +1024,14 @@ public class HomeAdminCommand extends CommandBase {
 
         UUID targetUuid = resolvePlayer(playerIdentifier);
         if (targetUuid == null) {
-            ctx.sendMessage(Message.raw("Player not found: " + playerIdentifier).color(RED));
-            ctx.sendMessage(Message.raw("Note: For offline players, use their UUID.").color(GRAY));
+            sendPlayerNotFound(ctx, playerIdentifier);
             return;
         }
 
-        plugin.getGrantStorage().revokeInstantTeleport(targetUuid);
-        ctx.sendMessage(Message.raw("Revoked instant teleport from " + playerIdentifier).color(GREEN));
+        runAsync(ctx, "revoke", () -> {
+            plugin.getGrantStorage().revokeInstantTeleport(targetUuid);
+            return null;
+        }, ignored -> ctx.sendMessage(Message.raw("Revoked instant teleport from " + playerIdentifier).color(GREEN)));
     }
 
     private void handleStatus(CommandContext ctx, String playerIdentifier) {
@@ -432,13 +1042,19 @@ public class HomeAdminCommand extends CommandBase {
 
         UUID targetUuid = resolvePlayer(playerIdentifier);
         if (targetUuid == null) {
-            ctx.sendMessage(Message.raw("Player not found: " + playerIdentifier).color(RED));
-            ctx.sendMessage(Message.raw("Note: For offline players, use their UUID.").color(GRAY));
+            sendPlayerNotFound(ctx, playerIdentifier);
             return;
         }
 
-        PlayerGrants grants = plugin.getGrantStorage().getGrants(targetUuid);
-        PlayerHomes homes = plugin.getStorage().getHomes(targetUuid);
+        // Load grants and homes in parallel, then report
+        CompletableFuture<PlayerGrants> grantsFuture = plugin.getGrantStorage().getGrantsAsync(targetUuid);
+        CompletableFuture<PlayerHomes> homesFuture = plugin.getStorage().getHomesAsync(targetUuid);
+        completeAsync(ctx, "status", grantsFuture.thenCombine(homesFuture, StatusData::new),
+                data -> showStatus(ctx, playerIdentifier, targetUuid, data.grants, data.homes));
+    }
+
+    private void showStatus(CommandContext ctx, String playerIdentifier, UUID targetUuid,
+                            PlayerGrants grants, PlayerHomes homes) {
         HomeConfig config = plugin.getConfig();
 
         int baseLimit = config.getDefaultHomeLimit();
@@ -447,16 +1063,27 @@ public class HomeAdminCommand extends CommandBase {
         int currentHomes = homes.getHomeCount();
         boolean hasInstantTp = grants.hasInstantTeleport();
 
-        ctx.sendMessage(Message.raw("=== Player Status: " + playerIdentifier + " ===").color(GOLD));
-        ctx.sendMessage(Message.raw("UUID: " + targetUuid).color(GRAY));
-        ctx.sendMessage(Message.raw("").color(GRAY));
-        ctx.sendMessage(Message.raw("Home Limits:").color(YELLOW));
-        ctx.sendMessage(Message.raw("  Base limit: " + baseLimit).color(AQUA));
-        ctx.sendMessage(Message.raw("  Bonus homes: +" + bonusHomes).color(AQUA));
-        ctx.sendMessage(Message.raw("  Total limit: " + totalLimit).color(GREEN));
-        ctx.sendMessage(Message.raw("  Current homes: " + currentHomes + "/" + totalLimit).color(AQUA));
-        ctx.sendMessage(Message.raw("").color(GRAY));
-        ctx.sendMessage(Message.raw("Perks:").color(YELLOW));
-        ctx.sendMessage(Message.raw("  Instant teleport: " + (hasInstantTp ? "Yes" : "No")).color(hasInstantTp ? GREEN : GRAY));
+        ctx.sendMessage(Messages.lines(
+                line("=== Player Status: " + playerIdentifier + " ===", GOLD),
+                line("UUID: " + targetUuid, GRAY),
+                BLANK,
+                STATUS_LIMITS_HEADER,
+                line("  Base limit: " + baseLimit, AQUA),
+                line("  Bonus homes: +" + bonusHomes, AQUA),
+                line("  Total limit: " + totalLimit, GREEN),
+                line("  Current homes: " + currentHomes + "/" + totalLimit, AQUA),
+                BLANK,
+                STATUS_PERKS_HEADER,
+                line("  Instant teleport: " + (hasInstantTp ? "Yes" : "No"), hasInstantTp ? GREEN : GRAY)));
+    }
+
+    private static Message line(String text, Color color) {
+        return Message.raw(text).color(color);
     }
+
+    private record StatusData(PlayerGrants grants, PlayerHomes homes) {}
+
+    private record BulkTargets(List<UUID> players, List<String> unknown) {}
+
+    private record BulkOutcome(BulkTargets targets, GrantStorage.BatchResult result) {}
 }
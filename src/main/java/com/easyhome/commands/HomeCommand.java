@@ -1,10 +1,8 @@
 package com.easyhome.commands;
 
 import com.easyhome.EasyHome;
-import com.easyhome.config.HomeConfig;
-import com.easyhome.data.Home;
-import com.easyhome.data.PlayerHomes;
-import com.easyhome.util.Messages;
+import com.easyhome.util.HytaleTeleportTarget;
+import com.easyhome.util.Metrics;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
@@ -18,6 +16,7 @@ import javax.annotation.Nonnull;
 
 /**
  * /home [name] - Teleport to a saved home.
+ * /home nearest - Teleport to the closest home in the current world.
  */
 public class HomeCommand extends AbstractPlayerCommand {
     private static final String DEFAULT_HOME_NAME = "home";
@@ -49,6 +48,19 @@ public class HomeCommand extends AbstractPlayerCommand {
                           @Nonnull Ref<EntityStore> playerRef,
                           @Nonnull PlayerRef playerData,
                           @Nonnull World world) {
+        long start = System.nanoTime();
+        try {
+            handle(ctx, store, playerRef, playerData, world);
+        } finally {
+            Metrics.get().recordSince("command.home", start);
+        }
+    }
+
+    private void handle(CommandContext ctx,
+                        Store<EntityStore> store,
+                        Ref<EntityStore> playerRef,
+                        PlayerRef playerData,
+                        World world) {
 
         // Update player cache for offline lookups
         plugin.getPlayerCache().updatePlayer(playerData.getUuid(), playerData.getUsername());
@@ -59,32 +71,8 @@ public class HomeCommand extends AbstractPlayerCommand {
             homeName = DEFAULT_HOME_NAME;
         }
 
-        PlayerHomes homes = plugin.getStorage().getHomes(playerData.getUuid());
-
-        Home home = homes.getHome(homeName);
-        if (home == null) {
-            playerData.sendMessage(Messages.homeNotFound(homeName));
-
-            if (homes.getHomeCount() > 0) {
-                playerData.sendMessage(Messages.useHomesHint());
-            }
-            return;
-        }
-
-        // Get config values
-        HomeConfig config = plugin.getConfig();
-        int warmupSeconds = config.getWarmupSeconds();
-        double movementThreshold = config.getMovementThreshold();
-
-        // Check for warmup bypass - either via permission or via grant
         Player player = store.getComponent(playerRef, Player.getComponentType());
-        boolean hasPermissionBypass = player.hasPermission("homes.bypass.warmup");
-        boolean hasGrantBypass = plugin.getGrantStorage().hasInstantTeleport(playerData.getUuid());
-        boolean bypassWarmup = hasPermissionBypass || hasGrantBypass;
-
-        plugin.getWarmupManager().startWarmup(
-                playerData, playerRef, store, world, home,
-                warmupSeconds, movementThreshold, bypassWarmup
-        );
+        plugin.getHomeActions().home(new HytaleTeleportTarget(playerData, playerRef, store, world), homeName,
+                player.hasPermission("homes.bypass.cooldown"), player.hasPermission("homes.bypass.warmup"));
     }
 }
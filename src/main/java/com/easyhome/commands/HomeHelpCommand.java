@@ -1,6 +1,7 @@
 package com.easyhome.commands;
 
 import com.easyhome.EasyHome;
+import com.easyhome.util.Messages;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.Message;
@@ -24,6 +25,48 @@ public class HomeHelpCommand extends AbstractPlayerCommand {
     private static final Color GREEN = new Color(85, 255, 85);
     private static final Color AQUA = new Color(85, 255, 255);
 
+    // Built once; the help text never changes
+    private static final Message HELP = Messages.lines(
+            line(""),
+            line("---------- EasyHome ----------", GOLD),
+            line(""),
+
+            // Commands
+            line("COMMANDS:", GREEN),
+            line("  /sethome        Save location as 'home'", WHITE),
+            line("  /sethome base   Save location as 'base'", WHITE),
+            line("  /home           Teleport to 'home'", WHITE),
+            line("  /home base      Teleport to 'base'", WHITE),
+            line("  /homes          List all your homes", WHITE),
+            line("  /homes 2        Show page 2 of your homes", WHITE),
+            line("  /delhome base   Delete home 'base'", WHITE),
+            line(""),
+
+            // Info
+            line("INFO:", GREEN),
+            line("  - Teleports have 3 second warmup", GRAY),
+            line("  - Moving cancels teleport", GRAY),
+            line("  - Names: letters, numbers, _ only", GRAY),
+            line(""),
+
+            // Permissions
+            line("PERMISSIONS (for admins):", GREEN),
+            line("  homes.use            Basic access", AQUA),
+            line("  homes.limit.1        1 home allowed", AQUA),
+            line("  homes.limit.3        3 homes allowed", AQUA),
+            line("  homes.limit.5        5 homes allowed", AQUA),
+            line("  homes.limit.unlimited   No limit", AQUA),
+            line("  homes.bypass.warmup  Skip warmup", AQUA),
+            line("  homes.bypass.cooldown  Skip cooldown", AQUA),
+            line(""),
+
+            // Setup
+            line("SETUP (run in console):", GREEN),
+            line("  perm group add Adventure homes.use", GRAY),
+            line("  perm group add Adventure homes.limit.3", GRAY),
+            line(""),
+            line("------------------------------------", GOLD));
+
     public HomeHelpCommand(EasyHome plugin) {
         super("homehelp", "Show help for home commands");
     }
@@ -35,50 +78,14 @@ public class HomeHelpCommand extends AbstractPlayerCommand {
                           @Nonnull PlayerRef playerData,
                           @Nonnull World world) {
 
-        send(playerData, "");
-        send(playerData, "---------- EasyHome ----------", GOLD);
-        send(playerData, "");
-
-        // Commands
-        send(playerData, "COMMANDS:", GREEN);
-        send(playerData, "  /sethome        Save location as 'home'", WHITE);
-        send(playerData, "  /sethome base   Save location as 'base'", WHITE);
-        send(playerData, "  /home           Teleport to 'home'", WHITE);
-        send(playerData, "  /home base      Teleport to 'base'", WHITE);
-        send(playerData, "  /homes          List all your homes", WHITE);
-        send(playerData, "  /delhome base   Delete home 'base'", WHITE);
-        send(playerData, "");
-
-        // Info
-        send(playerData, "INFO:", GREEN);
-        send(playerData, "  - Teleports have 3 second warmup", GRAY);
-        send(playerData, "  - Moving cancels teleport", GRAY);
-        send(playerData, "  - Names: letters, numbers, _ only", GRAY);
-        send(playerData, "");
-
-        // Permissions
-        send(playerData, "PERMISSIONS (for admins):", GREEN);
-        send(playerData, "  homes.use            Basic access", AQUA);
-        send(playerData, "  homes.limit.1        1 home allowed", AQUA);
-        send(playerData, "  homes.limit.3        3 homes allowed", AQUA);
-        send(playerData, "  homes.limit.5        5 homes allowed", AQUA);
-        send(playerData, "  homes.limit.unlimited   No limit", AQUA);
-        send(playerData, "  homes.bypass.warmup  Skip warmup", AQUA);
-        send(playerData, "");
-
-        // Setup
-        send(playerData, "SETUP (run in console):", GREEN);
-        send(playerData, "  perm group add Adventure homes.use", GRAY);
-        send(playerData, "  perm group add Adventure homes.limit.3", GRAY);
-        send(playerData, "");
-        send(playerData, "------------------------------------", GOLD);
+        playerData.sendMessage(HELP);
     }
 
-    private void send(PlayerRef player, String text) {
-        player.sendMessage(Message.raw(text));
+    private static Message line(String text) {
+        return Message.raw(text);
     }
 
-    private void send(PlayerRef player, String text, Color color) {
-        player.sendMessage(Message.raw(text).color(color));
+    private static Message line(String text, Color color) {
+        return Message.raw(text).color(color);
     }
 }
@@ -4,37 +4,70 @@ import com.easyhome.EasyHome;
 import com.easyhome.data.Home;
 import com.easyhome.data.PlayerHomes;
 import com.easyhome.util.Messages;
+import com.easyhome.util.Metrics;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * /homes - List all your saved homes.
+ * /homes [page] - List all your saved homes, closest first.
  */
 public class HomesCommand extends AbstractPlayerCommand {
 
+    private static final int PAGE_SIZE = 10;
+
     private final EasyHome plugin;
 
     public HomesCommand(EasyHome plugin) {
         super("homes", "List all your saved homes");
         this.plugin = plugin;
+        setAllowsExtraArguments(true);  // Allow an optional page number
         requirePermission("homes.use");
     }
 
+    private int parsePage(CommandContext ctx) {
+        String[] args = ctx.getInputString().trim().split("\\s+");
+        if (args.length > 1) {
+            try {
+                return Math.max(1, Integer.parseInt(args[1]));
+            } catch (NumberFormatException ignored) {
+                // Not a number, show the first page
+            }
+        }
+        return 1;
+    }
+
     @Override
     protected void execute(@Nonnull CommandContext ctx,
                           @Nonnull Store<EntityStore> store,
                           @Nonnull Ref<EntityStore> playerRef,
                           @Nonnull PlayerRef playerData,
                           @Nonnull World world) {
+        long start = System.nanoTime();
+        try {
+            handle(ctx, store, playerRef, playerData, world);
+        } finally {
+            Metrics.get().recordSince("command.homes", start);
+        }
+    }
+
+    private void handle(CommandContext ctx,
+                        Store<EntityStore> store,
+                        Ref<EntityStore> playerRef,
+                        PlayerRef playerData,
+                        World world) {
 
         // Update player cache for offline lookups
         plugin.getPlayerCache().updatePlayer(playerData.getUuid(), playerData.getUsername());
@@ -43,19 +76,37 @@ public class HomesCommand extends AbstractPlayerCommand {
         Player player = store.getComponent(playerRef, Player.getComponentType());
 
         PlayerHomes playerHomes = plugin.getStorage().getHomes(playerData.getUuid());
-        Collection<Home> homes = playerHomes.getAllHomes();
 
-        if (homes.isEmpty()) {
-            playerData.sendMessage(Messages.noHomes());
+        if (playerHomes.getHomeCount() == 0) {
+            playerData.sendMessage(Messages.noHomes(playerData));
             return;
         }
 
+        Vector3d position = store.getComponent(playerRef, TransformComponent.getComponentType()).getPosition();
+        String worldName = world.getName();
+        List<Home> homes = playerHomes.getHomesByDistance(worldName, position.getX(), position.getY(), position.getZ());
+
         int limit = plugin.getHomeLimit(player, playerData.getUuid());
 
-        playerData.sendMessage(Messages.homesList(homes.size(), limit));
+        int pages = (homes.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+        int page = Math.min(parsePage(ctx), pages);
+        int from = (page - 1) * PAGE_SIZE;
+        int to = Math.min(from + PAGE_SIZE, homes.size());
 
-        for (Home home : homes) {
-            playerData.sendMessage(Messages.homeEntry(home.getName(), home.getFormattedLocation()));
+        // One composite message per page instead of one packet per home
+        List<Message> lines = new ArrayList<>(PAGE_SIZE + 2);
+        lines.add(Messages.homesList(playerData, homes.size(), limit));
+        for (Home home : homes.subList(from, to)) {
+            if (home.getWorld().equals(worldName)) {
+                double distance = Math.sqrt(home.distanceSquared(position.getX(), position.getY(), position.getZ()));
+                lines.add(Messages.homeEntry(playerData, home.getName(), home.getFormattedLocation(), distance));
+            } else {
+                lines.add(Messages.homeEntry(playerData, home.getName(), home.getFormattedLocation()));
+            }
+        }
+        if (pages > 1) {
+            lines.add(Messages.homesPage(playerData, page, pages));
         }
+        playerData.sendMessage(Messages.lines(lines));
     }
 }
@@ -1,17 +1,14 @@
 package com.easyhome.commands;
 
 import com.easyhome.EasyHome;
-import com.easyhome.data.Home;
-import com.easyhome.data.PlayerHomes;
+import com.easyhome.util.HytaleTeleportTarget;
 import com.easyhome.util.Messages;
+import com.easyhome.util.Metrics;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
-import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.math.vector.Vector3f;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
 import com.hypixel.hytale.server.core.entity.entities.Player;
-import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
@@ -55,6 +52,19 @@ public class SetHomeCommand extends AbstractPlayerCommand {
                           @Nonnull Ref<EntityStore> playerRef,
                           @Nonnull PlayerRef playerData,
                           @Nonnull World world) {
+        long start = System.nanoTime();
+        try {
+            handle(ctx, store, playerRef, playerData, world);
+        } finally {
+            Metrics.get().recordSince("command.sethome", start);
+        }
+    }
+
+    private void handle(CommandContext ctx,
+                        Store<EntityStore> store,
+                        Ref<EntityStore> playerRef,
+                        PlayerRef playerData,
+                        World world) {
 
         // Update player cache for offline lookups
         plugin.getPlayerCache().updatePlayer(playerData.getUuid(), playerData.getUsername());
@@ -68,44 +78,16 @@ public class SetHomeCommand extends AbstractPlayerCommand {
         }
 
         if (!VALID_NAME_PATTERN.matcher(homeName).matches()) {
-            playerData.sendMessage(Messages.invalidHomeName());
+            playerData.sendMessage(Messages.invalidHomeName(playerData));
             return;
         }
 
         if (homeName.length() > MAX_NAME_LENGTH) {
-            playerData.sendMessage(Messages.homeNameTooLong());
+            playerData.sendMessage(Messages.homeNameTooLong(playerData));
             return;
         }
 
-        PlayerHomes homes = plugin.getStorage().getHomes(playerData.getUuid());
-
-        if (!homes.hasHome(homeName)) {
-            int limit = plugin.getHomeLimit(player, playerData.getUuid());
-            if (homes.getHomeCount() >= limit) {
-                playerData.sendMessage(Messages.homeLimitReached(limit));
-                return;
-            }
-        }
-
-        TransformComponent transform = store.getComponent(playerRef, TransformComponent.getComponentType());
-
-        Vector3d position = transform.getPosition();
-        Vector3f rotation = transform.getRotation();
-        String worldName = world.getName();
-
-        Home home = new Home(
-                homeName,
-                worldName,
-                position.getX(),
-                position.getY(),
-                position.getZ(),
-                rotation.getYaw(),
-                rotation.getPitch()
-        );
-
-        homes.setHome(home);
-        plugin.getStorage().saveHomes(playerData.getUuid());
-
-        playerData.sendMessage(Messages.homeSet(homeName));
+        int limit = plugin.getHomeLimit(player, playerData.getUuid());
+        plugin.getHomeActions().setHome(new HytaleTeleportTarget(playerData, playerRef, store, world), homeName, limit);
     }
 }
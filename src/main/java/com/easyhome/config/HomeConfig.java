@@ -1,11 +1,13 @@
 package com.easyhome.config;
 
+import com.easyhome.util.IoExecutor;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Configuration manager for EasyHome plugin.
@@ -13,11 +15,13 @@ import java.nio.file.Path;
  */
 public class HomeConfig {
     private final Path configFile;
+    private final IoExecutor io;
     private final Gson gson;
-    private ConfigData config;
+    private volatile ConfigData config;
 
-    public HomeConfig(Path dataDirectory) {
+    public HomeConfig(Path dataDirectory, IoExecutor io) {
         this.configFile = dataDirectory.resolve("config.json");
+        this.io = io;
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.config = new ConfigData();
         load();
@@ -52,7 +56,7 @@ public class HomeConfig {
     /**
      * Save current configuration to file.
      */
-    public void save() {
+    public synchronized void save() {
         try {
             Files.createDirectories(configFile.getParent());
             Files.writeString(configFile, gson.toJson(config));
@@ -61,6 +65,20 @@ public class HomeConfig {
         }
     }
 
+    /**
+     * Save current configuration on the I/O executor.
+     */
+    public CompletableFuture<Void> saveAsync() {
+        return io.run(this::save);
+    }
+
+    /**
+     * Reload configuration on the I/O executor.
+     */
+    public CompletableFuture<Void> reloadAsync() {
+        return io.run(this::reload);
+    }
+
     // ===== GETTERS =====
 
     public int getDefaultHomeLimit() {
@@ -83,31 +101,112 @@ public class HomeConfig {
         return config.permissionOverridesEnabled;
     }
 
+    public int getCooldownSeconds() {
+        return config.cooldownSeconds;
+    }
+
+    public boolean isPersistCooldowns() {
+        return config.persistCooldowns;
+    }
+
+    public int getMetricsSnapshotSeconds() {
+        return config.metricsSnapshotSeconds;
+    }
+
+    public int getMetricsPort() {
+        return config.metricsPort;
+    }
+
+    public int getWorldTaskBudgetMicros() {
+        return config.worldTaskBudgetMicros;
+    }
+
+    public int getSlowTaskMillis() {
+        return config.slowTaskMillis;
+    }
+
+    public boolean isUnifiedProfilesEnabled() {
+        return config.unifiedProfiles;
+    }
+
+    public boolean isWatchDataFiles() {
+        return config.watchDataFiles;
+    }
+
+    public boolean isSharedStorage() {
+        return config.sharedStorage;
+    }
+
     // ===== SETTERS (auto-save) =====
 
     public void setDefaultHomeLimit(int value) {
         config.defaultHomeLimit = Math.max(1, value);
-        save();
+        saveAsync();
     }
 
     public void setMaxHomeLimit(int value) {
         config.maxHomeLimit = Math.max(1, value);
-        save();
+        saveAsync();
     }
 
     public void setWarmupSeconds(int value) {
         config.warmupSeconds = Math.max(0, value);
-        save();
+        saveAsync();
     }
 
     public void setMovementThreshold(double value) {
         config.movementThreshold = Math.max(0.1, value);
-        save();
+        saveAsync();
     }
 
     public void setPermissionOverridesEnabled(boolean value) {
         config.permissionOverridesEnabled = value;
-        save();
+        saveAsync();
+    }
+
+    public void setCooldownSeconds(int value) {
+        config.cooldownSeconds = Math.max(0, value);
+        saveAsync();
+    }
+
+    public void setPersistCooldowns(boolean value) {
+        config.persistCooldowns = value;
+        saveAsync();
+    }
+
+    public void setMetricsSnapshotSeconds(int value) {
+        config.metricsSnapshotSeconds = Math.max(0, value);
+        saveAsync();
+    }
+
+    public void setMetricsPort(int value) {
+        config.metricsPort = value < 0 || value > 65535 ? 0 : value;
+        saveAsync();
+    }
+
+    public void setWorldTaskBudgetMicros(int value) {
+        config.worldTaskBudgetMicros = Math.max(100, value);
+        saveAsync();
+    }
+
+    public void setSlowTaskMillis(int value) {
+        config.slowTaskMillis = Math.max(1, value);
+        saveAsync();
+    }
+
+    public void setUnifiedProfilesEnabled(boolean value) {
+        config.unifiedProfiles = value;
+        saveAsync();
+    }
+
+    public void setWatchDataFiles(boolean value) {
+        config.watchDataFiles = value;
+        saveAsync();
+    }
+
+    public void setSharedStorage(boolean value) {
+        config.sharedStorage = value;
+        saveAsync();
     }
 
     /**
@@ -129,5 +228,38 @@ public class HomeConfig {
         // If true, permission nodes (homes.limit.X) can override defaultHomeLimit
         // If false, all players get defaultHomeLimit regardless of permissions
         boolean permissionOverridesEnabled = true;
+
+        // Seconds a player must wait between /home teleports (0 = no cooldown)
+        int cooldownSeconds = 0;
+
+        // If true, running cooldowns are saved on shutdown and restored on startup
+        boolean persistCooldowns = false;
+
+        // If true, each player's homes, grants and username live in one profiles/<uuid>.json
+        // On startup, homes/ and grants/ files newer than a player's profile are migrated,
+        // and when turned off again, newer profiles are copied back (requires restart)
+        boolean unifiedProfiles = false;
+
+        // If true, homes/ and grants/ files edited outside the server are reloaded automatically
+        // Not used with unifiedProfiles
+        boolean watchDataFiles = false;
+
+        // If true, several servers share this data folder: saves lock each player's file and
+        // merge in other servers' changes, and files are watched for them (requires restart)
+        // Not used with unifiedProfiles
+        boolean sharedStorage = false;
+
+        // How often metrics are written to metrics.json in seconds (0 = never)
+        int metricsSnapshotSeconds = 60;
+
+        // Port for the Prometheus endpoint at http://127.0.0.1:<port>/metrics (0 = disabled)
+        int metricsPort = 0;
+
+        // Time warmup movement checks may use per world per tick, in microseconds
+        // Checks over budget wait for the next tick; teleports always run
+        int worldTaskBudgetMicros = 2000;
+
+        // EasyHome tasks on a world thread slower than this are logged (milliseconds)
+        int slowTaskMillis = 5;
     }
 }
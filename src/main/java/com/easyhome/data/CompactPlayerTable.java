@@ -0,0 +1,409 @@
+package com.easyhome.data;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact UUID <-> username table for PlayerCache.
+ *
+ * Each player is a record in parallel primitive arrays: the UUID as two
+ * longs and a reference into a shared UTF-8 byte arena holding the
+ * username. Two open-addressing int tables map UUID -> record and
+ * lowercase username -> record. Compared to two ConcurrentHashMaps of
+ * boxed UUIDs and duplicated Strings this needs roughly a tenth of the heap.
+ *
+ * Writers are serialized; readers never lock. New slots and name references
+ * are published with release stores and read with acquire loads, and any
+ * resize publishes a fully built copy through a volatile field, so a reader
+ * always sees a complete record.
+ *
+ * A rename appends the new name and leaves the old bytes behind. Every
+ * resize copies only the names still in use, so the arena stays within a
+ * small factor of the live names.
+ *
+ * Username matching folds ASCII letters only, which covers Hytale usernames.
+ */
+public class CompactPlayerTable {
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+    private static final int INITIAL_RECORDS = 1024;
+    private static final int NAME_LENGTH_BITS = 16;
+
+    private volatile State state;
+
+    public CompactPlayerTable() {
+        this.state = new State(INITIAL_RECORDS, INITIAL_RECORDS * 16, INITIAL_RECORDS * 2);
+    }
+
+    /**
+     * Find the UUID for a username (case-insensitive), or null.
+     */
+    public UUID getUuid(String username) {
+        State s = state;
+        byte[] query = username.getBytes(StandardCharsets.UTF_8);
+        int record = findName(s, query, nameHash(query, 0, query.length));
+        if (record < 0) {
+            return null;
+        }
+        return new UUID(s.mostBits[record], s.leastBits[record]);
+    }
+
+    /**
+     * Find the username for a UUID, or null.
+     */
+    public String getUsername(UUID uuid) {
+        State s = state;
+        int record = findUuid(s, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (record < 0) {
+            return null;
+        }
+        long ref = (long) LONGS.getAcquire(s.nameRefs, record);
+        return new String(s.arena, offset(ref), length(ref), StandardCharsets.UTF_8);
+    }
+
+    public boolean containsUuid(UUID uuid) {
+        State s = state;
+        return findUuid(s, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+    }
+
+    /**
+     * Number of players in the table.
+     */
+    public int size() {
+        return state.records;
+    }
+
+    /**
+     * Insert a player or change their username.
+     * If another player held the same username, the name now resolves to this one.
+     *
+     * @return false if nothing changed
+     */
+    public synchronized boolean put(UUID uuid, String username) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        if (name.length >= (1 << NAME_LENGTH_BITS)) {
+            return false;
+        }
+
+        State s = state;
+        int record = findUuid(s, msb, lsb);
+
+        if (record >= 0) {
+            long oldRef = s.nameRefs[record];
+            if (Arrays.equals(s.arena, offset(oldRef), offset(oldRef) + length(oldRef), name, 0, name.length)) {
+                return false;
+            }
+            // Drop the old name first so lookups for it stop resolving to this player
+            removeNameSlot(s, record, oldRef);
+            s = ensureArena(s, name.length);
+            long ref = appendName(s, name);
+            LONGS.setRelease(s.nameRefs, record, ref);
+        } else {
+            s = ensureRecords(s);
+            s = ensureArena(s, name.length);
+            record = s.records;
+            s.mostBits[record] = msb;
+            s.leastBits[record] = lsb;
+            s.nameRefs[record] = appendName(s, name);
+            s.records++;
+            insertUuidSlot(s, record);
+        }
+
+        s = ensureNameSlots(s);
+        insertNameSlot(s, record, name);
+        return true;
+    }
+
+    /**
+     * Bytes of the name arena in use, old names included.
+     */
+    synchronized int arenaUsed() {
+        return state.arenaUsed;
+    }
+
+    /**
+     * Visit every player. Runs under the writer lock.
+     */
+    public synchronized void forEach(BiConsumer<UUID, String> action) {
+        State s = state;
+        for (int i = 0; i < s.records; i++) {
+            long ref = s.nameRefs[i];
+            action.accept(new UUID(s.mostBits[i], s.leastBits[i]),
+                    new String(s.arena, offset(ref), length(ref), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Every username that currently resolves to a player, lowercased.
+     */
+    public synchronized List<String> lowercaseNames() {
+        State s = state;
+        List<String> names = new ArrayList<>(s.records);
+        for (int slot : s.nameSlots) {
+            if (slot > 0) {
+                long ref = s.nameRefs[slot - 1];
+                names.add(new String(s.arena, offset(ref), length(ref), StandardCharsets.UTF_8).toLowerCase(Locale.ROOT));
+            }
+        }
+        return names;
+    }
+
+    // ===== LOOKUPS =====
+
+    private static int findUuid(State s, long msb, long lsb) {
+        int[] slots = s.uuidSlots;
+        int mask = slots.length - 1;
+        int i = uuidHash(msb, lsb) & mask;
+        while (true) {
+            int value = (int) INTS.getAcquire(slots, i);
+            if (value == EMPTY) {
+                return -1;
+            }
+            int record = value - 1;
+            if (s.mostBits[record] == msb && s.leastBits[record] == lsb) {
+                return record;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private static int findName(State s, byte[] query, int hash) {
+        int slot = findNameSlot(s, query, hash);
+        return slot < 0 ? -1 : (int) INTS.getAcquire(s.nameSlots, slot) - 1;
+    }
+
+    private static int findNameSlot(State s, byte[] query, int hash) {
+        int[] slots = s.nameSlots;
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        while (true) {
+            int value = (int) INTS.getAcquire(slots, i);
+            if (value == EMPTY) {
+                return -1;
+            }
+            if (value != TOMBSTONE) {
+                long ref = (long) LONGS.getAcquire(s.nameRefs, value - 1);
+                if (equalsIgnoreAsciiCase(s.arena, offset(ref), length(ref), query)) {
+                    return i;
+                }
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // ===== WRITES (caller holds the lock) =====
+
+    private void insertUuidSlot(State s, int record) {
+        int mask = s.uuidSlots.length - 1;
+        int i = uuidHash(s.mostBits[record], s.leastBits[record]) & mask;
+        while (s.uuidSlots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        INTS.setRelease(s.uuidSlots, i, record + 1);
+    }
+
+    private void insertNameSlot(State s, int record, byte[] name) {
+        int hash = nameHash(name, 0, name.length);
+        int existing = findNameSlot(s, name, hash);
+        if (existing >= 0) {
+            // Username moved to another player (or changed case)
+            INTS.setRelease(s.nameSlots, existing, record + 1);
+            return;
+        }
+
+        int mask = s.nameSlots.length - 1;
+        int i = hash & mask;
+        while (s.nameSlots[i] != EMPTY && s.nameSlots[i] != TOMBSTONE) {
+            i = (i + 1) & mask;
+        }
+        if (s.nameSlots[i] == EMPTY) {
+            s.nameSlotsUsed++;
+        }
+        INTS.setRelease(s.nameSlots, i, record + 1);
+    }
+
+    private void removeNameSlot(State s, int record, long ref) {
+        byte[] name = Arrays.copyOfRange(s.arena, offset(ref), offset(ref) + length(ref));
+        int slot = findNameSlot(s, name, nameHash(name, 0, name.length));
+        if (slot >= 0 && s.nameSlots[slot] == record + 1) {
+            INTS.setRelease(s.nameSlots, slot, TOMBSTONE);
+        }
+    }
+
+    private long appendName(State s, byte[] name) {
+        int offset = s.arenaUsed;
+        System.arraycopy(name, 0, s.arena, offset, name.length);
+        s.arenaUsed += name.length;
+        return ((long) offset << NAME_LENGTH_BITS) | name.length;
+    }
+
+    private State ensureRecords(State s) {
+        if (s.records < s.mostBits.length) {
+            return s;
+        }
+        int capacity = s.mostBits.length * 2;
+        State grown = new State(s, capacity, s.arena.length, Math.max(s.uuidSlots.length, capacity * 2));
+        rebuildUuidSlots(grown);
+        state = grown;
+        return grown;
+    }
+
+    private State ensureArena(State s, int needed) {
+        if (s.arenaUsed + needed <= s.arena.length) {
+            return s;
+        }
+        // Rebuilding drops the names renames left behind; only grow if live names need the room
+        int live = liveNameBytes(s);
+        int capacity = s.arena.length;
+        while ((long) (live + needed) * 2 > capacity) {
+            capacity *= 2;
+        }
+        State grown = new State(s, s.mostBits.length, capacity, s.uuidSlots.length);
+        state = grown;
+        return grown;
+    }
+
+    private State ensureNameSlots(State s) {
+        if ((s.nameSlotsUsed + 1) * 2 <= s.nameSlots.length) {
+            return s;
+        }
+        // Rebuilding drops tombstones; only grow if live names need the room
+        int capacity = s.nameSlots.length;
+        while ((s.records + 1) * 2 > capacity / 2) {
+            capacity *= 2;
+        }
+        State rebuilt = new State(s, s.mostBits.length, s.arena.length, s.uuidSlots.length);
+        rebuilt.nameSlots = new int[capacity];
+        rebuilt.nameSlotsUsed = 0;
+        for (int value : s.nameSlots) {
+            if (value > 0) {
+                long ref = s.nameRefs[value - 1];
+                int mask = capacity - 1;
+                int i = nameHash(s.arena, offset(ref), length(ref)) & mask;
+                while (rebuilt.nameSlots[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                rebuilt.nameSlots[i] = value;
+                rebuilt.nameSlotsUsed++;
+            }
+        }
+        state = rebuilt;
+        return rebuilt;
+    }
+
+    private static int liveNameBytes(State s) {
+        int live = 0;
+        for (int record = 0; record < s.records; record++) {
+            live += length(s.nameRefs[record]);
+        }
+        return live;
+    }
+
+    private void rebuildUuidSlots(State s) {
+        s.uuidSlots = new int[s.uuidSlots.length];
+        int mask = s.uuidSlots.length - 1;
+        for (int record = 0; record < s.records; record++) {
+            int i = uuidHash(s.mostBits[record], s.leastBits[record]) & mask;
+            while (s.uuidSlots[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            s.uuidSlots[i] = record + 1;
+        }
+    }
+
+    // ===== HELPERS =====
+
+    private static int offset(long ref) {
+        return (int) (ref >>> NAME_LENGTH_BITS);
+    }
+
+    private static int length(long ref) {
+        return (int) (ref & ((1 << NAME_LENGTH_BITS) - 1));
+    }
+
+    private static int uuidHash(long msb, long lsb) {
+        long h = msb ^ (lsb * 0x9E3779B97F4A7C15L);
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int nameHash(byte[] bytes, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + foldAscii(bytes[i]);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equalsIgnoreAsciiCase(byte[] arena, int offset, int length, byte[] query) {
+        if (length != query.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (foldAscii(arena[offset + i]) != foldAscii(query[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int foldAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    /**
+     * One published version of the arrays. Fields past the published
+     * slots are only touched by the writer.
+     */
+    private static final class State {
+        final long[] mostBits;
+        final long[] leastBits;
+        final long[] nameRefs;  // arena offset << 16 | byte length
+        final byte[] arena;
+        int[] uuidSlots;        // record + 1, 0 = empty
+        int[] nameSlots;        // record + 1, 0 = empty, -1 = tombstone
+        int records;
+        int arenaUsed;
+        int nameSlotsUsed;      // occupied + tombstoned
+
+        State(int recordCapacity, int arenaCapacity, int slotCapacity) {
+            this.mostBits = new long[recordCapacity];
+            this.leastBits = new long[recordCapacity];
+            this.nameRefs = new long[recordCapacity];
+            this.arena = new byte[arenaCapacity];
+            this.uuidSlots = new int[slotCapacity];
+            this.nameSlots = new int[slotCapacity];
+        }
+
+        // Copies only the current name of each record, packed from the start of the arena
+        State(State from, int recordCapacity, int arenaCapacity, int uuidSlotCapacity) {
+            this.mostBits = Arrays.copyOf(from.mostBits, recordCapacity);
+            this.leastBits = Arrays.copyOf(from.leastBits, recordCapacity);
+            this.nameRefs = new long[recordCapacity];
+            this.arena = new byte[arenaCapacity];
+            int used = 0;
+            for (int record = 0; record < from.records; record++) {
+                long ref = from.nameRefs[record];
+                System.arraycopy(from.arena, offset(ref), arena, used, length(ref));
+                nameRefs[record] = ((long) used << NAME_LENGTH_BITS) | length(ref);
+                used += length(ref);
+            }
+            this.uuidSlots = uuidSlotCapacity == from.uuidSlots.length ? from.uuidSlots.clone() : new int[uuidSlotCapacity];
+            this.nameSlots = from.nameSlots.clone();
+            this.records = from.records;
+            this.arenaUsed = used;
+            this.nameSlotsUsed = from.nameSlotsUsed;
+        }
+    }
+}
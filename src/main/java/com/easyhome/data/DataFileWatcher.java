@@ -0,0 +1,248 @@
+package com.easyhome.data;
+
+import com.easyhome.util.IoExecutor;
+import com.easyhome.util.Metrics;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * Watches homes/ and grants/ for files changed outside EasyHome (for example
+ * by a web panel) and reloads just those players.
+ *
+ * Changes are collected until the directories have been quiet for a moment,
+ * so an editor saving in several steps or a bulk import causes one reload
+ * per player. Files that still hold what EasyHome itself last wrote are
+ * recognised by checksum and skipped.
+ *
+ * Network filesystems usually do not report changes made by other machines,
+ * so with a poll interval the files of players in memory are also checked
+ * for a new modification time.
+ */
+public class DataFileWatcher implements AutoCloseable {
+    private static final LongAdder RELOADS = Metrics.get().counter("watch.reloads");
+    private static final LongAdder SKIPPED = Metrics.get().counter("watch.skipped");
+
+    // Wait this long after the last change before reloading...
+    private static final long DEBOUNCE_MILLIS = 250;
+    // ...but never longer than this after the first one
+    private static final long MAX_DELAY_MILLIS = 2000;
+    private static final int RELOADS_PER_TASK = 64;
+
+    private final Path homesDirectory;
+    private final Path grantsDirectory;
+    private final HomeStorage homeStorage;
+    private final GrantStorage grantStorage;
+    private final IoExecutor io;
+    private final Set<UUID> changedHomes;
+    private final Set<UUID> changedGrants;
+    private final ScheduledExecutorService debouncer;
+    private final int pollSeconds;
+    private final Map<Path, FileTime> lastModified;
+    private WatchService watchService;
+    private Thread thread;
+    private ScheduledFuture<?> pendingFlush;
+    private long firstChangeMillis;
+
+    public DataFileWatcher(Path dataDirectory, HomeStorage homeStorage, GrantStorage grantStorage, IoExecutor io) {
+        this(dataDirectory, homeStorage, grantStorage, io, 0);
+    }
+
+    /**
+     * @param pollSeconds How often to check cached players' files as well (0 = only watch events)
+     */
+    public DataFileWatcher(Path dataDirectory, HomeStorage homeStorage, GrantStorage grantStorage, IoExecutor io,
+                           int pollSeconds) {
+        this.homesDirectory = dataDirectory.resolve("homes");
+        this.grantsDirectory = dataDirectory.resolve("grants");
+        this.homeStorage = homeStorage;
+        this.grantStorage = grantStorage;
+        this.io = io;
+        this.changedHomes = ConcurrentHashMap.newKeySet();
+        this.changedGrants = ConcurrentHashMap.newKeySet();
+        this.pollSeconds = pollSeconds;
+        this.lastModified = new ConcurrentHashMap<>();
+        this.debouncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread debounceThread = new Thread(runnable, "EasyHome-FileWatcher-Debounce");
+            debounceThread.setDaemon(true);
+            return debounceThread;
+        });
+    }
+
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        homesDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        grantsDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        thread = new Thread(this::watch, "EasyHome-FileWatcher");
+        thread.setDaemon(true);
+        thread.start();
+
+        if (pollSeconds > 0) {
+            debouncer.scheduleWithFixedDelay(this::poll, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        debouncer.shutdownNow();
+    }
+
+    /**
+     * Checksum used to recognise files EasyHome wrote itself.
+     */
+    static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            boolean homes = homesDirectory.equals(key.watchable());
+            Set<UUID> changed = homes ? changedHomes : changedGrants;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Events were lost; recheck everyone we have in memory
+                    changed.addAll(homes ? homeStorage.getCachedPlayerIds() : grantStorage.getCachedPlayerIds());
+                    continue;
+                }
+                UUID playerId = playerIdOf((Path) event.context());
+                if (playerId != null) {
+                    changed.add(playerId);
+                }
+            }
+            key.reset();
+            scheduleFlush();
+        }
+    }
+
+    private void poll() {
+        boolean homes = poll(homesDirectory, homeStorage.getCachedPlayerIds(), changedHomes);
+        boolean grants = poll(grantsDirectory, grantStorage.getCachedPlayerIds(), changedGrants);
+        if (homes || grants) {
+            scheduleFlush();
+        }
+    }
+
+    private boolean poll(Path directory, Set<UUID> playerIds, Set<UUID> changed) {
+        boolean found = false;
+        for (UUID playerId : playerIds) {
+            Path file = directory.resolve(playerId + ".json");
+            FileTime modified;
+            try {
+                modified = Files.getLastModifiedTime(file);
+            } catch (IOException e) {
+                modified = FileTime.fromMillis(0);  // Missing
+            }
+            FileTime previous = lastModified.put(file, modified);
+            if (previous != null && !previous.equals(modified)) {
+                changed.add(playerId);
+                found = true;
+            }
+        }
+        // Forget files of players no longer in memory
+        lastModified.keySet().removeIf(file -> file.startsWith(directory) && !playerIds.contains(playerIdOf(file)));
+        return found;
+    }
+
+    private synchronized void scheduleFlush() {
+        long now = System.currentTimeMillis();
+        if (pendingFlush == null || pendingFlush.isDone()) {
+            firstChangeMillis = now;
+        } else if (now - firstChangeMillis < MAX_DELAY_MILLIS) {
+            pendingFlush.cancel(false);
+        } else {
+            return;  // Already overdue; let the scheduled flush pick these up
+        }
+        try {
+            pendingFlush = debouncer.schedule(this::flush, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Closed
+        }
+    }
+
+    private void flush() {
+        reload(drain(changedHomes), homeStorage::reloadFromDisk);
+        reload(drain(changedGrants), grantStorage::reloadFromDisk);
+    }
+
+    private void reload(List<UUID> playerIds, Predicate<UUID> reloader) {
+        for (int from = 0; from < playerIds.size(); from += RELOADS_PER_TASK) {
+            List<UUID> chunk = playerIds.subList(from, Math.min(from + RELOADS_PER_TASK, playerIds.size()));
+            CompletableFuture<Void> task = io.run(() -> {
+                for (UUID playerId : chunk) {
+                    if (reloader.test(playerId)) {
+                        RELOADS.increment();
+                    } else {
+                        SKIPPED.increment();
+                    }
+                }
+            });
+            task.exceptionally(error -> {
+                error.printStackTrace();
+                return null;
+            });
+        }
+    }
+
+    private static List<UUID> drain(Set<UUID> changed) {
+        List<UUID> drained = new ArrayList<>();
+        for (UUID playerId : changed) {
+            if (changed.remove(playerId)) {
+                drained.add(playerId);
+            }
+        }
+        return drained;
+    }
+
+    private static UUID playerIdOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(".json")) {
+            return null;
+        }
+        try {
+            return UUID.fromString(name.substring(0, name.length() - ".json".length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.easyhome.data;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-player locks for a data directory shared by several servers.
+ *
+ * Each <uuid>.json gets a <uuid>.lock beside it, locked with an OS advisory
+ * lock for the read-merge-write of a save. The OS only tracks these per
+ * process, so servers in the same JVM are kept apart by a lock stripe first.
+ * Locking a separate file lets the data file itself be replaced atomically,
+ * so readers never need the lock.
+ */
+final class FileLocks {
+    // Shared by every storage in the JVM (power of two)
+    private static final int STRIPES = 256;
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new ReentrantLock();
+        }
+    }
+
+    private FileLocks() {
+    }
+
+    /**
+     * Lock a data file against every other writer, here and on other servers.
+     * Not reentrant: do not lock the same file again before closing.
+     */
+    static Held lock(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath().normalize();
+        int h = absolute.hashCode();
+        ReentrantLock local = LOCKS[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        local.lock();
+        FileChannel channel = null;
+        try {
+            String name = absolute.getFileName().toString();
+            Path lockFile = absolute.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".lock");
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            return new Held(local, channel, channel.lock());
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            local.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Replace a file in one step, so readers see either the old or the new contents.
+     */
+    static void writeAtomically(Path file, byte[] bytes) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, bytes);
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static final class Held implements AutoCloseable {
+        private final ReentrantLock local;
+        private final FileChannel channel;
+        private final FileLock lock;
+
+        private Held(ReentrantLock local, FileChannel channel, FileLock lock) {
+            this.local = local;
+            this.channel = channel;
+            this.lock = lock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                lock.release();
+                channel.close();
+            } finally {
+                local.unlock();
+            }
+        }
+    }
+}
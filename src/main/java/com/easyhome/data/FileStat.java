@@ -0,0 +1,24 @@
+package com.easyhome.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Size and modification time of a data file, so a save can tell the file
+ * is still the one it last wrote without reading it back.
+ */
+record FileStat(long size, long modifiedMillis) {
+    static final FileStat MISSING = new FileStat(-1, 0);
+
+    static FileStat of(Path file) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileStat(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            return MISSING;
+        }
+    }
+}
@@ -1,28 +1,86 @@
 package com.easyhome.data;
 
+import com.easyhome.event.GrantChangedEvent;
+import com.easyhome.event.HomeEventBus;
+import com.easyhome.util.IoExecutor;
+import com.easyhome.util.JfrEvents;
+import com.easyhome.util.Metrics;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 /**
  * Manages persistent storage of player grants using JSON files.
- * Grants are stored in mods/cryptobench_EasyHome/grants/<uuid>.json
+ * Grants are stored in mods/cryptobench_EasyHome/grants/<uuid>.json,
+ * or in the player's unified profile when a ProfileStorage is supplied.
+ *
+ * As with homes, files carry a version, and in shared mode saves lock the
+ * file and merge in grants changed by other servers since we last read it.
  */
 public class GrantStorage {
+    // Number of grant files written by a single I/O task during a batch flush
+    private static final int FLUSH_CHUNK_SIZE = 64;
+
+    private static final LongAdder CACHE_HITS = Metrics.get().counter("cache.grants.hits");
+    private static final LongAdder CACHE_MISSES = Metrics.get().counter("cache.grants.misses");
+    private static final LongAdder BYTES_READ = Metrics.get().counter("storage.grants.bytes_read");
+    private static final LongAdder BYTES_WRITTEN = Metrics.get().counter("storage.grants.bytes_written");
+    private static final LongAdder MERGES = Metrics.get().counter("storage.grants.merges");
+
     private final Path grantsDirectory;
+    private final IoExecutor io;
+    private final ProfileStorage profiles;  // null = legacy grants/ files
+    private final HomeEventBus events;  // null = no listeners
+    private final boolean shared;  // true = other servers write to the same grants/ folder
     private final Gson gson;
     private final Map<UUID, PlayerGrants> cache;
+    private final Map<UUID, Long> writtenChecksums;  // Checksum of the last file we wrote, per player
+    private final Map<UUID, FileStat> fileStats;  // Size and time of the file we last wrote, per player (non-shared saves)
+    private final Map<UUID, Stamp> stamps;  // Grants as last read or written, per cached player
+
+    public GrantStorage(Path dataDirectory, IoExecutor io) {
+        this(dataDirectory, io, null);
+    }
+
+    public GrantStorage(Path dataDirectory, IoExecutor io, ProfileStorage profiles) {
+        this(dataDirectory, io, profiles, null);
+    }
 
-    public GrantStorage(Path dataDirectory) {
+    public GrantStorage(Path dataDirectory, IoExecutor io, ProfileStorage profiles, HomeEventBus events) {
+        this(dataDirectory, io, profiles, events, false);
+    }
+
+    /**
+     * @param shared True if other servers use the same grants/ folder (ignored with profiles)
+     */
+    public GrantStorage(Path dataDirectory, IoExecutor io, ProfileStorage profiles, HomeEventBus events, boolean shared) {
         this.grantsDirectory = dataDirectory.resolve("grants");
+        this.io = io;
+        this.profiles = profiles;
+        this.events = events;
+        this.shared = shared && profiles == null;
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.cache = new ConcurrentHashMap<>();
+        this.writtenChecksums = new ConcurrentHashMap<>();
+        this.stamps = new ConcurrentHashMap<>();
+        this.fileStats = new ConcurrentHashMap<>();
 
         try {
             Files.createDirectories(grantsDirectory);
@@ -35,28 +93,230 @@ public class GrantStorage {
      * Get grants for a player, loading from disk if not cached.
      */
     public PlayerGrants getGrants(UUID playerId) {
+        PlayerGrants cached = cache.get(playerId);
+        if (cached != null) {
+            CACHE_HITS.increment();
+            return cached;
+        }
+        CACHE_MISSES.increment();
         return cache.computeIfAbsent(playerId, this::loadGrants);
     }
 
+    /**
+     * Number of players whose grants are in memory.
+     */
+    public int getCachedPlayerCount() {
+        return cache.size();
+    }
+
+    /**
+     * Get grants for a player, loading from disk on the I/O executor if not cached.
+     */
+    public CompletableFuture<PlayerGrants> getGrantsAsync(UUID playerId) {
+        PlayerGrants cached = cache.get(playerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return io.supply(() -> getGrants(playerId));
+    }
+
+    /**
+     * Grants for a player if they are in memory, without loading them.
+     */
+    public PlayerGrants getGrantsIfCached(UUID playerId) {
+        return cache.get(playerId);
+    }
+
+    /**
+     * Get grants for many players. Cached players are answered from memory and
+     * the rest are loaded on the I/O executor, several files per task.
+     */
+    public CompletableFuture<Map<UUID, PlayerGrants>> getGrantsAsync(Collection<UUID> playerIds) {
+        return fetchAll(playerIds, this::getGrants);
+    }
+
+    /**
+     * Grants for a player without keeping them in memory: cached players are
+     * answered from the cache, anyone else is read on the I/O executor and
+     * dropped afterwards. For read-only callers such as EasyHomeApi.
+     */
+    public CompletableFuture<PlayerGrants> readGrantsAsync(UUID playerId) {
+        PlayerGrants cached = cache.get(playerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return io.supply(() -> readUncached(playerId));
+    }
+
+    /**
+     * Grants for many players without caching the ones not in memory,
+     * read several files per task.
+     */
+    public CompletableFuture<Map<UUID, PlayerGrants>> readGrantsAsync(Collection<UUID> playerIds) {
+        return fetchAll(playerIds, this::readUncached);
+    }
+
+    private CompletableFuture<Map<UUID, PlayerGrants>> fetchAll(Collection<UUID> playerIds,
+                                                               Function<UUID, PlayerGrants> loader) {
+        Map<UUID, PlayerGrants> result = new ConcurrentHashMap<>();
+        List<UUID> cold = new ArrayList<>();
+        for (UUID playerId : new LinkedHashSet<>(playerIds)) {
+            PlayerGrants cached = cache.get(playerId);
+            if (cached != null) {
+                result.put(playerId, cached);
+            } else {
+                cold.add(playerId);
+            }
+        }
+
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        for (int from = 0; from < cold.size(); from += FLUSH_CHUNK_SIZE) {
+            List<UUID> chunk = cold.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, cold.size()));
+            loads.add(io.run(() -> chunk.forEach(playerId -> result.put(playerId, loader.apply(playerId)))));
+        }
+        return CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+                .thenApply(v -> HomeStorage.inOrder(playerIds, result));
+    }
+
     /**
      * Load grants from disk for a player.
      */
     private PlayerGrants loadGrants(UUID playerId) {
+        long start = System.nanoTime();
+        JfrEvents.StorageIo event = new JfrEvents.StorageIo();
+        event.begin();
+
+        PlayerGrants grants = readGrants(playerId, event);
+
+        Metrics.get().recordSince("storage.grants.load", start);
+        if (event.shouldCommit()) {
+            event.store = profiles != null ? "profiles" : "grants";
+            event.operation = "load";
+            event.playerId = playerId.toString();
+            event.outcome = "+" + grants.getBonusHomes() + " homes";
+            event.commit();
+        }
+        return grants;
+    }
+
+    private PlayerGrants readGrants(UUID playerId, JfrEvents.StorageIo event) {
+        if (profiles != null) {
+            return profiles.getProfile(playerId).getGrants();
+        }
+
         Path file = grantsDirectory.resolve(playerId.toString() + ".json");
+        PlayerGrants grants = new PlayerGrants();
+        long checksum = 0;
+
+        try {
+            byte[] bytes = readFile(file);
+            if (bytes != null) {
+                event.bytes = bytes.length;
+                grants = parseGrants(bytes);
+                checksum = DataFileWatcher.checksum(bytes);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        stamps.put(playerId, Stamp.of(grants, checksum));
+        return grants;
+    }
+
+    // The cached grants, or the stored ones read without caching them
+    private PlayerGrants readUncached(UUID playerId) {
+        PlayerGrants cached = cache.get(playerId);
+        if (cached != null) {
+            return cached;
+        }
+        if (profiles != null) {
+            return profiles.readProfile(playerId).getGrants();
+        }
+        try {
+            return parseGrants(readFile(grantsDirectory.resolve(playerId.toString() + ".json")));
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return new PlayerGrants();
+        }
+    }
+
+    // The player's file, or null if there is none
+    private byte[] readFile(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        BYTES_READ.add(bytes.length);
+        return bytes;
+    }
+
+    private PlayerGrants parseGrants(byte[] bytes) {
+        PlayerGrants grants = bytes != null
+                ? gson.fromJson(new String(bytes, StandardCharsets.UTF_8), PlayerGrants.class) : null;
+        return grants != null ? grants : new PlayerGrants();
+    }
 
-        if (Files.exists(file)) {
+    /**
+     * Re-read a player's grants file after it changed outside EasyHome and
+     * update the cached copy in place, keeping changes made here and not
+     * saved yet. Players not in memory need nothing: their next load reads
+     * the new file. Files that still hold what EasyHome last wrote, or that
+     * are mid-write, are left alone.
+     *
+     * @return true if the cached grants were reloaded
+     */
+    boolean reloadFromDisk(UUID playerId) {
+        PlayerGrants cached = cache.get(playerId);
+        if (cached == null) {
+            return false;
+        }
+
+        Path file = grantsDirectory.resolve(playerId.toString() + ".json");
+        // Holding the cached copy's monitor keeps saveGrants from writing while we read
+        synchronized (cached) {
             try {
-                String json = Files.readString(file);
-                PlayerGrants grants = gson.fromJson(json, PlayerGrants.class);
-                if (grants != null) {
-                    return grants;
+                byte[] bytes = null;
+                if (Files.exists(file)) {
+                    bytes = Files.readAllBytes(file);
+                    Long written = writtenChecksums.get(playerId);
+                    if (bytes.length == 0 || (written != null && written == DataFileWatcher.checksum(bytes))) {
+                        return false;
+                    }
+                    BYTES_READ.add(bytes.length);
                 }
-            } catch (IOException e) {
-                e.printStackTrace();
+
+                take(playerId, cached, bytes);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                // Unreadable or half-written; the next change event retries
+                return false;
             }
         }
+    }
+
+    // Move cached grants onto a stored file (null for none), keeping unsaved changes.
+    // Call holding the grants lock.
+    private void take(UUID playerId, PlayerGrants cached, byte[] bytes) {
+        PlayerGrants stored = parseGrants(bytes);
+        Stamp base = stamps.getOrDefault(playerId, Stamp.NONE);
+        int bonusHomes = cached.getBonusHomes();
+        boolean instantTeleport = cached.hasInstantTeleport();
+        if (base.matches(cached)) {
+            cached.copyFrom(stored);
+        } else {
+            cached.rebase(stored, base.bonusHomes(), base.instantTeleport(), base.historySize());
+        }
+        stamps.put(playerId, Stamp.of(stored, bytes != null ? DataFileWatcher.checksum(bytes) : 0));
+        if (cached.getBonusHomes() != bonusHomes || cached.hasInstantTeleport() != instantTeleport) {
+            changed(playerId, cached);
+        }
+    }
 
-        return new PlayerGrants();
+    /**
+     * Players whose grants are in memory.
+     */
+    Set<UUID> getCachedPlayerIds() {
+        return Set.copyOf(cache.keySet());
     }
 
     /**
@@ -66,15 +326,139 @@ public class GrantStorage {
         PlayerGrants grants = cache.get(playerId);
         if (grants == null) return;
 
+        long start = System.nanoTime();
+        JfrEvents.StorageIo event = new JfrEvents.StorageIo();
+        event.begin();
+        String outcome = "ok";
+
+        if (profiles != null) {
+            profiles.saveProfile(playerId);
+        } else if (shared) {
+            outcome = saveShared(playerId, grants, event);
+        } else {
+            outcome = saveLocal(playerId, grants, event);
+        }
+
+        Metrics.get().recordSince("storage.grants.save", start);
+        if (event.shouldCommit()) {
+            event.store = profiles != null ? "profiles" : "grants";
+            event.operation = "save";
+            event.playerId = playerId.toString();
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Save to a file no other server writes, merging in hand edits made since
+     * we last read or wrote it. Players with nothing new are skipped, and the
+     * file is only read back when its size or time changed since our write.
+     */
+    private String saveLocal(UUID playerId, PlayerGrants grants, JfrEvents.StorageIo event) {
         Path file = grantsDirectory.resolve(playerId.toString() + ".json");
 
-        try {
-            Files.writeString(file, gson.toJson(grants));
-        } catch (IOException e) {
-            e.printStackTrace();
+        // One writer per player file at a time
+        synchronized (grants) {
+            if (stamps.getOrDefault(playerId, Stamp.NONE).matches(grants)) {
+                return "unchanged";
+            }
+
+            String outcome = "ok";
+            try {
+                // Edited by hand since we last read or wrote it: keep those edits
+                if (!FileStat.of(file).equals(fileStats.get(playerId))) {
+                    byte[] stored = readFile(file);
+                    if (changedSince(stamps.getOrDefault(playerId, Stamp.NONE), stored)) {
+                        take(playerId, grants, stored);
+                        MERGES.increment();
+                        outcome = "merged";
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Unreadable, e.g. mid-edit: ours is written over it
+                e.printStackTrace();
+            }
+
+            try {
+                grants.setVersion(grants.getVersion() + 1);
+                byte[] bytes = gson.toJson(grants).getBytes(StandardCharsets.UTF_8);
+                long checksum = DataFileWatcher.checksum(bytes);
+                Files.write(file, bytes);
+                fileStats.put(playerId, FileStat.of(file));
+                writtenChecksums.put(playerId, checksum);
+                stamps.put(playerId, Stamp.of(grants, checksum));
+                BYTES_WRITTEN.add(bytes.length);
+                event.bytes = bytes.length;
+                return outcome;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return "error";
+            }
         }
     }
 
+    /**
+     * Save with the player's file locked against other servers, first merging
+     * in anything another server saved since we last read the file.
+     * Players with nothing new are skipped.
+     */
+    @SuppressWarnings("try")  // The file lock is only held, never referenced
+    private String saveShared(UUID playerId, PlayerGrants grants, JfrEvents.StorageIo event) {
+        Path file = grantsDirectory.resolve(playerId.toString() + ".json");
+
+        // Grants lock first: callers such as grantHomes already hold it when saving
+        synchronized (grants) {
+            try (FileLocks.Held unused = FileLocks.lock(file)) {
+                Stamp base = stamps.getOrDefault(playerId, Stamp.NONE);
+                byte[] stored = readFile(file);
+
+                boolean local = !base.matches(grants);
+                String outcome = "ok";
+                if (changedSince(base, stored)) {
+                    // Someone else saved since we last read the file
+                    take(playerId, grants, stored);
+                    MERGES.increment();
+                    if (!local) {
+                        return "refreshed";
+                    }
+                    outcome = "merged";
+                } else if (!local) {
+                    return "unchanged";
+                }
+
+                // take() moved grants onto the stored version if there was a newer one
+                grants.setVersion(Math.max(grants.getVersion(), base.version()) + 1);
+                byte[] bytes = gson.toJson(grants).getBytes(StandardCharsets.UTF_8);
+                long checksum = DataFileWatcher.checksum(bytes);
+                FileLocks.writeAtomically(file, bytes);
+                writtenChecksums.put(playerId, checksum);
+                stamps.put(playerId, Stamp.of(grants, checksum));
+                BYTES_WRITTEN.add(bytes.length);
+                event.bytes = bytes.length;
+                return outcome;
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+                return "error";
+            }
+        }
+    }
+
+    // True if the file (null for none) no longer holds what we last read or wrote.
+    // Empty files are mid-write and never count as changed.
+    private static boolean changedSince(Stamp base, byte[] stored) {
+        if (stored == null) {
+            return base.checksum() != 0;
+        }
+        return stored.length > 0 && DataFileWatcher.checksum(stored) != base.checksum();
+    }
+
+    /**
+     * Save grants for a player on the I/O executor.
+     */
+    public CompletableFuture<Void> saveGrantsAsync(UUID playerId) {
+        return io.run(() -> saveGrants(playerId));
+    }
+
     /**
      * Save all cached grants to disk.
      */
@@ -84,6 +468,15 @@ public class GrantStorage {
         }
     }
 
+    /**
+     * Save all cached grants, one I/O task per player.
+     */
+    public CompletableFuture<Void> saveAllAsync() {
+        return CompletableFuture.allOf(cache.keySet().stream()
+                .map(this::saveGrantsAsync)
+                .toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Grant bonus homes to a player.
      * @param playerId The player's UUID
@@ -91,8 +484,11 @@ public class GrantStorage {
      */
     public void grantHomes(UUID playerId, int amount) {
         PlayerGrants grants = getGrants(playerId);
-        grants.addBonusHomes(amount);
-        saveGrants(playerId);
+        synchronized (grants) {
+            grants.addBonusHomes(amount);
+            saveGrants(playerId);
+            changed(playerId, grants);
+        }
     }
 
     /**
@@ -102,8 +498,70 @@ public class GrantStorage {
      */
     public void revokeHomes(UUID playerId, int amount) {
         PlayerGrants grants = getGrants(playerId);
-        grants.removeBonusHomes(amount);
-        saveGrants(playerId);
+        synchronized (grants) {
+            grants.removeBonusHomes(amount);
+            saveGrants(playerId);
+            changed(playerId, grants);
+        }
+    }
+
+    /**
+     * Add (positive delta) or remove (negative delta) bonus homes for many players at once.
+     * Grants are loaded in parallel on the I/O executor, updated in memory, and then
+     * written in one grouped flush instead of one save per player. Nobody is
+     * updated until every player has loaded, so if any load fails the batch
+     * changes no one and can simply be run again.
+     *
+     * @param playerIds Players to update (duplicates are ignored)
+     * @param delta     Bonus homes to add, or remove if negative
+     * @param progress  Called with the number of players loaded so far (may be null)
+     */
+    public CompletableFuture<BatchResult> updateHomesBatch(Collection<UUID> playerIds, int delta, IntConsumer progress) {
+        long start = System.nanoTime();
+        List<UUID> targets = new ArrayList<>(new LinkedHashSet<>(playerIds));
+        Map<UUID, PlayerGrants> loaded = new ConcurrentHashMap<>();
+        AtomicInteger count = new AtomicInteger();
+
+        CompletableFuture<?>[] loads = new CompletableFuture<?>[targets.size()];
+        for (int i = 0; i < targets.size(); i++) {
+            UUID playerId = targets.get(i);
+            loads[i] = getGrantsAsync(playerId).thenAccept(grants -> {
+                loaded.put(playerId, grants);
+                int done = count.incrementAndGet();
+                if (progress != null) {
+                    progress.accept(done);
+                }
+            });
+        }
+
+        return CompletableFuture.allOf(loads)
+                .thenCompose(v -> {
+                    for (UUID playerId : targets) {
+                        PlayerGrants grants = loaded.get(playerId);
+                        synchronized (grants) {
+                            if (delta >= 0) {
+                                grants.addBonusHomes(delta);
+                            } else {
+                                grants.removeBonusHomes(-delta);
+                            }
+                            changed(playerId, grants);
+                        }
+                    }
+                    return flush(targets);
+                })
+                .thenApply(v -> new BatchResult(targets.size(), System.nanoTime() - start));
+    }
+
+    /**
+     * Write grants for the given players, grouping several files into each I/O task.
+     */
+    public CompletableFuture<Void> flush(List<UUID> playerIds) {
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int from = 0; from < playerIds.size(); from += FLUSH_CHUNK_SIZE) {
+            List<UUID> chunk = playerIds.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, playerIds.size()));
+            writes.add(io.run(() -> chunk.forEach(this::saveGrants)));
+        }
+        return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
     }
 
     /**
@@ -112,8 +570,11 @@ public class GrantStorage {
      */
     public void grantInstantTeleport(UUID playerId) {
         PlayerGrants grants = getGrants(playerId);
-        grants.setInstantTeleport(true);
-        saveGrants(playerId);
+        synchronized (grants) {
+            grants.setInstantTeleport(true);
+            saveGrants(playerId);
+            changed(playerId, grants);
+        }
     }
 
     /**
@@ -122,8 +583,11 @@ public class GrantStorage {
      */
     public void revokeInstantTeleport(UUID playerId) {
         PlayerGrants grants = getGrants(playerId);
-        grants.setInstantTeleport(false);
-        saveGrants(playerId);
+        synchronized (grants) {
+            grants.setInstantTeleport(false);
+            saveGrants(playerId);
+            changed(playerId, grants);
+        }
     }
 
     /**
@@ -139,4 +603,42 @@ public class GrantStorage {
     public int getBonusHomes(UUID playerId) {
         return getGrants(playerId).getBonusHomes();
     }
+
+    // Call while holding the grants lock so the event carries a consistent pair of values
+    private void changed(UUID playerId, PlayerGrants grants) {
+        if (events != null) {
+            events.post(new GrantChangedEvent(playerId, grants.getBonusHomes(), grants.hasInstantTeleport()));
+        }
+    }
+
+    /**
+     * A stored version of a player's grants.
+     */
+    private record Stamp(long version, int bonusHomes, boolean instantTeleport, int historySize, long checksum) {
+        static final Stamp NONE = new Stamp(0, 0, false, 0, 0);
+
+        // checksum is of the file the grants were read from or written as, 0 for no file
+        static Stamp of(PlayerGrants grants, long checksum) {
+            return new Stamp(grants.getVersion(), grants.getBonusHomes(), grants.hasInstantTeleport(),
+                    grants.getGrantHistory().size(), checksum);
+        }
+
+        boolean matches(PlayerGrants grants) {
+            return bonusHomes == grants.getBonusHomes() && instantTeleport == grants.hasInstantTeleport()
+                    && historySize == grants.getGrantHistory().size();
+        }
+    }
+
+    /**
+     * Outcome of a batch grant operation.
+     */
+    public record BatchResult(int players, long elapsedNanos) {
+        public double playersPerSecond() {
+            return elapsedNanos <= 0 ? players : players * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public long elapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+    }
 }
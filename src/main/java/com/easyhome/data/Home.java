@@ -2,6 +2,7 @@ package com.easyhome.data;
 
 /**
  * Represents a saved home location.
+ * The world name is interned so homes share one String per world.
  */
 public class Home {
     private final String name;
@@ -14,7 +15,7 @@ public class Home {
 
     public Home(String name, String world, double x, double y, double z, float yaw, float pitch) {
         this.name = name;
-        this.world = world;
+        this.world = WorldNames.intern(world);
         this.x = x;
         this.y = y;
         this.z = z;
@@ -50,6 +51,13 @@ public class Home {
         return pitch;
     }
 
+    public double distanceSquared(double px, double py, double pz) {
+        double dx = x - px;
+        double dy = y - py;
+        double dz = z - pz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
     public String getFormattedLocation() {
         return String.format("%s: %.0f, %.0f, %.0f", world, x, y, z);
     }
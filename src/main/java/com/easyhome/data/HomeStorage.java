@@ -1,31 +1,129 @@
 package com.easyhome.data;
 
+import com.easyhome.event.HomeDeletedEvent;
+import com.easyhome.event.HomeEvent;
+import com.easyhome.event.HomeEventBus;
+import com.easyhome.event.HomeSetEvent;
+import com.easyhome.util.IoExecutor;
+import com.easyhome.util.JfrEvents;
+import com.easyhome.util.Metrics;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Logger;
 import java.util.stream.Stream;
 
 /**
  * Manages persistent storage of player homes using JSON files.
+ * When a ProfileStorage is supplied, homes are read from and saved to the
+ * player's unified profile instead of homes/<uuid>.json.
+ *
+ * Each file carries a version that goes up with every save. In shared mode
+ * (several servers on one homes/ folder) saves lock the player's file, and
+ * if another server saved since we last read it, the two sets of changes
+ * are merged instead of ours overwriting theirs.
  */
 public class HomeStorage {
+    /**
+     * Limit for merge() that never drops a home.
+     */
+    static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private static final Logger LOGGER = Logger.getLogger("EasyHome");
+
+    // Number of lock stripes for per-player read-modify-write operations (power of two)
+    private static final int LOCK_STRIPES = 64;
+
+    // Number of player files written by a single I/O task during a batch flush
+    private static final int FLUSH_CHUNK_SIZE = 64;
+
+    private static final LongAdder CACHE_HITS = Metrics.get().counter("cache.homes.hits");
+    private static final LongAdder CACHE_MISSES = Metrics.get().counter("cache.homes.misses");
+    private static final LongAdder BYTES_READ = Metrics.get().counter("storage.homes.bytes_read");
+    private static final LongAdder BYTES_WRITTEN = Metrics.get().counter("storage.homes.bytes_written");
+    private static final LongAdder MERGES = Metrics.get().counter("storage.homes.merges");
+    private static final LongAdder OVER_LIMIT = Metrics.get().counter("storage.homes.over_limit_dropped");
+
+    /**
+     * Outcome of setHomeIfUnderLimit.
+     */
+    public enum SetResult {
+        CREATED,
+        UPDATED,
+        LIMIT_REACHED
+    }
+
     private final Path homesDirectory;
+    private final IoExecutor io;
+    private final ProfileStorage profiles;  // null = legacy homes/ files
+    private final HomeEventBus events;  // null = no listeners
+    private final boolean shared;  // true = other servers write to the same homes/ folder
     private final Gson gson;
     private final Map<UUID, PlayerHomes> cache;
     private final Map<UUID, String> usernameCache;  // Tracks usernames for each UUID
+    private final Map<UUID, Long> writtenChecksums;  // Checksum of the last file we wrote, per player
+    private final Map<UUID, Stamp> stamps;  // Version and homes as last read or written, per cached player
+    private final Map<UUID, FileStat> fileStats;  // Size and time of the file we last wrote, per player (non-shared saves)
+    private final Map<UUID, Integer> limits;  // Home limit last checked by setHomeIfUnderLimit, per player
+    private final ReentrantLock[] locks;
+    private final SpatialIndex spatialIndex;
+    private final WorldIndex worldIndex;
+
+    public HomeStorage(Path dataDirectory, IoExecutor io) {
+        this(dataDirectory, io, null);
+    }
+
+    public HomeStorage(Path dataDirectory, IoExecutor io, ProfileStorage profiles) {
+        this(dataDirectory, io, profiles, null);
+    }
 
-    public HomeStorage(Path dataDirectory) {
+    public HomeStorage(Path dataDirectory, IoExecutor io, ProfileStorage profiles, HomeEventBus events) {
+        this(dataDirectory, io, profiles, events, false);
+    }
+
+    /**
+     * @param shared True if other servers use the same homes/ folder (ignored with profiles)
+     */
+    public HomeStorage(Path dataDirectory, IoExecutor io, ProfileStorage profiles, HomeEventBus events, boolean shared) {
         this.homesDirectory = dataDirectory.resolve("homes");
+        this.io = io;
+        this.profiles = profiles;
+        this.events = events;
+        this.shared = shared && profiles == null;
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.cache = new ConcurrentHashMap<>();
         this.usernameCache = new ConcurrentHashMap<>();
+        this.writtenChecksums = new ConcurrentHashMap<>();
+        this.stamps = new ConcurrentHashMap<>();
+        this.fileStats = new ConcurrentHashMap<>();
+        this.limits = new ConcurrentHashMap<>();
+        this.spatialIndex = new SpatialIndex();
+        this.worldIndex = new WorldIndex();
+        this.locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
 
         try {
             Files.createDirectories(homesDirectory);
@@ -41,84 +139,770 @@ public class HomeStorage {
     public void updateUsername(UUID playerId, String username) {
         if (playerId != null && username != null && !username.isEmpty()) {
             usernameCache.put(playerId, username);
+            if (profiles != null) {
+                profiles.updateUsername(playerId, username);
+            }
         }
     }
 
     public PlayerHomes getHomes(UUID playerId) {
+        PlayerHomes cached = cache.get(playerId);
+        if (cached != null) {
+            CACHE_HITS.increment();
+            return cached;
+        }
+        CACHE_MISSES.increment();
         return cache.computeIfAbsent(playerId, this::loadHomes);
     }
 
+    /**
+     * Number of players whose homes are in memory.
+     */
+    public int getCachedPlayerCount() {
+        return cache.size();
+    }
+
+    /**
+     * Get homes for a player, loading from disk on the I/O executor if not cached.
+     */
+    public CompletableFuture<PlayerHomes> getHomesAsync(UUID playerId) {
+        PlayerHomes cached = cache.get(playerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return io.supply(() -> getHomes(playerId));
+    }
+
+    /**
+     * Homes for a player if they are in memory, without loading them.
+     */
+    public PlayerHomes getHomesIfCached(UUID playerId) {
+        return cache.get(playerId);
+    }
+
+    /**
+     * Get homes for many players. Cached players are answered from memory and
+     * the rest are loaded on the I/O executor, several files per task.
+     */
+    public CompletableFuture<Map<UUID, PlayerHomes>> getHomesAsync(Collection<UUID> playerIds) {
+        return fetchAll(playerIds, this::getHomes);
+    }
+
+    /**
+     * Homes for a player without keeping them in memory: cached players are
+     * answered from the cache, anyone else is read on the I/O executor and
+     * dropped afterwards. For read-only callers such as EasyHomeApi.
+     */
+    public CompletableFuture<PlayerHomes> readHomesAsync(UUID playerId) {
+        PlayerHomes cached = cache.get(playerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return io.supply(() -> readUncached(playerId));
+    }
+
+    /**
+     * Homes for many players without caching the ones not in memory,
+     * read several files per task.
+     */
+    public CompletableFuture<Map<UUID, PlayerHomes>> readHomesAsync(Collection<UUID> playerIds) {
+        return fetchAll(playerIds, this::readUncached);
+    }
+
+    private CompletableFuture<Map<UUID, PlayerHomes>> fetchAll(Collection<UUID> playerIds,
+                                                              Function<UUID, PlayerHomes> loader) {
+        Map<UUID, PlayerHomes> result = new ConcurrentHashMap<>();
+        List<UUID> cold = new ArrayList<>();
+        for (UUID playerId : new LinkedHashSet<>(playerIds)) {
+            PlayerHomes cached = cache.get(playerId);
+            if (cached != null) {
+                result.put(playerId, cached);
+            } else {
+                cold.add(playerId);
+            }
+        }
+
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        for (int from = 0; from < cold.size(); from += FLUSH_CHUNK_SIZE) {
+            List<UUID> chunk = cold.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, cold.size()));
+            loads.add(io.run(() -> chunk.forEach(playerId -> result.put(playerId, loader.apply(playerId)))));
+        }
+        return CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+                .thenApply(v -> inOrder(playerIds, result));
+    }
+
+    /**
+     * Complete a partial home name from the in-memory cache.
+     * Never touches disk: players whose homes aren't loaded get no suggestions.
+     */
+    public List<String> completeHomeNames(UUID playerId, String prefix, int limit) {
+        PlayerHomes homes = cache.get(playerId);
+        if (homes == null || prefix == null) {
+            return List.of();
+        }
+        return homes.getHomeNamesStartingWith(prefix, limit);
+    }
+
+    /**
+     * Atomically set a home, unless it is new and the player is already at their limit.
+     * Overwriting an existing home is always allowed.
+     * The caller is responsible for saving afterwards.
+     */
+    public SetResult setHomeIfUnderLimit(UUID playerId, Home home, int limit) {
+        // Load before locking: a cold load reads the file, and the stripe is shared with other players
+        PlayerHomes homes = getHomes(playerId);
+        ReentrantLock lock = lockFor(playerId);
+        lock.lock();
+        try {
+            Home previous = homes.getHome(home.getName());
+            limits.put(playerId, limit);
+            if (previous == null && homes.getHomeCount() >= limit) {
+                return SetResult.LIMIT_REACHED;
+            }
+            homes.setHome(home);
+            index(playerId, homes);
+            post(new HomeSetEvent(playerId, home, previous));
+            return previous != null ? SetResult.UPDATED : SetResult.CREATED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically delete a home.
+     * The caller is responsible for saving afterwards.
+     *
+     * @return true if the home existed
+     */
+    public boolean deleteHome(UUID playerId, String name) {
+        PlayerHomes homes = getHomes(playerId);
+        ReentrantLock lock = lockFor(playerId);
+        lock.lock();
+        try {
+            Home home = homes.getHome(name);
+            if (home == null || !homes.removeHome(name)) {
+                return false;
+            }
+            index(playerId, homes);
+            post(new HomeDeletedEvent(playerId, home));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Results keyed in the order the caller asked for them
+    static <T> Map<UUID, T> inOrder(Collection<UUID> playerIds, Map<UUID, T> loaded) {
+        Map<UUID, T> ordered = new LinkedHashMap<>();
+        for (UUID playerId : playerIds) {
+            T value = loaded.get(playerId);
+            if (value != null) {
+                ordered.put(playerId, value);
+            }
+        }
+        return ordered;
+    }
+
+    private void post(HomeEvent event) {
+        if (events != null) {
+            events.post(event);
+        }
+    }
+
+    private ReentrantLock lockFor(UUID playerId) {
+        int h = playerId.hashCode();
+        return locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Delete every home in a world. Affected players in memory are updated in
+     * parallel, then written in grouped flushes rather than one task per player.
+     * Anyone else is updated straight on their file, without being cached.
+     */
+    public CompletableFuture<PurgeResult> purgeWorld(String world) {
+        long start = System.nanoTime();
+        List<UUID> owners = new ArrayList<>(worldIndex.getPlayers(world));
+        AtomicInteger removed = new AtomicInteger();
+
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[owners.size()];
+        for (int i = 0; i < owners.size(); i++) {
+            UUID owner = owners.get(i);
+            tasks[i] = io.run(() -> {
+                // Players not in memory are purged on disk instead of being loaded for good
+                if (profiles == null && purgeStored(owner, world, removed)) {
+                    return;
+                }
+                PlayerHomes homes = getHomes(owner);
+                ReentrantLock lock = lockFor(owner);
+                lock.lock();
+                try {
+                    for (Home home : homes.getAllHomes()) {
+                        if (home.getWorld().equals(world) && homes.removeHome(home.getName())) {
+                            post(new HomeDeletedEvent(owner, home));
+                            removed.incrementAndGet();
+                        }
+                    }
+                    index(owner, homes);
+                } finally {
+                    lock.unlock();
+                }
+            });
+        }
+
+        return CompletableFuture.allOf(tasks)
+                .thenCompose(v -> flush(owners))
+                .thenApply(v -> new PurgeResult(owners.size(), removed.get(), System.nanoTime() - start));
+    }
+
+    /**
+     * Save homes for the given players, grouping several files into each I/O task.
+     */
+    public CompletableFuture<Void> flush(List<UUID> playerIds) {
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int from = 0; from < playerIds.size(); from += FLUSH_CHUNK_SIZE) {
+            List<UUID> chunk = playerIds.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, playerIds.size()));
+            writes.add(io.run(() -> chunk.forEach(this::saveHomes)));
+        }
+        return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Spatial index over every known home, for region queries.
+     */
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    /**
+     * Index of which players have homes in which world.
+     */
+    public WorldIndex getWorldIndex() {
+        return worldIndex;
+    }
+
+    // Both indexes follow the player's current snapshot as a whole
+    private void index(UUID owner, PlayerHomes homes) {
+        spatialIndex.update(owner, homes);
+        worldIndex.update(owner, homes);
+    }
+
+    // Purge a world from the file of a player who is not in memory. Runs inside the
+    // cache's compute so the player can't be loaded mid-purge. False if they are cached.
+    private boolean purgeStored(UUID owner, String world, AtomicInteger removed) {
+        boolean[] stored = {false};
+        cache.compute(owner, (id, cached) -> {
+            if (cached == null) {
+                stored[0] = true;
+                removed.addAndGet(purgeFile(owner, world));
+            }
+            return cached;
+        });
+        return stored[0];
+    }
+
+    @SuppressWarnings("try")  // The file lock is only held, never referenced
+    private int purgeFile(UUID owner, String world) {
+        Path file = homesDirectory.resolve(owner.toString() + ".json");
+        try (FileLocks.Held unused = shared ? FileLocks.lock(file) : null) {
+            Stamp stored = readHomesFile(owner, new JfrEvents.StorageIo());
+            PlayerHomes homes = stored.homes();
+            int removed = 0;
+            for (Home home : homes.getAllHomes()) {
+                if (home.getWorld().equals(world) && homes.removeHome(home.getName())) {
+                    post(new HomeDeletedEvent(owner, home));
+                    removed++;
+                }
+            }
+            if (removed == 0) {
+                return 0;
+            }
+
+            HomeData data = new HomeData();
+            data.version = stored.version() + 1;
+            data.username = stored.username();
+            data.homes = toHomeJson(homes);
+            byte[] bytes = gson.toJson(data).getBytes(StandardCharsets.UTF_8);
+            FileLocks.writeAtomically(file, bytes);
+            writtenChecksums.put(owner, DataFileWatcher.checksum(bytes));
+            BYTES_WRITTEN.add(bytes.length);
+
+            ReentrantLock lock = lockFor(owner);
+            lock.lock();
+            try {
+                index(owner, homes);
+            } finally {
+                lock.unlock();
+            }
+            return removed;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Populate the home indexes from every stored player, reading files in
+     * parallel on the I/O executor. Players already cached are indexed from
+     * memory. Safe to run while players are online.
+     *
+     * @return Number of players indexed
+     */
+    public CompletableFuture<Integer> buildIndex() {
+        Path directory = profiles != null ? profiles.getProfilesDirectory() : homesDirectory;
+        return io.supply(() -> listPlayerIds(directory)).thenCompose(playerIds -> {
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[playerIds.size()];
+            for (int i = 0; i < playerIds.size(); i++) {
+                UUID playerId = playerIds.get(i);
+                tasks[i] = io.run(() -> indexStoredPlayer(playerId));
+            }
+            return CompletableFuture.allOf(tasks).thenApply(v -> playerIds.size());
+        });
+    }
+
+    private void indexStoredPlayer(UUID playerId) {
+        PlayerHomes stored = readUncached(playerId);
+
+        // Under the player's stripe so a concurrent delete can't leave a stale entry behind
+        ReentrantLock lock = lockFor(playerId);
+        lock.lock();
+        try {
+            PlayerHomes current = cache.get(playerId);
+            if (current == null || current == stored) {
+                index(playerId, stored);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The cached homes, or the stored ones read without caching them
+    private PlayerHomes readUncached(UUID playerId) {
+        PlayerHomes cached = cache.get(playerId);
+        if (cached != null) {
+            return cached;
+        }
+        return profiles != null ? profiles.readProfile(playerId).getHomes() : readHomesFile(playerId);
+    }
+
     private PlayerHomes loadHomes(UUID playerId) {
+        long start = System.nanoTime();
+        JfrEvents.StorageIo event = new JfrEvents.StorageIo();
+        event.begin();
+
+        PlayerHomes homes;
+        if (profiles != null) {
+            PlayerProfile profile = profiles.getProfile(playerId);
+            if (profile.getUsername() != null && !profile.getUsername().isEmpty()) {
+                usernameCache.put(playerId, profile.getUsername());
+            }
+            homes = profile.getHomes();
+        } else {
+            Stamp stored = readHomesFile(playerId, event);
+            stamps.put(playerId, stored);
+            homes = stored.homes().copy();
+        }
+
+        index(playerId, homes);
+        Metrics.get().recordSince("storage.homes.load", start);
+        if (event.shouldCommit()) {
+            event.store = profiles != null ? "profiles" : "homes";
+            event.operation = "load";
+            event.playerId = playerId.toString();
+            event.outcome = homes.getHomeCount() + " homes";
+            event.commit();
+        }
+        return homes;
+    }
+
+    private PlayerHomes readHomesFile(UUID playerId) {
+        // Bulk scans are not recorded per player
+        return readHomesFile(playerId, new JfrEvents.StorageIo()).homes();
+    }
+
+    private Stamp readHomesFile(UUID playerId, JfrEvents.StorageIo event) {
         Path file = homesDirectory.resolve(playerId.toString() + ".json");
 
         if (Files.exists(file)) {
             try {
-                String json = Files.readString(file);
-                HomeData data = gson.fromJson(json, HomeData.class);
-
-                PlayerHomes homes = new PlayerHomes();
-                if (data != null) {
-                    // Load username if present (for backwards compatibility with cache)
-                    if (data.username != null && !data.username.isEmpty()) {
-                        usernameCache.put(playerId, data.username);
-                    }
+                byte[] bytes = Files.readAllBytes(file);
+                BYTES_READ.add(bytes.length);
+                event.bytes = bytes.length;
+                return parseHomes(playerId, bytes);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
 
-                    if (data.homes != null) {
-                        for (Map.Entry<String, HomeJson> entry : data.homes.entrySet()) {
-                            HomeJson h = entry.getValue();
-                            Home home = new Home(entry.getKey(), h.world, h.x, h.y, h.z, h.yaw, h.pitch);
-                            homes.setHome(home);
-                        }
+        return new Stamp(0, new PlayerHomes(), 0, null);
+    }
+
+    private Stamp parseHomes(UUID playerId, byte[] bytes) {
+        HomeData data = gson.fromJson(new String(bytes, StandardCharsets.UTF_8), HomeData.class);
+        long checksum = DataFileWatcher.checksum(bytes);
+
+        if (data == null) {
+            return new Stamp(0, new PlayerHomes(), checksum, null);
+        }
+
+        // Load username if present (for backwards compatibility with cache)
+        if (data.username != null && !data.username.isEmpty()) {
+            usernameCache.put(playerId, data.username);
+        }
+        return new Stamp(data.version, toPlayerHomes(data.homes), checksum, data.username);
+    }
+
+    /**
+     * Re-read a player's homes file after it changed outside EasyHome, update
+     * the cached copy in place and re-index the player. Changes made here and
+     * not saved yet are kept on top of the new file. Files that still hold
+     * what EasyHome last wrote, or that are mid-write, are left alone.
+     *
+     * @return true if the stored homes were reloaded
+     */
+    boolean reloadFromDisk(UUID playerId) {
+        PlayerHomes cached = cache.get(playerId);
+        try {
+            if (cached == null) {
+                Stamp stored = readExternal(playerId);
+                if (stored == null) {
+                    return false;
+                }
+                ReentrantLock lock = lockFor(playerId);
+                lock.lock();
+                try {
+                    // Loaded meanwhile: the load indexed what it read
+                    if (!cache.containsKey(playerId)) {
+                        index(playerId, stored.homes());
                     }
+                } finally {
+                    lock.unlock();
                 }
-                return homes;
-            } catch (IOException e) {
-                e.printStackTrace();
+                return true;
             }
+            // Holding the cached copy's monitor keeps saveHomes from writing while we read
+            synchronized (cached) {
+                Stamp stored = readExternal(playerId);
+                if (stored == null) {
+                    return false;
+                }
+                mergeStored(playerId, cached, stored);
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Unreadable or half-written; the next change event retries
+            return false;
         }
+    }
 
-        return new PlayerHomes();
+    // The stored homes, or null if the file holds what EasyHome last wrote or is mid-write
+    private Stamp readExternal(UUID playerId) throws IOException {
+        Path file = homesDirectory.resolve(playerId.toString() + ".json");
+        if (!Files.exists(file)) {
+            return new Stamp(0, new PlayerHomes(), 0, null);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Long written = writtenChecksums.get(playerId);
+        if (bytes.length == 0 || (written != null && written == DataFileWatcher.checksum(bytes))) {
+            return null;
+        }
+        BYTES_READ.add(bytes.length);
+        return parseHomes(playerId, bytes);
+    }
+
+    // Move the cached homes onto a stored version, keeping changes made here since
+    // the last read or write. Only this in-memory step holds the player's stripe;
+    // call it holding the cached copy's monitor, with any file I/O already done.
+    private void mergeStored(UUID playerId, PlayerHomes cached, Stamp stored) {
+        ReentrantLock lock = lockFor(playerId);
+        lock.lock();
+        try {
+            Stamp base = stamps.get(playerId);
+            PlayerHomes from = base != null ? base.homes() : new PlayerHomes();
+            Integer limit = limits.get(playerId);
+            PlayerHomes merged = merge(from, cached, stored.homes(), limit != null ? limit : NO_LIMIT);
+            for (String key : cached.getHomesMap().keySet()) {
+                if (!from.hasHome(key) && !stored.homes().hasHome(key) && !merged.hasHome(key)) {
+                    OVER_LIMIT.increment();
+                    LOGGER.warning("Dropped home " + key + " of " + playerId + ": over their limit of " + limit
+                            + " once merged with homes set elsewhere");
+                }
+            }
+            replace(playerId, cached, merged);
+            stamps.put(playerId, stored);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Three-way merge of a player's homes: homes set or deleted in ours since
+     * base win, everything else comes from theirs.
+     *
+     * Both sides may have created homes against the same limit, so if the
+     * result holds more than limit homes, homes created only in ours are
+     * dropped, last name first, until it fits. Homes in theirs are never dropped.
+     *
+     * @param limit Limit the homes created in ours were checked against, or NO_LIMIT
+     */
+    static PlayerHomes merge(PlayerHomes base, PlayerHomes ours, PlayerHomes theirs, int limit) {
+        if (ours.sameAs(base)) {
+            return theirs;
+        }
+        Map<String, Home> before = base.getHomesMap();
+        Map<String, Home> after = ours.getHomesMap();
+        Map<String, Home> merged = new HashMap<>(theirs.getHomesMap());
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                merged.remove(key);
+            }
+        }
+        for (Map.Entry<String, Home> entry : after.entrySet()) {
+            Home previous = before.get(entry.getKey());
+            if (previous == null || !sameHome(previous, entry.getValue())) {
+                merged.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (merged.size() > limit) {
+            List<String> created = new ArrayList<>();
+            for (String key : after.keySet()) {
+                if (!before.containsKey(key) && !theirs.hasHome(key)) {
+                    created.add(key);
+                }
+            }
+            created.sort(Comparator.reverseOrder());
+            for (int i = 0; i < created.size() && merged.size() > limit; i++) {
+                merged.remove(created.get(i));
+            }
+        }
+        return PlayerHomes.of(merged.values());
+    }
+
+    // Swap a cached player's homes for another set, with events and index updates
+    private void replace(UUID playerId, PlayerHomes cached, PlayerHomes homes) {
+        if (cached.sameAs(homes)) {
+            return;
+        }
+        postChanges(playerId, cached.getHomesMap(), homes.getHomesMap());
+        cached.replaceWith(homes);
+        index(playerId, cached);
+    }
+
+
+    private void postChanges(UUID playerId, Map<String, Home> before, Map<String, Home> after) {
+        if (events == null) {
+            return;
+        }
+        for (Map.Entry<String, Home> entry : after.entrySet()) {
+            Home previous = before.get(entry.getKey());
+            if (previous == null || !sameHome(previous, entry.getValue())) {
+                events.post(new HomeSetEvent(playerId, entry.getValue(), previous));
+            }
+        }
+        for (Map.Entry<String, Home> entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                events.post(new HomeDeletedEvent(playerId, entry.getValue()));
+            }
+        }
+    }
+
+    private static boolean sameHome(Home a, Home b) {
+        return a.getName().equals(b.getName()) && a.getWorld().equals(b.getWorld())
+                && a.getX() == b.getX() && a.getY() == b.getY() && a.getZ() == b.getZ()
+                && a.getYaw() == b.getYaw() && a.getPitch() == b.getPitch();
+    }
+
+    /**
+     * Players whose homes are in memory.
+     */
+    Set<UUID> getCachedPlayerIds() {
+        return Set.copyOf(cache.keySet());
     }
 
     public void saveHomes(UUID playerId) {
         PlayerHomes homes = cache.get(playerId);
         if (homes == null) return;
 
+        long start = System.nanoTime();
+        JfrEvents.StorageIo event = new JfrEvents.StorageIo();
+        event.begin();
+        String outcome = "ok";
+
+        if (profiles != null) {
+            profiles.saveProfile(playerId);
+        } else if (shared) {
+            outcome = saveShared(playerId, homes, event);
+        } else {
+            outcome = saveLocal(playerId, homes, event);
+        }
+
+        Metrics.get().recordSince("storage.homes.save", start);
+        if (event.shouldCommit()) {
+            event.store = profiles != null ? "profiles" : "homes";
+            event.operation = "save";
+            event.playerId = playerId.toString();
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Save with the player's file locked against other servers. If another
+     * server saved since we last read the file, its changes are merged into
+     * the cached homes before writing. Players with nothing new are skipped.
+     *
+     * The file lock and disk I/O are taken under the cached copy's monitor,
+     * never the player's stripe, so a slow peer or network share can't hold
+     * up world threads setting or deleting homes.
+     */
+    @SuppressWarnings("try")  // The file lock is only held, never referenced
+    private String saveShared(UUID playerId, PlayerHomes homes, JfrEvents.StorageIo event) {
         Path file = homesDirectory.resolve(playerId.toString() + ".json");
+        synchronized (homes) {
+            try (FileLocks.Held unused = FileLocks.lock(file)) {
+                Stamp base = stamps.get(playerId);
+                long baseVersion = base != null ? base.version() : 0;
+                Stamp disk = readStored(playerId, file);
 
-        HomeData data = new HomeData();
-        data.username = usernameCache.get(playerId);  // Include username for offline lookups
-        data.homes = new HashMap<>();
+                String outcome = "ok";
+                if (changedSince(base, disk)) {
+                    // Someone else saved since we last read the file
+                    mergeStored(playerId, homes, disk);
+                    MERGES.increment();
+                    if (homes.sameAs(disk.homes())) {
+                        return "refreshed";
+                    }
+                    outcome = "merged";
+                } else if (isSaved(playerId, homes, base)) {
+                    return "unchanged";
+                }
 
-        for (Home home : homes.getAllHomes()) {
-            HomeJson h = new HomeJson();
-            h.world = home.getWorld();
-            h.x = home.getX();
-            h.y = home.getY();
-            h.z = home.getZ();
-            h.yaw = home.getYaw();
-            h.pitch = home.getPitch();
-            data.homes.put(home.getName(), h);
+                PlayerHomes snapshot = homes.copy();
+                HomeData data = new HomeData();
+                data.version = Math.max(disk != null ? disk.version() : 0, baseVersion) + 1;
+                data.username = usernameCache.get(playerId);
+                data.homes = toHomeJson(snapshot);
+                byte[] bytes = gson.toJson(data).getBytes(StandardCharsets.UTF_8);
+                long checksum = DataFileWatcher.checksum(bytes);
+                FileLocks.writeAtomically(file, bytes);
+                writtenChecksums.put(playerId, checksum);
+                stamps.put(playerId, new Stamp(data.version, snapshot, checksum, data.username));
+                BYTES_WRITTEN.add(bytes.length);
+                event.bytes = bytes.length;
+                return outcome;
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+                return "error";
+            }
         }
+    }
 
-        try {
-            Files.writeString(file, gson.toJson(data));
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Save to a file no other server writes. It may still have been edited by
+     * hand since we last read or wrote it, before the watcher reloaded it;
+     * such edits are merged into the cached homes rather than written over.
+     * The file is only read back when its size or time changed since our write.
+     */
+    private String saveLocal(UUID playerId, PlayerHomes homes, JfrEvents.StorageIo event) {
+        Path file = homesDirectory.resolve(playerId.toString() + ".json");
+
+        // One writer per player file at a time; the copy is a consistent snapshot
+        synchronized (homes) {
+            Stamp base = stamps.get(playerId);
+            if (isSaved(playerId, homes, base)) {
+                return "unchanged";
+            }
+            long baseVersion = base != null ? base.version() : 0;
+            String outcome = "ok";
+            try {
+                if (!FileStat.of(file).equals(fileStats.get(playerId))) {
+                    Stamp disk = readStored(playerId, file);
+                    if (changedSince(base, disk)) {
+                        mergeStored(playerId, homes, disk);
+                        MERGES.increment();
+                        baseVersion = Math.max(baseVersion, disk.version());
+                        outcome = "merged";
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Unreadable, e.g. mid-edit: ours is written over it
+                e.printStackTrace();
+            }
+
+            PlayerHomes snapshot = homes.copy();
+            HomeData data = new HomeData();
+            data.version = baseVersion + 1;
+            data.username = usernameCache.get(playerId);  // Include username for offline lookups
+            data.homes = toHomeJson(snapshot);
+
+            try {
+                byte[] bytes = gson.toJson(data).getBytes(StandardCharsets.UTF_8);
+                long checksum = DataFileWatcher.checksum(bytes);
+                Files.write(file, bytes);
+                fileStats.put(playerId, FileStat.of(file));
+                writtenChecksums.put(playerId, checksum);
+                stamps.put(playerId, new Stamp(data.version, snapshot, checksum, data.username));
+                BYTES_WRITTEN.add(bytes.length);
+                event.bytes = bytes.length;
+                return outcome;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return "error";
+            }
         }
     }
 
+    // True if the homes and username are what was last read or written
+    private boolean isSaved(UUID playerId, PlayerHomes homes, Stamp base) {
+        return base != null && homes.sameAs(base.homes()) && Objects.equals(base.username(), usernameCache.get(playerId));
+    }
+
+    // The player's file as it is now, or null if it is empty (mid-write)
+    private Stamp readStored(UUID playerId, Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new Stamp(0, new PlayerHomes(), 0, null);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        BYTES_READ.add(bytes.length);
+        return bytes.length > 0 ? parseHomes(playerId, bytes) : null;
+    }
+
+    // True if the file no longer holds what we last read or wrote
+    private static boolean changedSince(Stamp base, Stamp disk) {
+        return disk != null && disk.checksum() != (base != null ? base.checksum() : 0);
+    }
+
+    /**
+     * Save homes for a player on the I/O executor.
+     */
+    public CompletableFuture<Void> saveHomesAsync(UUID playerId) {
+        return io.run(() -> saveHomes(playerId));
+    }
+
     public void saveAll() {
         for (UUID playerId : cache.keySet()) {
             saveHomes(playerId);
         }
     }
 
+    /**
+     * Save all cached homes, one I/O task per player.
+     */
+    public CompletableFuture<Void> saveAllAsync() {
+        return CompletableFuture.allOf(cache.keySet().stream()
+                .map(this::saveHomesAsync)
+                .toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Scan all homes files and return username mappings.
      * Used to populate PlayerCache on startup for backwards compatibility.
      */
     public Map<UUID, String> scanForUsernames() {
+        if (profiles != null) {
+            return profiles.scanForUsernames();
+        }
+
         Map<UUID, String> mappings = new HashMap<>();
 
         try (Stream<Path> files = Files.list(homesDirectory)) {
@@ -146,14 +930,87 @@ public class HomeStorage {
         return mappings;
     }
 
-    private static class HomeData {
+    /**
+     * List the player UUIDs that have a <uuid>.json file in a directory.
+     */
+    static List<UUID> listPlayerIds(Path directory) {
+        List<UUID> ids = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return ids;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.toString().endsWith(".json"))
+                 .forEach(file -> {
+                     try {
+                         ids.add(UUID.fromString(file.getFileName().toString().replace(".json", "")));
+                     } catch (IllegalArgumentException ignored) {
+                         // Skip non-player files
+                     }
+                 });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return ids;
+    }
+
+    /**
+     * Convert serialized homes into a PlayerHomes instance.
+     */
+    static PlayerHomes toPlayerHomes(Map<String, HomeJson> json) {
+        List<Home> homes = new ArrayList<>();
+        if (json != null) {
+            for (Map.Entry<String, HomeJson> entry : json.entrySet()) {
+                HomeJson h = entry.getValue();
+                homes.add(new Home(entry.getKey(), h.world, h.x, h.y, h.z, h.yaw, h.pitch));
+            }
+        }
+        return PlayerHomes.of(homes);
+    }
+
+    /**
+     * Convert a PlayerHomes instance into its serialized form.
+     */
+    static Map<String, HomeJson> toHomeJson(PlayerHomes homes) {
+        Map<String, HomeJson> json = new HashMap<>();
+        for (Home home : homes.getAllHomes()) {
+            HomeJson h = new HomeJson();
+            h.world = home.getWorld();
+            h.x = home.getX();
+            h.y = home.getY();
+            h.z = home.getZ();
+            h.yaw = home.getYaw();
+            h.pitch = home.getPitch();
+            json.put(home.getName(), h);
+        }
+        return json;
+    }
+
+    static class HomeData {
+        long version;  // Incremented on every save
         String username;  // Player's username for offline lookups
         Map<String, HomeJson> homes;
     }
 
-    private static class HomeJson {
+    static class HomeJson {
         String world;
         double x, y, z;
         float yaw, pitch;
     }
+
+    /**
+     * A stored version of a player's homes, with the checksum of the file it
+     * was read from or written as (0 for no file) and the username in it.
+     */
+    private record Stamp(long version, PlayerHomes homes, long checksum, String username) {
+    }
+
+    /**
+     * Outcome of a world purge.
+     */
+    public record PurgeResult(int players, int homes, long elapsedNanos) {
+        public long elapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package com.easyhome.data;
 
+import com.easyhome.util.IoExecutor;
+import com.easyhome.util.JfrEvents;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
@@ -10,26 +12,48 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 /**
  * Caches player username to UUID mappings for offline player lookups.
  * Updated whenever a player uses any home command.
+ *
+ * With unified profiles the usernames are stored in each player's profile,
+ * so player_cache.json is only read (for migration) and never rewritten.
  */
 public class PlayerCache {
     private final Path cacheFile;
+    private final IoExecutor io;
+    private final boolean persistent;  // false = usernames are kept in unified profiles instead
+    private final AtomicBoolean saveQueued;
     private final Gson gson;
-    private final Map<String, UUID> usernameToUuid;
-    private final Map<UUID, String> uuidToUsername;
+    private final CompactPlayerTable players;
+    private final UsernameIndex usernameIndex;
 
-    public PlayerCache(Path dataDirectory) {
+    public PlayerCache(Path dataDirectory, IoExecutor io) {
+        this(dataDirectory, io, true);
+    }
+
+    /**
+     * @param persistent Whether to write player_cache.json (false when unified profiles hold usernames)
+     */
+    public PlayerCache(Path dataDirectory, IoExecutor io, boolean persistent) {
         this.cacheFile = dataDirectory.resolve("player_cache.json");
+        this.io = io;
+        this.persistent = persistent;
+        this.saveQueued = new AtomicBoolean(false);
         this.gson = new GsonBuilder().setPrettyPrinting().create();
-        this.usernameToUuid = new ConcurrentHashMap<>();
-        this.uuidToUsername = new ConcurrentHashMap<>();
+        this.players = new CompactPlayerTable();
+        this.usernameIndex = new UsernameIndex(players::lowercaseNames);
         load();
     }
 
@@ -40,6 +64,9 @@ public class PlayerCache {
      * from usernames stored in homes files.
      */
     public void syncFromHomeStorage(HomeStorage homeStorage) {
+        JfrEvents.PlayerCacheSync event = new JfrEvents.PlayerCacheSync();
+        event.begin();
+
         Map<UUID, String> existingMappings = homeStorage.scanForUsernames();
         int synced = 0;
 
@@ -47,17 +74,24 @@ public class PlayerCache {
             UUID uuid = entry.getKey();
             String username = entry.getValue();
 
-            // Only add if not already in cache (don't overwrite newer data)
-            if (!uuidToUsername.containsKey(uuid)) {
-                usernameToUuid.put(username.toLowerCase(), uuid);
-                uuidToUsername.put(uuid, username);
+            // Only add if not already in cache (don't overwrite newer data),
+            // unless profiles are where renames are kept and the cache file is stale
+            if ((!persistent || !players.containsUuid(uuid)) && players.put(uuid, username)) {
                 synced++;
             }
         }
 
         if (synced > 0) {
+            usernameIndex.invalidate();
             save();
         }
+
+        if (event.shouldCommit()) {
+            event.source = "home storage";
+            event.scanned = existingMappings.size();
+            event.synced = synced;
+            event.commit();
+        }
     }
 
     /**
@@ -84,6 +118,8 @@ public class PlayerCache {
                 return;
             }
 
+            JfrEvents.PlayerCacheSync event = new JfrEvents.PlayerCacheSync();
+            event.begin();
             int synced = 0;
 
             // Get list of files first, then process
@@ -99,7 +135,7 @@ public class PlayerCache {
                     UUID uuid = UUID.fromString(uuidStr);
 
                     // Skip if already in cache
-                    if (uuidToUsername.containsKey(uuid)) {
+                    if (players.containsUuid(uuid)) {
                         continue;
                     }
 
@@ -118,9 +154,7 @@ public class PlayerCache {
                         }
                     }
 
-                    if (username != null && !username.isEmpty()) {
-                        usernameToUuid.put(username.toLowerCase(), uuid);
-                        uuidToUsername.put(uuid, username);
+                    if (username != null && !username.isEmpty() && players.put(uuid, username)) {
                         synced++;
                     }
                 } catch (Exception ignored) {
@@ -129,8 +163,16 @@ public class PlayerCache {
             }
 
             if (synced > 0) {
+                usernameIndex.invalidate();
                 save();
             }
+
+            if (event.shouldCommit()) {
+                event.source = "server player data";
+                event.scanned = jsonFiles.length;
+                event.synced = synced;
+                event.commit();
+            }
         } catch (Exception e) {
             // Don't let this crash the plugin - just log and continue
             e.printStackTrace();
@@ -150,9 +192,7 @@ public class PlayerCache {
                     for (Map.Entry<String, String> entry : data.entrySet()) {
                         try {
                             UUID uuid = UUID.fromString(entry.getValue());
-                            String username = entry.getKey();
-                            usernameToUuid.put(username.toLowerCase(), uuid);
-                            uuidToUsername.put(uuid, username);
+                            players.put(uuid, entry.getKey());
                         } catch (IllegalArgumentException ignored) {
                             // Skip invalid UUIDs
                         }
@@ -167,19 +207,41 @@ public class PlayerCache {
     /**
      * Save the cache to disk.
      */
-    public void save() {
+    public synchronized void save() {
+        if (!persistent) {
+            return;
+        }
         try {
             // Build map with original case usernames
-            Map<String, String> data = new ConcurrentHashMap<>();
-            for (Map.Entry<UUID, String> entry : uuidToUsername.entrySet()) {
-                data.put(entry.getValue(), entry.getKey().toString());
-            }
+            Map<String, String> data = new HashMap<>();
+            players.forEach((uuid, username) -> data.put(username, uuid.toString()));
             Files.writeString(cacheFile, gson.toJson(data));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Save the cache on the I/O executor.
+     * Requests made while a save is already queued are folded into it.
+     */
+    public CompletableFuture<Void> saveAsync() {
+        if (!persistent || !saveQueued.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return io.run(() -> {
+                saveQueued.set(false);
+                save();
+            });
+        } catch (RejectedExecutionException e) {
+            // Executor already shut down; save now rather than drop this and every later save
+            saveQueued.set(false);
+            save();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
     /**
      * Update the cache with a player's current username.
      * Call this when a player uses any command.
@@ -189,16 +251,18 @@ public class PlayerCache {
             return;
         }
 
-        // Check if username changed
-        String oldUsername = uuidToUsername.get(uuid);
-        if (oldUsername != null && !oldUsername.equalsIgnoreCase(username)) {
-            // Remove old username mapping
-            usernameToUuid.remove(oldUsername.toLowerCase());
+        // The table drops the old username mapping itself; false means unchanged
+        synchronized (usernameIndex) {
+            String previous = players.getUsername(uuid);
+            if (!players.put(uuid, username)) {
+                return;
+            }
+            usernameIndex.add(username.toLowerCase(Locale.ROOT));
+            if (previous != null && players.getUuid(previous) == null) {
+                usernameIndex.remove(previous.toLowerCase(Locale.ROOT));
+            }
         }
-
-        usernameToUuid.put(username.toLowerCase(), uuid);
-        uuidToUsername.put(uuid, username);
-        save();
+        saveAsync();
     }
 
     /**
@@ -209,7 +273,7 @@ public class PlayerCache {
         if (username == null || username.isEmpty()) {
             return null;
         }
-        return usernameToUuid.get(username.toLowerCase());
+        return players.getUuid(username);
     }
 
     /**
@@ -220,13 +284,51 @@ public class PlayerCache {
         if (uuid == null) {
             return null;
         }
-        return uuidToUsername.get(uuid);
+        return players.getUsername(uuid);
+    }
+
+    /**
+     * Complete a partial username from the cache (case-insensitive).
+     * Returns original-case usernames in sorted order.
+     */
+    public List<String> completeUsernames(String prefix, int limit) {
+        if (prefix == null) {
+            return List.of();
+        }
+        return toDisplayNames(usernameIndex.startingWith(prefix, limit));
+    }
+
+    /**
+     * Suggest usernames similar to one that didn't match exactly.
+     */
+    public List<String> suggestUsernames(String input, int limit) {
+        if (input == null || input.isEmpty()) {
+            return List.of();
+        }
+        return toDisplayNames(usernameIndex.suggest(input, limit));
+    }
+
+    private List<String> toDisplayNames(List<String> lowercaseNames) {
+        List<String> names = new ArrayList<>(lowercaseNames.size());
+        for (String lowered : lowercaseNames) {
+            UUID uuid = players.getUuid(lowered);
+            String username = uuid != null ? players.getUsername(uuid) : null;
+            names.add(username != null ? username : lowered);
+        }
+        return names;
+    }
+
+    /**
+     * Number of players in the cache.
+     */
+    public int getPlayerCount() {
+        return players.size();
     }
 
     /**
      * Check if a player exists in the cache.
      */
     public boolean hasPlayer(String username) {
-        return username != null && usernameToUuid.containsKey(username.toLowerCase());
+        return username != null && players.getUuid(username) != null;
     }
 }
@@ -8,6 +8,7 @@ import java.util.List;
  * Grants are additive bonuses that stack with permissions.
  */
 public class PlayerGrants {
+    private long version;  // Incremented on every save
     private int bonusHomes;
     private boolean instantTeleport;
     private List<GrantHistoryEntry> grantHistory;
@@ -41,6 +42,43 @@ public class PlayerGrants {
         addHistoryEntry("instanttp", instant ? 1 : 0, instant);
     }
 
+    /**
+     * Take on another copy's values, keeping this object (and any references
+     * to it) valid. Used when the file was changed outside EasyHome.
+     */
+    void copyFrom(PlayerGrants other) {
+        this.version = other.version;
+        this.bonusHomes = other.bonusHomes;
+        this.instantTeleport = other.instantTeleport;
+        this.grantHistory = other.grantHistory;
+    }
+
+    /**
+     * Re-apply the changes made here since a stored version on top of a newer
+     * one saved elsewhere: bonus homes as a difference, instant teleport only
+     * if it was changed here, and the history entries added here.
+     */
+    void rebase(PlayerGrants theirs, int baseBonusHomes, boolean baseInstantTeleport, int baseHistorySize) {
+        List<GrantHistoryEntry> ours = getGrantHistory();
+        List<GrantHistoryEntry> history = new ArrayList<>(theirs.getGrantHistory());
+        history.addAll(ours.subList(Math.min(baseHistorySize, ours.size()), ours.size()));
+
+        this.bonusHomes = Math.max(0, theirs.bonusHomes + bonusHomes - baseBonusHomes);
+        if (instantTeleport == baseInstantTeleport) {
+            this.instantTeleport = theirs.instantTeleport;
+        }
+        this.grantHistory = history;
+        this.version = theirs.version;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
     public List<GrantHistoryEntry> getGrantHistory() {
         if (grantHistory == null) {
             grantHistory = new ArrayList<>();
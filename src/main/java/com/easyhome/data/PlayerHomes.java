@@ -1,44 +1,330 @@
 package com.easyhome.data;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Stores all homes for a single player.
+ *
+ * Homes are held in an immutable snapshot that is replaced atomically on
+ * every change, so reads never lock and callers iterating getAllHomes()
+ * (such as the saver) always see one consistent version.
+ *
+ * The snapshot is a struct of arrays sorted by lowercase name: names,
+ * interned world IDs, packed coordinates and rotations. Home objects are
+ * only created when asked for, which keeps a stored home to a few array
+ * slots instead of a Home, a map entry and a duplicate key each.
  */
 public class PlayerHomes {
-    private final Map<String, Home> homes;
+    private static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new int[0], new double[0], new float[0]);
+
+    private final AtomicReference<Snapshot> homes;
 
     public PlayerHomes() {
-        this.homes = new HashMap<>();
+        this.homes = new AtomicReference<>(EMPTY);
+    }
+
+    /**
+     * Build a PlayerHomes from loaded homes in one step (no per-home copying).
+     */
+    static PlayerHomes of(Iterable<Home> loaded) {
+        Map<String, Home> sorted = new TreeMap<>();
+        for (Home home : loaded) {
+            sorted.put(key(home.getName()), home);
+        }
+        PlayerHomes homes = new PlayerHomes();
+        homes.homes.set(Snapshot.of(sorted));
+        return homes;
+    }
+
+    /**
+     * Swap in another set of homes in one step, keeping this object (and any
+     * references to it) valid. Used when the file was changed outside EasyHome.
+     */
+    void replaceWith(PlayerHomes other) {
+        homes.set(other.homes.get());
+    }
+
+    /**
+     * A copy of the current snapshot that later changes here do not affect.
+     * Costs one object, as snapshots are never modified.
+     */
+    PlayerHomes copy() {
+        PlayerHomes copy = new PlayerHomes();
+        copy.homes.set(homes.get());
+        return copy;
+    }
+
+    /**
+     * The current snapshot, for the home indexes.
+     */
+    Snapshot snapshot() {
+        return homes.get();
     }
 
+    /**
+     * True if nothing has changed here since the other was copied from it.
+     */
+    boolean sameAs(PlayerHomes other) {
+        return homes.get() == other.homes.get();
+    }
+
+    /**
+     * One binary search over the snapshot's sorted keys; only the match becomes a Home.
+     */
     public Home getHome(String name) {
-        return homes.get(name.toLowerCase());
+        Snapshot snapshot = homes.get();
+        int index = snapshot.indexOf(key(name));
+        return index >= 0 ? snapshot.home(index) : null;
     }
 
     public void setHome(Home home) {
-        homes.put(home.getName().toLowerCase(), home);
+        String key = key(home.getName());
+        update(current -> current.with(key, home));
     }
 
     public boolean removeHome(String name) {
-        return homes.remove(name.toLowerCase()) != null;
+        String key = key(name);
+        Snapshot before = update(current -> current.without(key));
+        return before.indexOf(key) >= 0;
     }
 
     public boolean hasHome(String name) {
-        return homes.containsKey(name.toLowerCase());
+        return homes.get().indexOf(key(name)) >= 0;
     }
 
     public int getHomeCount() {
-        return homes.size();
+        return homes.get().size();
     }
 
+    /**
+     * All homes in the current snapshot, sorted by name (read-only).
+     */
     public Collection<Home> getAllHomes() {
-        return homes.values();
+        Snapshot snapshot = homes.get();
+        List<Home> all = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            all.add(snapshot.home(i));
+        }
+        return Collections.unmodifiableList(all);
     }
 
+    /**
+     * The current snapshot, keyed by lowercase home name (read-only).
+     */
     public Map<String, Home> getHomesMap() {
-        return homes;
+        Snapshot snapshot = homes.get();
+        Map<String, Home> map = new LinkedHashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            map.put(snapshot.keys()[i], snapshot.home(i));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Names of homes starting with the given prefix (case-insensitive), in sorted order.
+     * Uses a binary search over the snapshot's sorted keys.
+     */
+    public List<String> getHomeNamesStartingWith(String prefix, int limit) {
+        Snapshot snapshot = homes.get();
+        String[] keys = snapshot.keys();
+        String lowered = key(prefix);
+
+        int index = Arrays.binarySearch(keys, lowered);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        List<String> names = new ArrayList<>();
+        for (; index < keys.length && names.size() < limit && keys[index].startsWith(lowered); index++) {
+            names.add(snapshot.names()[index]);
+        }
+        return names;
+    }
+
+    /**
+     * The closest home in the given world, or null if there are none there.
+     * Scans the packed arrays and only builds a Home for the winner.
+     */
+    public Home getNearestHome(String world, double x, double y, double z) {
+        int worldId = WorldNames.find(world);
+        if (worldId < 0) {
+            return null;
+        }
+
+        Snapshot snapshot = homes.get();
+        double[] positions = snapshot.positions();
+        int nearest = -1;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.worlds()[i] != worldId) {
+                continue;
+            }
+            double dx = positions[i * 3] - x;
+            double dy = positions[i * 3 + 1] - y;
+            double dz = positions[i * 3 + 2] - z;
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (distance < best) {
+                best = distance;
+                nearest = i;
+            }
+        }
+        return nearest >= 0 ? snapshot.home(nearest) : null;
+    }
+
+    /**
+     * All homes with those in the given world first, closest first,
+     * followed by homes in other worlds ordered by world and name.
+     * Sorts positions in the snapshot; a Home is only built for the
+     * elements read from the returned list, so showing one page is cheap.
+     */
+    public List<Home> getHomesByDistance(String world, double x, double y, double z) {
+        Snapshot snapshot = homes.get();
+        int worldId = WorldNames.find(world);
+        int size = snapshot.size();
+        double[] distances = new double[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            if (worldId >= 0 && snapshot.worlds()[i] == worldId) {
+                double dx = snapshot.positions()[i * 3] - x;
+                double dy = snapshot.positions()[i * 3 + 1] - y;
+                double dz = snapshot.positions()[i * 3 + 2] - z;
+                distances[i] = dx * dx + dy * dy + dz * dz;
+            } else {
+                distances[i] = Double.NaN;  // Other world
+            }
+        }
+        Arrays.sort(order, Comparator
+                .comparing((Integer i) -> Double.isNaN(distances[i]))
+                .thenComparingDouble(i -> Double.isNaN(distances[i]) ? 0 : distances[i])
+                .thenComparing(i -> WorldNames.name(snapshot.worlds()[i]), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(i -> snapshot.names()[i], String.CASE_INSENSITIVE_ORDER));
+
+        return new AbstractList<>() {
+            @Override
+            public Home get(int index) {
+                return snapshot.home(order[index]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Apply a change to the snapshot, retrying if another thread got there first.
+     *
+     * @return The snapshot the change was applied to
+     */
+    private Snapshot update(UnaryOperator<Snapshot> change) {
+        while (true) {
+            Snapshot current = homes.get();
+            Snapshot next = change.apply(current);
+            if (next == current || homes.compareAndSet(current, next)) {
+                return current;
+            }
+        }
+    }
+
+    static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One immutable version of a player's homes, sorted by key.
+     * Home i has coordinates at positions[3i..3i+2] and yaw/pitch at rotations[2i..2i+1].
+     * A key shares its String with the name when the name is already lowercase.
+     */
+    record Snapshot(String[] keys, String[] names, int[] worlds, double[] positions, float[] rotations) {
+        static Snapshot of(Map<String, Home> sorted) {
+            int size = sorted.size();
+            Snapshot snapshot = new Snapshot(new String[size], new String[size], new int[size],
+                    new double[size * 3], new float[size * 2]);
+            int i = 0;
+            for (Map.Entry<String, Home> entry : sorted.entrySet()) {
+                snapshot.write(i++, entry.getKey(), entry.getValue());
+            }
+            return snapshot;
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        int indexOf(String key) {
+            return Arrays.binarySearch(keys, key);
+        }
+
+        Home home(int i) {
+            return new Home(names[i], WorldNames.name(worlds[i]),
+                    positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2],
+                    rotations[i * 2], rotations[i * 2 + 1]);
+        }
+
+        Snapshot with(String key, Home home) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                Snapshot next = new Snapshot(keys.clone(), names.clone(), worlds.clone(), positions.clone(), rotations.clone());
+                next.write(index, key, home);
+                return next;
+            }
+
+            int at = -index - 1;
+            int size = size();
+            Snapshot next = new Snapshot(new String[size + 1], new String[size + 1], new int[size + 1],
+                    new double[(size + 1) * 3], new float[(size + 1) * 2]);
+            copy(this, 0, next, 0, at);
+            copy(this, at, next, at + 1, size - at);
+            next.write(at, key, home);
+            return next;
+        }
+
+        Snapshot without(String key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            int size = size();
+            Snapshot next = new Snapshot(new String[size - 1], new String[size - 1], new int[size - 1],
+                    new double[(size - 1) * 3], new float[(size - 1) * 2]);
+            copy(this, 0, next, 0, index);
+            copy(this, index + 1, next, index, size - index - 1);
+            return next;
+        }
+
+        // Only used while building a snapshot, before it is published
+        private void write(int i, String key, Home home) {
+            String name = home.getName();
+            keys[i] = key.equals(name) ? name : key;
+            names[i] = name;
+            worlds[i] = WorldNames.id(home.getWorld());
+            positions[i * 3] = home.getX();
+            positions[i * 3 + 1] = home.getY();
+            positions[i * 3 + 2] = home.getZ();
+            rotations[i * 2] = home.getYaw();
+            rotations[i * 2 + 1] = home.getPitch();
+        }
+
+        private static void copy(Snapshot from, int fromIndex, Snapshot to, int toIndex, int count) {
+            System.arraycopy(from.keys, fromIndex, to.keys, toIndex, count);
+            System.arraycopy(from.names, fromIndex, to.names, toIndex, count);
+            System.arraycopy(from.worlds, fromIndex, to.worlds, toIndex, count);
+            System.arraycopy(from.positions, fromIndex * 3, to.positions, toIndex * 3, count * 3);
+            System.arraycopy(from.rotations, fromIndex * 2, to.rotations, toIndex * 2, count * 2);
+        }
     }
 }
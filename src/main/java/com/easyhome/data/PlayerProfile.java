@@ -0,0 +1,33 @@
+package com.easyhome.data;
+
+/**
+ * All persistent state for a single player: homes, grants and last-known username.
+ * Used by ProfileStorage, which loads and saves it as one file.
+ */
+public class PlayerProfile {
+    private volatile String username;
+    private final PlayerHomes homes;
+    private final PlayerGrants grants;
+
+    public PlayerProfile(String username, PlayerHomes homes, PlayerGrants grants) {
+        this.username = username;
+        this.homes = homes;
+        this.grants = grants;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public PlayerHomes getHomes() {
+        return homes;
+    }
+
+    public PlayerGrants getGrants() {
+        return grants;
+    }
+}
@@ -0,0 +1,382 @@
+package com.easyhome.data;
+
+import com.easyhome.util.IoExecutor;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Unified per-player storage: homes, grants and username in one file.
+ * Profiles are stored in mods/cryptobench_EasyHome/profiles/<uuid>.json
+ *
+ * When enabled, HomeStorage and GrantStorage read and write through this
+ * class so a player's state is loaded and saved as a unit.
+ */
+public class ProfileStorage {
+    private final Path dataDirectory;
+    private final Path profilesDirectory;
+    private final Gson gson;
+    private final Map<UUID, PlayerProfile> cache;
+    // Checksum of each cached profile's file as last read or written, to skip unchanged saves
+    private final Map<UUID, Long> savedChecksums;
+
+    public ProfileStorage(Path dataDirectory) {
+        this.dataDirectory = dataDirectory;
+        this.profilesDirectory = dataDirectory.resolve("profiles");
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.cache = new ConcurrentHashMap<>();
+        this.savedChecksums = new ConcurrentHashMap<>();
+
+        try {
+            Files.createDirectories(profilesDirectory);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Get the profile for a player, loading from disk if not cached.
+     */
+    public PlayerProfile getProfile(UUID playerId) {
+        return cache.computeIfAbsent(playerId, id -> loadProfile(id, true));
+    }
+
+    /**
+     * Update the last-known username for a player.
+     */
+    public void updateUsername(UUID playerId, String username) {
+        getProfile(playerId).setUsername(username);
+    }
+
+    /**
+     * Get the profile for a player without adding it to the cache.
+     * Used by bulk scans that only need to look at the data once.
+     */
+    public PlayerProfile readProfile(UUID playerId) {
+        PlayerProfile cached = cache.get(playerId);
+        return cached != null ? cached : loadProfile(playerId, false);
+    }
+
+    public Path getProfilesDirectory() {
+        return profilesDirectory;
+    }
+
+    private PlayerProfile loadProfile(UUID playerId, boolean caching) {
+        Path file = profilesDirectory.resolve(playerId.toString() + ".json");
+
+        if (Files.exists(file)) {
+            try {
+                String json = Files.readString(file);
+                ProfileData data = gson.fromJson(json, ProfileData.class);
+                if (caching) {
+                    savedChecksums.put(playerId, checksum(json));
+                }
+                if (data != null) {
+                    return toProfile(data);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return new PlayerProfile(null, new PlayerHomes(), new PlayerGrants());
+    }
+
+    /**
+     * Save the profile for a specific player.
+     */
+    public void saveProfile(UUID playerId) {
+        PlayerProfile profile = cache.get(playerId);
+        if (profile == null) return;
+
+        write(playerId, profile);
+    }
+
+    /**
+     * Save all cached profiles to disk, skipping any that match their file.
+     */
+    public void saveAll() {
+        for (UUID playerId : cache.keySet()) {
+            saveProfile(playerId);
+        }
+    }
+
+    /**
+     * Scan all profile files and return username mappings.
+     */
+    public Map<UUID, String> scanForUsernames() {
+        Map<UUID, String> mappings = new HashMap<>();
+
+        try (Stream<Path> files = Files.list(profilesDirectory)) {
+            files.filter(p -> p.toString().endsWith(".json"))
+                 .forEach(file -> {
+                     try {
+                         String filename = file.getFileName().toString();
+                         UUID uuid = UUID.fromString(filename.replace(".json", ""));
+
+                         ProfileData data = gson.fromJson(Files.readString(file), ProfileData.class);
+                         if (data != null && data.username != null && !data.username.isEmpty()) {
+                             mappings.put(uuid, data.username);
+                         }
+                     } catch (Exception ignored) {
+                         // Skip invalid files
+                     }
+                 });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return mappings;
+    }
+
+    /**
+     * Build profiles from the legacy homes/, grants/ and player_cache.json stores.
+     * Players without a profile are migrated, and so are players whose legacy
+     * file is newer than their profile (changed while profiles were turned
+     * off). Legacy files are left in place as a backup.
+     *
+     * @return Number of profiles created or refreshed
+     */
+    public int migrateLegacy(PlayerCache playerCache, IoExecutor io) {
+        Path homesDirectory = dataDirectory.resolve("homes");
+        Path grantsDirectory = dataDirectory.resolve("grants");
+
+        Set<UUID> playerIds = new LinkedHashSet<>();
+        playerIds.addAll(HomeStorage.listPlayerIds(homesDirectory));
+        playerIds.addAll(HomeStorage.listPlayerIds(grantsDirectory));
+
+        List<CompletableFuture<Boolean>> tasks = new ArrayList<>();
+        for (UUID playerId : playerIds) {
+            tasks.add(io.supply(() -> migratePlayer(playerId, homesDirectory, grantsDirectory, playerCache)));
+        }
+
+        return countTrue(tasks);
+    }
+
+    /**
+     * Copy profiles changed while unified profiles were on back to homes/ and
+     * grants/, so turning them off does not bring back older legacy files.
+     * Only files older than the player's profile are written.
+     *
+     * @return Number of players written
+     */
+    public static int exportToLegacy(Path dataDirectory, IoExecutor io) {
+        Path profilesDirectory = dataDirectory.resolve("profiles");
+        if (!Files.isDirectory(profilesDirectory)) {
+            return 0;
+        }
+
+        Path homesDirectory = dataDirectory.resolve("homes");
+        Path grantsDirectory = dataDirectory.resolve("grants");
+        try {
+            Files.createDirectories(homesDirectory);
+            Files.createDirectories(grantsDirectory);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        List<CompletableFuture<Boolean>> tasks = new ArrayList<>();
+        for (UUID playerId : HomeStorage.listPlayerIds(profilesDirectory)) {
+            tasks.add(io.supply(() -> exportPlayer(gson, playerId, profilesDirectory, homesDirectory, grantsDirectory)));
+        }
+        return countTrue(tasks);
+    }
+
+    private static int countTrue(List<CompletableFuture<Boolean>> tasks) {
+        int count = 0;
+        for (CompletableFuture<Boolean> task : tasks) {
+            if (task.join()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean migratePlayer(UUID playerId, Path homesDirectory, Path grantsDirectory, PlayerCache playerCache) {
+        String filename = playerId.toString() + ".json";
+        Path profileFile = profilesDirectory.resolve(filename);
+        Path homesFile = homesDirectory.resolve(filename);
+        Path grantsFile = grantsDirectory.resolve(filename);
+
+        ProfileData data = new ProfileData();
+        FileTime sourceTime;
+        try {
+            FileTime profileTime = modifiedTime(profileFile);
+            boolean homesNewer = isNewer(homesFile, profileTime);
+            boolean grantsNewer = isNewer(grantsFile, profileTime);
+            if (!homesNewer && !grantsNewer) {
+                return false;
+            }
+
+            // Keep whichever half of an existing profile the legacy files don't replace
+            if (profileTime != null) {
+                ProfileData existing = gson.fromJson(Files.readString(profileFile), ProfileData.class);
+                if (existing != null) {
+                    data = existing;
+                }
+            }
+
+            if (homesNewer) {
+                HomeStorage.HomeData homes = gson.fromJson(Files.readString(homesFile), HomeStorage.HomeData.class);
+                if (homes != null) {
+                    if (homes.username != null && !homes.username.isEmpty()) {
+                        data.username = homes.username;
+                    }
+                    data.homes = homes.homes;
+                }
+            }
+
+            if (grantsNewer) {
+                data.grants = gson.fromJson(Files.readString(grantsFile), PlayerGrants.class);
+            }
+            sourceTime = latest(homesNewer ? modifiedTime(homesFile) : null, grantsNewer ? modifiedTime(grantsFile) : null);
+        } catch (Exception e) {
+            // Leave unreadable players on the legacy files rather than losing data
+            e.printStackTrace();
+            return false;
+        }
+
+        if (data.username == null || data.username.isEmpty()) {
+            data.username = playerCache.getUsername(playerId);
+        }
+
+        try {
+            Files.writeString(profileFile, gson.toJson(data));
+            // Same time as the source, so the next sync sees nothing newer on either side
+            Files.setLastModifiedTime(profileFile, sourceTime);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean exportPlayer(Gson gson, UUID playerId, Path profilesDirectory,
+                                        Path homesDirectory, Path grantsDirectory) {
+        String filename = playerId.toString() + ".json";
+        Path profileFile = profilesDirectory.resolve(filename);
+        Path homesFile = homesDirectory.resolve(filename);
+        Path grantsFile = grantsDirectory.resolve(filename);
+
+        try {
+            FileTime profileTime = modifiedTime(profileFile);
+            boolean homesOlder = isNewer(profileFile, modifiedTime(homesFile));
+            boolean grantsOlder = isNewer(profileFile, modifiedTime(grantsFile));
+            if (profileTime == null || (!homesOlder && !grantsOlder)) {
+                return false;
+            }
+
+            ProfileData data = gson.fromJson(Files.readString(profileFile), ProfileData.class);
+            if (data == null) {
+                return false;
+            }
+
+            if (homesOlder) {
+                HomeStorage.HomeData homes = new HomeStorage.HomeData();
+                homes.version = legacyVersion(gson, homesFile, HomeStorage.HomeData.class) + 1;
+                homes.username = data.username;
+                homes.homes = data.homes;
+                Files.writeString(homesFile, gson.toJson(homes));
+                Files.setLastModifiedTime(homesFile, profileTime);
+            }
+
+            // A player who never had grants doesn't need a grants file
+            if (grantsOlder && data.grants != null) {
+                data.grants.setVersion(legacyVersion(gson, grantsFile, PlayerGrants.class) + 1);
+                Files.writeString(grantsFile, gson.toJson(data.grants));
+                Files.setLastModifiedTime(grantsFile, profileTime);
+            }
+            return true;
+        } catch (Exception e) {
+            // Leave the legacy files as they are rather than half-writing a player
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Version of an existing legacy file, so exported files look like a newer save
+    private static <T> long legacyVersion(Gson gson, Path file, Class<T> type) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        T data = gson.fromJson(Files.readString(file), type);
+        if (data instanceof HomeStorage.HomeData homes) {
+            return homes.version;
+        }
+        return data instanceof PlayerGrants grants ? grants.getVersion() : 0;
+    }
+
+    private static FileTime latest(FileTime a, FileTime b) {
+        return a == null ? b : b == null || a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static FileTime modifiedTime(Path file) throws IOException {
+        return Files.exists(file) ? Files.getLastModifiedTime(file) : null;
+    }
+
+    // True if the file exists and was modified after the given time (or there is no time to compare)
+    private static boolean isNewer(Path file, FileTime than) throws IOException {
+        return Files.exists(file) && (than == null || Files.getLastModifiedTime(file).compareTo(than) > 0);
+    }
+
+    private void write(UUID playerId, PlayerProfile profile) {
+        Path file = profilesDirectory.resolve(playerId.toString() + ".json");
+
+        // Lock order matches GrantStorage (grants first), one writer per file
+        synchronized (profile.getGrants()) {
+            synchronized (profile) {
+                ProfileData data = new ProfileData();
+                data.username = profile.getUsername();
+                data.homes = HomeStorage.toHomeJson(profile.getHomes());
+                data.grants = profile.getGrants();
+
+                String json = gson.toJson(data);
+                long checksum = checksum(json);
+                Long saved = savedChecksums.get(playerId);
+                if (saved != null && saved == checksum) {
+                    return;
+                }
+
+                try {
+                    Files.writeString(file, json);
+                    savedChecksums.put(playerId, checksum);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static long checksum(String json) {
+        return DataFileWatcher.checksum(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PlayerProfile toProfile(ProfileData data) {
+        PlayerHomes homes = HomeStorage.toPlayerHomes(data.homes);
+        PlayerGrants grants = data.grants != null ? data.grants : new PlayerGrants();
+        return new PlayerProfile(data.username, homes, grants);
+    }
+
+    private static class ProfileData {
+        String username;
+        Map<String, HomeStorage.HomeJson> homes;
+        PlayerGrants grants;
+    }
+}
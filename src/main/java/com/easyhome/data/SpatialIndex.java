@@ -0,0 +1,255 @@
+package com.easyhome.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory spatial index of homes, one uniform grid per world.
+ *
+ * Homes are bucketed into square cells on the X/Z plane. Region queries
+ * only visit the cells overlapping the region, so lookup cost depends on
+ * the area asked for, not on how many homes the server has.
+ *
+ * Each player's homes are indexed as a whole from their PlayerHomes
+ * snapshot. A cell only holds, per home, the owner, the snapshot and the
+ * home's position in it, so an indexed home costs three array slots and
+ * shares everything else with the player's cached homes.
+ */
+public class SpatialIndex {
+    // Cell edge length is 1 << CELL_SHIFT blocks
+    private static final int CELL_SHIFT = 6;
+    private static final PlayerHomes.Snapshot NONE = new PlayerHomes().snapshot();
+
+    private final Map<String, Map<Long, Cell>> worlds;
+    private final Map<UUID, PlayerHomes.Snapshot> indexed;
+    private final AtomicInteger size;
+    private final Object[] locks;  // Striped so one player's update is applied as a whole
+
+    public SpatialIndex() {
+        this.worlds = new ConcurrentHashMap<>();
+        this.indexed = new ConcurrentHashMap<>();
+        this.size = new AtomicInteger();
+        this.locks = new Object[64];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Index a player's current homes, replacing whatever was indexed for them before.
+     */
+    public void update(UUID owner, PlayerHomes homes) {
+        PlayerHomes.Snapshot next = homes.snapshot();
+        synchronized (lockFor(owner)) {
+            PlayerHomes.Snapshot previous = indexed.getOrDefault(owner, NONE);
+            if (previous == next) {
+                return;
+            }
+            apply(owner, previous, next);
+            if (next.size() == 0) {
+                indexed.remove(owner);
+            } else {
+                indexed.put(owner, next);
+            }
+        }
+    }
+
+    /**
+     * Remove all of a player's homes from the index.
+     */
+    public void removePlayer(UUID owner) {
+        synchronized (lockFor(owner)) {
+            PlayerHomes.Snapshot previous = indexed.remove(owner);
+            if (previous != null) {
+                apply(owner, previous, NONE);
+            }
+        }
+    }
+
+    /**
+     * All homes in a world whose X/Z lies inside the given box (inclusive).
+     */
+    public List<Entry> queryRegion(String world, double minX, double minZ, double maxX, double maxZ) {
+        List<Entry> results = new ArrayList<>();
+        Map<Long, Cell> cells = worlds.get(world);
+        if (cells == null) {
+            return results;
+        }
+
+        double lowX = Math.min(minX, maxX), highX = Math.max(minX, maxX);
+        double lowZ = Math.min(minZ, maxZ), highZ = Math.max(minZ, maxZ);
+        long cx0 = cell(lowX), cx1 = cell(highX);
+        long cz0 = cell(lowZ), cz1 = cell(highZ);
+
+        // Very large regions: walking every populated cell is cheaper than walking empty grid.
+        // Area in double so huge coordinates can't overflow into a tiny (or negative) cell count.
+        double area = ((double) cx1 - cx0 + 1) * ((double) cz1 - cz0 + 1);
+        if (!(area <= cells.size())) {
+            for (Cell cell : cells.values()) {
+                cell.collect(world, lowX, lowZ, highX, highZ, results);
+            }
+            return results;
+        }
+
+        for (long cx = cx0; cx <= cx1; cx++) {
+            for (long cz = cz0; cz <= cz1; cz++) {
+                Cell cell = cells.get(pack(cx, cz));
+                if (cell != null) {
+                    cell.collect(world, lowX, lowZ, highX, highZ, results);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Total number of indexed homes.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    // Walk both snapshots in key order. Every home moves to the new snapshot,
+    // in place when it stays in the same cell.
+    private void apply(UUID owner, PlayerHomes.Snapshot before, PlayerHomes.Snapshot after) {
+        String[] oldKeys = before.keys();
+        String[] newKeys = after.keys();
+        int i = 0, j = 0;
+        while (i < oldKeys.length || j < newKeys.length) {
+            int order = i == oldKeys.length ? 1 : j == newKeys.length ? -1 : oldKeys[i].compareTo(newKeys[j]);
+            if (order < 0) {
+                unlink(owner, before, i++);
+            } else if (order > 0) {
+                link(owner, after, j++);
+            } else if (before.worlds()[i] == after.worlds()[j] && cellKey(before, i) == cellKey(after, j)) {
+                relink(owner, before, i++, after, j++);
+            } else {
+                unlink(owner, before, i++);
+                link(owner, after, j++);
+            }
+        }
+        size.addAndGet(after.size() - before.size());
+    }
+
+    private void link(UUID owner, PlayerHomes.Snapshot homes, int i) {
+        String world = WorldNames.name(homes.worlds()[i]);
+        if (world == null) {
+            return;
+        }
+        worlds.computeIfAbsent(world, w -> new ConcurrentHashMap<>())
+              .compute(cellKey(homes, i), (k, cell) -> (cell != null ? cell : Cell.EMPTY).with(owner, homes, i));
+    }
+
+    private void unlink(UUID owner, PlayerHomes.Snapshot homes, int i) {
+        Map<Long, Cell> cells = worlds.get(WorldNames.name(homes.worlds()[i]));
+        if (cells != null) {
+            cells.computeIfPresent(cellKey(homes, i), (k, cell) -> cell.without(owner, homes, i));
+        }
+    }
+
+    private void relink(UUID owner, PlayerHomes.Snapshot before, int i, PlayerHomes.Snapshot after, int j) {
+        Map<Long, Cell> cells = worlds.get(WorldNames.name(before.worlds()[i]));
+        if (cells != null) {
+            cells.computeIfPresent(cellKey(before, i), (k, cell) -> cell.replace(owner, before, i, after, j));
+        }
+    }
+
+    private Object lockFor(UUID owner) {
+        return locks[(owner.hashCode() & 0x7fffffff) % locks.length];
+    }
+
+    private static long cell(double coordinate) {
+        return ((long) Math.floor(coordinate)) >> CELL_SHIFT;
+    }
+
+    private static long cellKey(PlayerHomes.Snapshot homes, int i) {
+        return pack(cell(homes.positions()[i * 3]), cell(homes.positions()[i * 3 + 2]));
+    }
+
+    private static long pack(long cx, long cz) {
+        return (cx << 32) ^ (cz & 0xffffffffL);
+    }
+
+    /**
+     * The homes in one cell: home i is homes[i].home(indexes[i]), owned by owners[i].
+     * Never modified; changes build a new cell.
+     */
+    private record Cell(UUID[] owners, PlayerHomes.Snapshot[] homes, int[] indexes) {
+        static final Cell EMPTY = new Cell(new UUID[0], new PlayerHomes.Snapshot[0], new int[0]);
+
+        Cell with(UUID owner, PlayerHomes.Snapshot snapshot, int index) {
+            int size = owners.length;
+            Cell next = new Cell(Arrays.copyOf(owners, size + 1), Arrays.copyOf(homes, size + 1),
+                    Arrays.copyOf(indexes, size + 1));
+            next.owners[size] = owner;
+            next.homes[size] = snapshot;
+            next.indexes[size] = index;
+            return next;
+        }
+
+        // Null once the cell is empty, which drops it from the grid
+        Cell without(UUID owner, PlayerHomes.Snapshot snapshot, int index) {
+            int at = find(owner, snapshot, index);
+            int size = owners.length;
+            if (at < 0) {
+                return this;
+            }
+            if (size == 1) {
+                return null;
+            }
+            Cell next = new Cell(new UUID[size - 1], new PlayerHomes.Snapshot[size - 1], new int[size - 1]);
+            System.arraycopy(owners, 0, next.owners, 0, at);
+            System.arraycopy(owners, at + 1, next.owners, at, size - at - 1);
+            System.arraycopy(homes, 0, next.homes, 0, at);
+            System.arraycopy(homes, at + 1, next.homes, at, size - at - 1);
+            System.arraycopy(indexes, 0, next.indexes, 0, at);
+            System.arraycopy(indexes, at + 1, next.indexes, at, size - at - 1);
+            return next;
+        }
+
+        Cell replace(UUID owner, PlayerHomes.Snapshot snapshot, int index, PlayerHomes.Snapshot with, int withIndex) {
+            int at = find(owner, snapshot, index);
+            if (at < 0) {
+                return with(owner, with, withIndex);
+            }
+            Cell next = new Cell(owners, homes.clone(), indexes.clone());
+            next.homes[at] = with;
+            next.indexes[at] = withIndex;
+            return next;
+        }
+
+        void collect(String world, double lowX, double lowZ, double highX, double highZ, List<Entry> results) {
+            for (int i = 0; i < owners.length; i++) {
+                double[] positions = homes[i].positions();
+                int at = indexes[i] * 3;
+                double x = positions[at], z = positions[at + 2];
+                if (x >= lowX && x <= highX && z >= lowZ && z <= highZ) {
+                    results.add(new Entry(owners[i], homes[i].names()[indexes[i]], world, x, positions[at + 1], z));
+                }
+            }
+        }
+
+        private int find(UUID owner, PlayerHomes.Snapshot snapshot, int index) {
+            for (int i = 0; i < owners.length; i++) {
+                if (homes[i] == snapshot && indexes[i] == index && owners[i].equals(owner)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * An indexed home and the player it belongs to.
+     */
+    public record Entry(UUID owner, String name, String world, double x, double y, double z) {
+        public String getFormattedLocation() {
+            return String.format("%s: %.0f, %.0f, %.0f", world, x, y, z);
+        }
+    }
+}
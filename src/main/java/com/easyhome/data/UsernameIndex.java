@@ -0,0 +1,255 @@
+package com.easyhome.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Sorted array of lowercase usernames for completion and "did you mean"
+ * suggestions, plus the same names bucketed by length so fuzzy matching
+ * only compares names of a similar length.
+ *
+ * Single joins and renames are applied in place with a binary search and
+ * one array copy. Bulk loads only mark the arrays stale, and the next query
+ * re-sorts everything from the source once.
+ */
+public class UsernameIndex {
+    // Largest edit distance still offered as a "did you mean" suggestion
+    private static final int MAX_SUGGESTION_DISTANCE = 2;
+    // Names this long or longer share the last length bucket
+    private static final int LONGEST_BUCKET = 32;
+
+    private final Supplier<Collection<String>> source;
+    private volatile String[] sorted;
+    private volatile String[][] byLength;  // Sorted names of each length
+    private volatile boolean stale;
+
+    /**
+     * @param source Supplies the current lowercase usernames when a rebuild is needed
+     */
+    public UsernameIndex(Supplier<Collection<String>> source) {
+        this.source = source;
+        this.sorted = new String[0];
+        this.byLength = bucket(this.sorted);
+        this.stale = true;
+    }
+
+    /**
+     * Mark the index out of date. Call after many usernames are added or removed at once.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Add one lowercase username, keeping the array sorted.
+     */
+    public synchronized void add(String lowered) {
+        if (stale) {
+            return;  // The next rebuild reads it from the source
+        }
+        String[] names = inserted(sorted, lowered);
+        if (names == null) {
+            return;
+        }
+        String[][] buckets = byLength.clone();
+        int bucket = bucketOf(lowered);
+        buckets[bucket] = inserted(buckets[bucket], lowered);
+        sorted = names;
+        byLength = buckets;
+    }
+
+    /**
+     * Remove one lowercase username.
+     */
+    public synchronized void remove(String lowered) {
+        if (stale) {
+            return;
+        }
+        String[] names = removed(sorted, lowered);
+        if (names == null) {
+            return;
+        }
+        String[][] buckets = byLength.clone();
+        int bucket = bucketOf(lowered);
+        buckets[bucket] = removed(buckets[bucket], lowered);
+        sorted = names;
+        byLength = buckets;
+    }
+
+    // A copy of the sorted array with the name added, or null if it is already there
+    private static String[] inserted(String[] names, String lowered) {
+        int index = Arrays.binarySearch(names, lowered);
+        if (index >= 0) {
+            return null;
+        }
+        int at = -index - 1;
+        String[] next = new String[names.length + 1];
+        System.arraycopy(names, 0, next, 0, at);
+        next[at] = lowered;
+        System.arraycopy(names, at, next, at + 1, names.length - at);
+        return next;
+    }
+
+    // A copy of the sorted array without the name, or null if it isn't there
+    private static String[] removed(String[] names, String lowered) {
+        int at = Arrays.binarySearch(names, lowered);
+        if (at < 0) {
+            return null;
+        }
+        String[] next = new String[names.length - 1];
+        System.arraycopy(names, 0, next, 0, at);
+        System.arraycopy(names, at + 1, next, at, names.length - at - 1);
+        return next;
+    }
+
+    /**
+     * Lowercase usernames starting with the given prefix, in sorted order.
+     */
+    public List<String> startingWith(String prefix, int limit) {
+        String[] names = current();
+        String lowered = prefix.toLowerCase();
+
+        int index = Arrays.binarySearch(names, lowered);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (; index < names.length && matches.size() < limit && names[index].startsWith(lowered); index++) {
+            matches.add(names[index]);
+        }
+        return matches;
+    }
+
+    /**
+     * Lowercase usernames close to the input: prefix matches first, then
+     * names within a small edit distance, closest first.
+     */
+    public List<String> suggest(String input, int limit) {
+        List<String> matches = startingWith(input, limit);
+        if (!matches.isEmpty()) {
+            return matches;
+        }
+
+        String lowered = input.toLowerCase();
+        current();
+        String[][] buckets = byLength;
+
+        // Names found at each distance, alphabetical within a length
+        List<List<String>> found = new ArrayList<>();
+        for (int distance = 0; distance <= MAX_SUGGESTION_DISTANCE; distance++) {
+            found.add(new ArrayList<>());
+        }
+        int[] previous = new int[LONGEST_BUCKET + MAX_SUGGESTION_DISTANCE + 1];
+        int[] current = new int[previous.length];
+        int max = MAX_SUGGESTION_DISTANCE;
+        int count = 0;
+
+        // Only names whose length is within the distance can be close enough
+        int from = Math.max(0, lowered.length() - MAX_SUGGESTION_DISTANCE);
+        int to = Math.min(buckets.length - 1, lowered.length() + MAX_SUGGESTION_DISTANCE);
+        for (int length = from; length <= to; length++) {
+            for (String name : buckets[length]) {
+                if (name.length() + 1 > previous.length) {
+                    previous = new int[name.length() + 1];
+                    current = new int[previous.length];
+                }
+                int distance = editDistance(lowered, name, max, previous, current);
+                if (distance > max) {
+                    continue;
+                }
+                found.get(distance).add(name);
+                count++;
+                // Enough names this close: stop looking for further ones
+                while (max > 0 && count - found.get(max).size() >= limit) {
+                    count -= found.get(max).size();
+                    found.get(max).clear();
+                    max--;
+                }
+            }
+        }
+
+        List<String> close = new ArrayList<>();
+        for (List<String> names : found) {
+            names.sort(null);
+            for (String name : names) {
+                if (close.size() >= limit) {
+                    return close;
+                }
+                close.add(name);
+            }
+        }
+        return close;
+    }
+
+    public int size() {
+        return current().length;
+    }
+
+    private String[] current() {
+        if (stale) {
+            synchronized (this) {
+                if (stale) {
+                    stale = false;
+                    String[] names = source.get().toArray(new String[0]);
+                    Arrays.sort(names);
+                    byLength = bucket(names);
+                    sorted = names;
+                }
+            }
+        }
+        return sorted;
+    }
+
+    private static int bucketOf(String name) {
+        return Math.min(name.length(), LONGEST_BUCKET);
+    }
+
+    // The sorted names split by length, each bucket still sorted
+    private static String[][] bucket(String[] names) {
+        int[] sizes = new int[LONGEST_BUCKET + 1];
+        for (String name : names) {
+            sizes[bucketOf(name)]++;
+        }
+        String[][] buckets = new String[LONGEST_BUCKET + 1][];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new String[sizes[i]];
+            sizes[i] = 0;
+        }
+        for (String name : names) {
+            int bucket = bucketOf(name);
+            buckets[bucket][sizes[bucket]++] = name;
+        }
+        return buckets;
+    }
+
+    /**
+     * Levenshtein distance, giving up early once every path exceeds max.
+     * The two rows are scratch space at least b.length() + 1 long.
+     */
+    private static int editDistance(String a, String b, int max, int[] previous, int[] current) {
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return rowMin;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,134 @@
+package com.easyhome.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Secondary index of homes by world: world -> players -> home names.
+ * Lets admin tools find every home in a world without opening player files.
+ *
+ * A player's names in a world are one array sharing the name Strings of
+ * their PlayerHomes snapshot, rebuilt from the snapshot when it changes.
+ */
+public class WorldIndex {
+    private final Map<String, WorldEntry> worlds;
+    private final Object[] locks;  // Striped so one player's update is applied as a whole
+
+    public WorldIndex() {
+        this.worlds = new ConcurrentHashMap<>();
+        this.locks = new Object[64];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Index a player's current homes, replacing whatever was indexed for them before.
+     */
+    public void update(UUID owner, PlayerHomes homes) {
+        PlayerHomes.Snapshot snapshot = homes.snapshot();
+        Map<String, List<String>> byWorld = new HashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            String world = WorldNames.name(snapshot.worlds()[i]);
+            if (world != null) {
+                byWorld.computeIfAbsent(world, w -> new ArrayList<>()).add(snapshot.names()[i]);
+            }
+        }
+
+        synchronized (lockFor(owner)) {
+            for (Map.Entry<String, WorldEntry> entry : worlds.entrySet()) {
+                if (!byWorld.containsKey(entry.getKey())) {
+                    entry.getValue().set(owner, null);
+                }
+            }
+            for (Map.Entry<String, List<String>> entry : byWorld.entrySet()) {
+                worlds.computeIfAbsent(entry.getKey(), w -> new WorldEntry())
+                      .set(owner, entry.getValue().toArray(String[]::new));
+            }
+        }
+    }
+
+    /**
+     * Remove all of a player's homes from every world.
+     */
+    public void removePlayer(UUID owner) {
+        synchronized (lockFor(owner)) {
+            for (WorldEntry entry : worlds.values()) {
+                entry.set(owner, null);
+            }
+        }
+    }
+
+    /**
+     * Players with at least one home in a world.
+     */
+    public Set<UUID> getPlayers(String world) {
+        WorldEntry entry = worlds.get(world);
+        return entry != null ? Set.copyOf(entry.players.keySet()) : Set.of();
+    }
+
+    /**
+     * Names of a player's homes in a world.
+     */
+    public List<String> getHomeNames(String world, UUID owner) {
+        WorldEntry entry = worlds.get(world);
+        if (entry == null) {
+            return List.of();
+        }
+        String[] names = entry.players.get(owner);
+        return names != null ? List.of(names) : List.of();
+    }
+
+    public int countHomes(String world) {
+        WorldEntry entry = worlds.get(world);
+        return entry != null ? entry.homeCount.get() : 0;
+    }
+
+    public int countPlayers(String world) {
+        WorldEntry entry = worlds.get(world);
+        return entry != null ? entry.players.size() : 0;
+    }
+
+    /**
+     * Home counts for every world that has homes.
+     */
+    public Map<String, Integer> getWorldCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, WorldEntry> entry : worlds.entrySet()) {
+            int count = entry.getValue().homeCount.get();
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    public Collection<String> getWorlds() {
+        return worlds.keySet();
+    }
+
+    private Object lockFor(UUID owner) {
+        return locks[(owner.hashCode() & 0x7fffffff) % locks.length];
+    }
+
+    private static class WorldEntry {
+        final Map<UUID, String[]> players = new ConcurrentHashMap<>();
+        final AtomicInteger homeCount = new AtomicInteger();
+
+        // Null or no names removes the player from this world
+        void set(UUID owner, String[] names) {
+            String[] previous = names != null && names.length > 0 ? players.put(owner, names) : players.remove(owner);
+            int added = (names != null ? names.length : 0) - (previous != null ? previous.length : 0);
+            if (added != 0) {
+                homeCount.addAndGet(added);
+            }
+        }
+    }
+}
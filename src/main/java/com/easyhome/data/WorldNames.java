@@ -0,0 +1,69 @@
+package com.easyhome.data;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned world names. Each distinct world gets a small integer ID and a
+ * single shared String, so a million homes in a handful of worlds don't
+ * carry a million copies of the world name.
+ *
+ * IDs are never reused or removed; servers only ever have a few worlds.
+ */
+final class WorldNames {
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[8];
+    private static int count;
+
+    private WorldNames() {
+    }
+
+    /**
+     * The ID for a world, registering it if new. Null maps to -1.
+     */
+    static int id(String world) {
+        if (world == null) {
+            return -1;
+        }
+        Integer id = ids.get(world);
+        return id != null ? id : register(world);
+    }
+
+    /**
+     * The ID for a world, or -1 if no home has ever used it.
+     */
+    static int find(String world) {
+        Integer id = world != null ? ids.get(world) : null;
+        return id != null ? id : -1;
+    }
+
+    /**
+     * The shared name for an ID, or null for -1.
+     */
+    static String name(int id) {
+        return id < 0 ? null : names[id];
+    }
+
+    /**
+     * The shared instance of a world name.
+     */
+    static String intern(String world) {
+        return name(id(world));
+    }
+
+    private static synchronized int register(String world) {
+        Integer existing = ids.get(world);
+        if (existing != null) {
+            return existing;
+        }
+        if (count == names.length) {
+            names = Arrays.copyOf(names, count * 2);
+        }
+        int id = count++;
+        names[id] = world;
+        // Publishing the ID last means any reader that finds it also sees the name
+        ids.put(world, id);
+        return id;
+    }
+}
@@ -0,0 +1,9 @@
+package com.easyhome.event;
+
+import java.util.UUID;
+
+/**
+ * A player's grants changed. Holds the values after the change.
+ */
+public record GrantChangedEvent(UUID playerId, int bonusHomes, boolean instantTeleport) implements HomeEvent {
+}
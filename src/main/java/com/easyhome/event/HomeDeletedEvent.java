@@ -0,0 +1,11 @@
+package com.easyhome.event;
+
+import com.easyhome.data.Home;
+
+import java.util.UUID;
+
+/**
+ * A home was deleted, by its owner or by an admin world purge.
+ */
+public record HomeDeletedEvent(UUID playerId, Home home) implements HomeEvent {
+}
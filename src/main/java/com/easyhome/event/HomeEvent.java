@@ -0,0 +1,11 @@
+package com.easyhome.event;
+
+import java.util.UUID;
+
+/**
+ * A change to a player's homes or grants, delivered to HomeEventListeners.
+ */
+public sealed interface HomeEvent permits HomeSetEvent, HomeDeletedEvent, GrantChangedEvent {
+
+    UUID playerId();
+}
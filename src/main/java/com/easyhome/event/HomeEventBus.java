@@ -0,0 +1,136 @@
+package com.easyhome.event;
+
+import com.easyhome.util.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers home and grant changes to other plugins.
+ *
+ * post() only queues the event, so storage and commands never wait on
+ * listeners. A single background thread collects whatever arrived within a
+ * short window and hands it to every listener as one batch, so a burst such
+ * as a world purge becomes a few calls instead of thousands.
+ *
+ * With no listeners registered, post() returns without queueing anything.
+ */
+public class HomeEventBus {
+    private static final LongAdder EVENTS_DISPATCHED = Metrics.get().counter("events.dispatched");
+    private static final LongAdder EVENTS_DROPPED = Metrics.get().counter("events.dropped");
+
+    // How long to wait for more events before dispatching a batch
+    private static final long BATCH_DELAY_MILLIS = 50;
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    // Events beyond this are dropped rather than letting a stuck listener grow the heap
+    private static final int MAX_PENDING = 100_000;
+
+    private final List<HomeEventListener> listeners;
+    private final Queue<HomeEvent> pending;
+    private final AtomicInteger pendingCount;
+    private final AtomicBoolean scheduled;
+    private final ScheduledExecutorService dispatcher;
+
+    public HomeEventBus() {
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.pendingCount = new AtomicInteger();
+        this.scheduled = new AtomicBoolean(false);
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EasyHome-Events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void register(HomeEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unregister(HomeEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queue an event for the next batch. Never blocks.
+     */
+    public void post(HomeEvent event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            EVENTS_DROPPED.increment();
+            return;
+        }
+        pending.add(event);
+        schedule();
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Deliver anything still queued, then stop the dispatch thread.
+     */
+    public void shutdown() {
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dispatch();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.schedule(this::dispatch, BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Shutting down; shutdown() delivers what is left
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void dispatch() {
+        scheduled.set(false);
+        while (true) {
+            List<HomeEvent> batch = new ArrayList<>(Math.min(pendingCount.get(), MAX_BATCH_SIZE));
+            HomeEvent event;
+            while (batch.size() < MAX_BATCH_SIZE && (event = pending.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pendingCount.addAndGet(-batch.size());
+            deliver(List.copyOf(batch));
+        }
+    }
+
+    private void deliver(List<HomeEvent> batch) {
+        long start = System.nanoTime();
+        for (HomeEventListener listener : listeners) {
+            try {
+                listener.onEvents(batch);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        EVENTS_DISPATCHED.add(batch.size());
+        Metrics.get().recordSince("events.dispatch", start);
+    }
+}
@@ -0,0 +1,16 @@
+package com.easyhome.event;
+
+import java.util.List;
+
+/**
+ * Receives home and grant changes in batches, in the order they happened.
+ *
+ * Called on EasyHome's event thread, never on a world or command thread.
+ * Listeners should return quickly; a slow listener delays later batches
+ * but never the commands that caused them.
+ */
+@FunctionalInterface
+public interface HomeEventListener {
+
+    void onEvents(List<HomeEvent> events);
+}
@@ -0,0 +1,17 @@
+package com.easyhome.event;
+
+import com.easyhome.data.Home;
+
+import java.util.UUID;
+
+/**
+ * A home was created, or an existing home was moved.
+ *
+ * @param previous The home it replaced, or null if it is new
+ */
+public record HomeSetEvent(UUID playerId, Home home, Home previous) implements HomeEvent {
+
+    public boolean isNew() {
+        return previous == null;
+    }
+}
@@ -0,0 +1,212 @@
+package com.easyhome.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks per-player teleport cooldowns.
+ *
+ * Entries live in an open-addressing table keyed by the two halves of the
+ * player UUID, with a parallel array of expiry timestamps. There are no
+ * scheduled tasks: expired entries are ignored on lookup and swept out
+ * whenever the table would otherwise have to grow, so the table only ever
+ * holds players whose cooldown was running at the last sweep.
+ */
+public class CooldownTracker {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Gson gson;
+    private long[] mostBits;
+    private long[] leastBits;
+    private long[] expiresAt;  // 0 = empty slot
+    private int size;
+
+    public CooldownTracker() {
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Start (or restart) a cooldown for a player.
+     */
+    public synchronized void start(UUID playerId, long durationMillis) {
+        if (playerId == null || durationMillis <= 0) {
+            return;
+        }
+        put(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits(),
+                System.currentTimeMillis() + durationMillis);
+    }
+
+    /**
+     * Get the remaining cooldown for a player in milliseconds (0 = ready).
+     */
+    public synchronized long getRemainingMillis(UUID playerId) {
+        if (playerId == null) {
+            return 0;
+        }
+        int slot = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        if (slot < 0) {
+            return 0;
+        }
+        return Math.max(0, expiresAt[slot] - System.currentTimeMillis());
+    }
+
+    /**
+     * Clear a player's cooldown.
+     */
+    public synchronized void clear(UUID playerId) {
+        if (playerId == null) {
+            return;
+        }
+        int slot = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        if (slot >= 0) {
+            // Expire in place; the next sweep drops the slot
+            expiresAt[slot] = 1;
+        }
+    }
+
+    /**
+     * Number of slots in use, including expired entries not yet swept.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Load running cooldowns from disk, skipping any that already expired.
+     */
+    public void load(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            String json = Files.readString(file);
+            Type type = new TypeToken<Map<String, Long>>(){}.getType();
+            Map<String, Long> data = gson.fromJson(json, type);
+            if (data == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                for (Map.Entry<String, Long> entry : data.entrySet()) {
+                    try {
+                        UUID uuid = UUID.fromString(entry.getKey());
+                        Long expiry = entry.getValue();
+                        if (expiry != null && expiry > now) {
+                            put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), expiry);
+                        }
+                    } catch (IllegalArgumentException ignored) {
+                        // Skip invalid UUIDs
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Save running cooldowns to disk as UUID -> expiry (epoch millis).
+     */
+    public void save(Path file) {
+        Map<String, Long> data = new HashMap<>();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (int i = 0; i < expiresAt.length; i++) {
+                if (expiresAt[i] > now) {
+                    data.put(new UUID(mostBits[i], leastBits[i]).toString(), expiresAt[i]);
+                }
+            }
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, gson.toJson(data));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void allocate(int capacity) {
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        expiresAt = new long[capacity];
+        size = 0;
+    }
+
+    private int find(long msb, long lsb) {
+        int mask = expiresAt.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (expiresAt[slot] != 0) {
+            if (mostBits[slot] == msb && leastBits[slot] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void put(long msb, long lsb, long expiry) {
+        int existing = find(msb, lsb);
+        if (existing >= 0) {
+            expiresAt[existing] = expiry;
+            return;
+        }
+
+        // Keep load factor under 0.5 - sweep expired entries first, only grow if still full
+        if ((size + 1) * 2 > expiresAt.length) {
+            rehash(System.currentTimeMillis());
+        }
+        insert(msb, lsb, expiry);
+    }
+
+    private void rehash(long now) {
+        long[] oldMost = mostBits;
+        long[] oldLeast = leastBits;
+        long[] oldExpiry = expiresAt;
+
+        int live = 0;
+        for (long expiry : oldExpiry) {
+            if (expiry > now) {
+                live++;
+            }
+        }
+
+        int capacity = INITIAL_CAPACITY;
+        while ((live + 1) * 4 > capacity) {
+            capacity <<= 1;
+        }
+
+        allocate(capacity);
+        for (int i = 0; i < oldExpiry.length; i++) {
+            if (oldExpiry[i] > now) {
+                insert(oldMost[i], oldLeast[i], oldExpiry[i]);
+            }
+        }
+    }
+
+    private void insert(long msb, long lsb, long expiry) {
+        int mask = expiresAt.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (expiresAt[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        mostBits[slot] = msb;
+        leastBits[slot] = lsb;
+        expiresAt[slot] = expiry;
+        size++;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ (lsb * 0x9E3779B97F4A7C15L);
+        return (int) (h ^ (h >>> 32));
+    }
+}
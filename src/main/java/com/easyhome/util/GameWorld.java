@@ -0,0 +1,15 @@
+package com.easyhome.util;
+
+/**
+ * A world as EasyHome's world-thread work sees it: a name and a thread to run on.
+ * The plugin wraps a Hytale World (HytaleWorld); the load test supplies its own.
+ */
+public interface GameWorld {
+
+    String getName();
+
+    /**
+     * Run a task on the world thread, after whatever is already queued there.
+     */
+    void execute(Runnable task);
+}
@@ -0,0 +1,130 @@
+package com.easyhome.util;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Transform;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.modules.entity.teleport.Teleport;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * TeleportTarget for a real player: positions come from the TransformComponent,
+ * teleports are a Teleport component and messages go through Messages.
+ */
+public class HytaleTeleportTarget implements TeleportTarget {
+    private final PlayerRef playerData;
+    private final Ref<EntityStore> playerRef;
+    private final Store<EntityStore> store;
+    private final HytaleWorld world;
+
+    public HytaleTeleportTarget(PlayerRef playerData, Ref<EntityStore> playerRef, Store<EntityStore> store, World world) {
+        this.playerData = playerData;
+        this.playerRef = playerRef;
+        this.store = store;
+        this.world = new HytaleWorld(world);
+    }
+
+    @Override
+    public UUID getPlayerId() {
+        return playerData.getUuid();
+    }
+
+    @Override
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    @Override
+    public double[] getPosition() {
+        TransformComponent transform = store.getComponent(playerRef, TransformComponent.getComponentType());
+        if (transform == null) {
+            return null;
+        }
+        Vector3d position = transform.getPosition();
+        return new double[] {position.getX(), position.getY(), position.getZ()};
+    }
+
+    @Override
+    public float[] getRotation() {
+        TransformComponent transform = store.getComponent(playerRef, TransformComponent.getComponentType());
+        if (transform == null) {
+            return null;
+        }
+        Vector3f rotation = transform.getRotation();
+        return new float[] {rotation.getYaw(), rotation.getPitch()};
+    }
+
+    @Override
+    public void teleport(double x, double y, double z, float yaw, float pitch) {
+        Transform transform = new Transform(new Vector3d(x, y, z), new Vector3f(yaw, pitch, 0));
+        Teleport teleport = Teleport.createForPlayer(world.getWorld(), transform);
+        store.addComponent(playerRef, Teleport.getComponentType(), teleport);
+    }
+
+    @Override
+    public void sendWarmupStarted(String homeName, int seconds) {
+        playerData.sendMessage(Messages.warmupStarted(playerData, homeName, seconds));
+    }
+
+    @Override
+    public void sendTeleportCancelled() {
+        playerData.sendMessage(Messages.teleportCancelled(playerData));
+    }
+
+    @Override
+    public void sendTeleportedTo(String homeName) {
+        playerData.sendMessage(Messages.teleportedTo(playerData, homeName));
+    }
+
+    @Override
+    public void sendWorldNotFound(String world) {
+        playerData.sendMessage(Messages.worldNotFound(playerData, world));
+    }
+
+    @Override
+    public void sendHomeSet(String homeName) {
+        playerData.sendMessage(Messages.homeSet(playerData, homeName));
+    }
+
+    @Override
+    public void sendHomeDeleted(String homeName) {
+        playerData.sendMessage(Messages.homeDeleted(playerData, homeName));
+    }
+
+    @Override
+    public void sendHomeLimitReached(int limit) {
+        playerData.sendMessage(Messages.homeLimitReached(playerData, limit));
+    }
+
+    @Override
+    public void sendHomeNotFound(String homeName) {
+        playerData.sendMessage(Messages.homeNotFound(playerData, homeName));
+    }
+
+    @Override
+    public void sendDidYouMean(List<String> suggestions) {
+        playerData.sendMessage(Messages.didYouMean(playerData, suggestions));
+    }
+
+    @Override
+    public void sendUseHomesHint() {
+        playerData.sendMessage(Messages.useHomesHint(playerData));
+    }
+
+    @Override
+    public void sendNoHomesInWorld() {
+        playerData.sendMessage(Messages.noHomesInWorld(playerData));
+    }
+
+    @Override
+    public void sendOnCooldown(int seconds) {
+        playerData.sendMessage(Messages.teleportOnCooldown(playerData, seconds));
+    }
+}
@@ -0,0 +1,28 @@
+package com.easyhome.util;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+/**
+ * GameWorld backed by a Hytale World.
+ */
+public class HytaleWorld implements GameWorld {
+    private final World world;
+
+    public HytaleWorld(World world) {
+        this.world = world;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    @Override
+    public String getName() {
+        return world.getName();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        world.execute(task);
+    }
+}
@@ -0,0 +1,81 @@
+package com.easyhome.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Plugin-wide executor for disk I/O.
+ * Each task runs on its own virtual thread, but a semaphore caps how many
+ * tasks touch the filesystem at once so bulk work can't open thousands of files.
+ */
+public class IoExecutor {
+    public static final int DEFAULT_MAX_CONCURRENT = 16;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public IoExecutor() {
+        this(DEFAULT_MAX_CONCURRENT);
+    }
+
+    public IoExecutor(int maxConcurrent) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("EasyHome-IO-", 0).factory());
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Run a task on the I/O executor.
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Compute a value on the I/O executor.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Stop accepting tasks and wait for queued work to finish.
+     *
+     * @return true if every task completed before the timeout
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeout, unit)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        return false;
+    }
+}
@@ -0,0 +1,120 @@
+package com.easyhome.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events for EasyHome, under the "EasyHome" category.
+ *
+ * Duration events use begin()/commit() and only fill in their fields when
+ * shouldCommit() is true, so with no recording running (or below the
+ * threshold) they cost a couple of branches. Thresholds can be changed in a
+ * JFR settings file, e.g. easyhome.StorageIo#threshold=0 ms.
+ */
+public final class JfrEvents {
+    private JfrEvents() {
+    }
+
+    @Name("easyhome.StorageIo")
+    @Label("EasyHome Storage I/O")
+    @Description("Loading or saving a player's homes or grants")
+    @Category({"EasyHome", "Storage"})
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class StorageIo extends Event {
+        @Label("Store")
+        public String store;
+
+        @Label("Operation")
+        public String operation;
+
+        @Label("Player")
+        public String playerId;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Outcome")
+        public String outcome;
+    }
+
+    @Name("easyhome.PlayerCacheSync")
+    @Label("EasyHome Player Cache Sync")
+    @Description("Scanning stored data for username mappings")
+    @Category({"EasyHome", "Storage"})
+    @Threshold("10 ms")
+    @StackTrace(false)
+    public static class PlayerCacheSync extends Event {
+        @Label("Source")
+        public String source;
+
+        @Label("Players Scanned")
+        public int scanned;
+
+        @Label("Players Added")
+        public int synced;
+    }
+
+    @Name("easyhome.Warmup")
+    @Label("EasyHome Warmup")
+    @Description("A /home warmup starting, being cancelled or ending in a teleport")
+    @Category({"EasyHome", "Teleport"})
+    @StackTrace(false)
+    public static class Warmup extends Event {
+        @Label("Player")
+        public String playerId;
+
+        @Label("Home")
+        public String home;
+
+        @Label("Action")
+        public String action;
+
+        @Label("Warmup Seconds")
+        public int warmupSeconds;
+    }
+
+    @Name("easyhome.HomeLimit")
+    @Label("EasyHome Limit Resolution")
+    @Description("Working out how many homes a player may have")
+    @Category({"EasyHome", "Limits"})
+    @Threshold("100 us")
+    @StackTrace(false)
+    public static class HomeLimit extends Event {
+        @Label("Player")
+        public String playerId;
+
+        @Label("Source")
+        public String source;
+
+        @Label("Limit")
+        public int limit;
+    }
+
+    @Name("easyhome.WorldTask")
+    @Label("EasyHome World Task")
+    @Description("EasyHome work run on a world thread, such as a teleport or warmup movement check")
+    @Category({"EasyHome", "Teleport"})
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class WorldTask extends Event {
+        @Label("Task")
+        public String task;
+
+        @Label("World")
+        public String world;
+
+        @Label("Player")
+        public String playerId;
+
+        @Label("Detail")
+        public String detail;
+    }
+}
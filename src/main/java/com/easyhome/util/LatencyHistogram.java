@@ -0,0 +1,138 @@
+package com.easyhome.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ *
+ * Values are recorded in microseconds. Each power of two is split into
+ * 16 linear sub-buckets, so any reported percentile is within about 6%
+ * of the true value, over the full range of a long, in a fixed 960-slot array.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder totalMicros;
+    private final LongAccumulator maxMicros;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.totalMicros = new LongAdder();
+        this.maxMicros = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Record a duration measured with System.nanoTime().
+     */
+    public void recordNanos(long nanos) {
+        record(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+
+    public void record(long micros) {
+        counts.incrementAndGet(bucketOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) totalMicros.sum() / n;
+    }
+
+    /**
+     * Approximate value at the given percentile (0-100), in microseconds.
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    /**
+     * Fill out[i] with the number of values at or below boundsMicros[i].
+     * Bounds must be ascending. Allocates nothing, for exporters that render often.
+     */
+    public void cumulativeCounts(long[] boundsMicros, long[] out) {
+        int bound = 0;
+        long running = 0;
+        for (int i = 0; i < BUCKETS && bound < boundsMicros.length; i++) {
+            long count = counts.get(i);
+            if (count == 0) {
+                continue;
+            }
+            while (bound < boundsMicros.length && highestValueIn(i) > boundsMicros[bound]) {
+                out[bound++] = running;
+            }
+            running += count;
+        }
+        while (bound < boundsMicros.length) {
+            out[bound++] = running;
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        totalMicros.reset();
+        maxMicros.reset();
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lowest = (SUB_BUCKETS + sub) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,181 @@
+package com.easyhome.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.hypixel.hytale.server.core.Message;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-language message templates.
+ * Bundles are stored in mods/cryptobench_EasyHome/lang/<language>.json as
+ * flat key -> template maps, e.g. "de.json" or "pt-br.json".
+ *
+ * Every template is compiled when the bundles are loaded. Keys missing from
+ * a bundle fall back to the built-in English text. Reloading swaps in a
+ * fully compiled set, so readers never see a half-loaded bundle.
+ */
+public class MessageBundles {
+    public static final String DEFAULT_LANGUAGE = "en";
+
+    // Built-in English, used before the plugin has loaded its bundles
+    static final MessageBundles DEFAULTS = new MessageBundles();
+
+    private final Path langDirectory;
+    private final Gson gson;
+    private volatile Loaded loaded;
+
+    private MessageBundles() {
+        this.langDirectory = null;
+        this.gson = new Gson();
+        this.loaded = new Loaded(Map.of(), Bundle.compile(Map.of()));
+    }
+
+    public MessageBundles(Path dataDirectory) {
+        this.langDirectory = dataDirectory.resolve("lang");
+        this.gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+        try {
+            Files.createDirectories(langDirectory);
+            writeDefaults();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        this.loaded = load();
+    }
+
+    /**
+     * Re-read and compile every bundle in the lang directory.
+     *
+     * @return Number of bundles loaded
+     */
+    public int reload() {
+        if (langDirectory == null) {
+            return 0;
+        }
+
+        Loaded next = load();
+        this.loaded = next;
+        return next.bundles().size();
+    }
+
+    private Loaded load() {
+        Type type = new TypeToken<Map<String, String>>(){}.getType();
+        Map<String, Bundle> bundles = new HashMap<>();
+        try (Stream<Path> files = Files.list(langDirectory)) {
+            for (Path file : (Iterable<Path>) files.filter(p -> p.toString().endsWith(".json"))::iterator) {
+                try {
+                    Map<String, String> templates = gson.fromJson(Files.readString(file), type);
+                    String language = normalize(file.getFileName().toString().replace(".json", ""));
+                    bundles.put(language, Bundle.compile(templates != null ? templates : Map.of()));
+                } catch (Exception e) {
+                    // Keep the other languages if one file is broken
+                    e.printStackTrace();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        Bundle fallback = bundles.getOrDefault(DEFAULT_LANGUAGE, DEFAULTS.loaded.fallback);
+        return new Loaded(bundles, fallback);
+    }
+
+    /**
+     * The bundle for a client language such as "de", "de-DE" or "pt_BR".
+     * Falls back from region to language to English.
+     */
+    public Bundle forLanguage(String language) {
+        Loaded current = loaded;
+        if (language == null || language.isEmpty()) {
+            return current.fallback;
+        }
+        return current.resolved.computeIfAbsent(language, current::resolve);
+    }
+
+    private void writeDefaults() throws IOException {
+        Path file = langDirectory.resolve(DEFAULT_LANGUAGE + ".json");
+        if (Files.exists(file)) {
+            return;
+        }
+        Map<String, String> templates = new LinkedHashMap<>();
+        for (MessageKey key : MessageKey.values()) {
+            templates.put(key.getKey(), key.getDefaultTemplate());
+        }
+        Files.writeString(file, gson.toJson(templates));
+    }
+
+    private static String normalize(String language) {
+        return language.toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * One loaded set of bundles plus a cache of client language -> bundle.
+     */
+    private record Loaded(Map<String, Bundle> bundles, Bundle fallback, Map<String, Bundle> resolved) {
+        Loaded(Map<String, Bundle> bundles, Bundle fallback) {
+            this(bundles, fallback, new ConcurrentHashMap<>());
+        }
+
+        Bundle resolve(String language) {
+            String tag = normalize(language);
+            Bundle bundle = bundles.get(tag);
+            int dash = tag.indexOf('-');
+            if (bundle == null && dash > 0) {
+                bundle = bundles.get(tag.substring(0, dash));
+            }
+            return bundle != null ? bundle : fallback;
+        }
+    }
+
+    /**
+     * Compiled templates for one language, indexed by MessageKey.
+     * Messages without placeholders are pre-rendered once.
+     */
+    public static final class Bundle {
+        private final MessageTemplate[] templates;
+        private final Message[] constants;
+
+        private Bundle(MessageTemplate[] templates, Message[] constants) {
+            this.templates = templates;
+            this.constants = constants;
+        }
+
+        static Bundle compile(Map<String, String> overrides) {
+            MessageKey[] keys = MessageKey.values();
+            MessageTemplate[] templates = new MessageTemplate[keys.length];
+            Message[] constants = new Message[keys.length];
+            for (MessageKey key : keys) {
+                String text = overrides.getOrDefault(key.getKey(), key.getDefaultTemplate());
+                MessageTemplate template = MessageTemplate.compile(text, key.getParameters());
+                templates[key.ordinal()] = template;
+                if (!template.hasArguments()) {
+                    constants[key.ordinal()] = Message.raw(template.render()).color(key.getColor());
+                }
+            }
+            return new Bundle(templates, constants);
+        }
+
+        public String text(MessageKey key, Object... args) {
+            return templates[key.ordinal()].render(args);
+        }
+
+        public Message message(MessageKey key, Object... args) {
+            Message constant = constants[key.ordinal()];
+            if (constant != null) {
+                return constant;
+            }
+            return Message.raw(text(key, args)).color(key.getColor());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.easyhome.util;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * Every player-facing message, with its English default and the
+ * placeholders a translation may use.
+ */
+public enum MessageKey {
+    HOME_SET("home.set", "Home '{name}' has been set!", Messages.GREEN, "name"),
+    HOME_DELETED("home.deleted", "Home '{name}' has been deleted!", Messages.GREEN, "name"),
+    HOME_NOT_FOUND("home.not-found", "Home '{name}' not found!", Messages.RED, "name"),
+    NO_HOMES("homes.none", "You don't have any homes set. Use /sethome to create one!", Messages.YELLOW),
+    HOMES_LIST("homes.list", "Your homes ({count}/{limit}):", Messages.GOLD, "count", "limit"),
+    HOMES_UNLIMITED("homes.unlimited", "unlimited", Messages.GOLD),
+    HOME_ENTRY("homes.entry", "- {name} ({location})", Messages.GRAY, "name", "location"),
+    HOME_ENTRY_DISTANCE("homes.entry-distance", "- {name} ({location}, {distance}m away)", Messages.GRAY,
+            "name", "location", "distance"),
+    HOMES_PAGE("homes.page", "Page {page}/{pages}", Messages.GRAY, "page", "pages"),
+    HOMES_PAGE_NEXT("homes.page-next", "Page {page}/{pages} - /homes {next} for more", Messages.GRAY,
+            "page", "pages", "next"),
+    NO_HOMES_IN_WORLD("homes.none-in-world", "You don't have any homes in this world.", Messages.RED),
+    HOME_LIMIT_REACHED("home.limit-reached", "You've reached your home limit ({limit}). Delete a home first!",
+            Messages.RED, "limit"),
+    INVALID_HOME_NAME("home.invalid-name", "Invalid home name! Use only letters, numbers, and underscores.",
+            Messages.RED),
+    HOME_NAME_TOO_LONG("home.name-too-long", "Home name is too long! Maximum 32 characters.", Messages.RED),
+    WARMUP_STARTED("teleport.warmup", "Teleporting to '{name}' in {seconds} seconds... Don't move!",
+            Messages.YELLOW, "name", "seconds"),
+    TELEPORT_CANCELLED("teleport.cancelled", "Teleport cancelled - you moved!", Messages.RED),
+    TELEPORTED_TO("teleport.done", "Teleported to '{name}'!", Messages.GREEN, "name"),
+    TELEPORT_ON_COOLDOWN("teleport.cooldown", "You must wait {seconds} more seconds before teleporting home again!",
+            Messages.RED, "seconds"),
+    WORLD_NOT_FOUND("teleport.world-not-found", "Cannot teleport - world '{world}' not found!", Messages.RED, "world"),
+    DID_YOU_MEAN("hint.did-you-mean", "Did you mean: {names}?", Messages.YELLOW, "names"),
+    USE_HOMES_HINT("hint.use-homes", "Use /homes to see your saved homes.", Messages.GRAY),
+    SPECIFY_HOME_NAME("home.specify-name", "Please specify a home name to delete!", Messages.RED);
+
+    private final String key;
+    private final String defaultTemplate;
+    private final Color color;
+    private final List<String> parameters;
+
+    MessageKey(String key, String defaultTemplate, Color color, String... parameters) {
+        this.key = key;
+        this.defaultTemplate = defaultTemplate;
+        this.color = color;
+        this.parameters = List.of(parameters);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getDefaultTemplate() {
+        return defaultTemplate;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+}
@@ -0,0 +1,76 @@
+package com.easyhome.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message template compiled once into literal text and argument slots.
+ *
+ * "Home '{name}' has been set!" with parameters [name] becomes the literals
+ * ["Home '", "' has been set!"] and the slots [0], so rendering is a single
+ * StringBuilder pass with no parsing. Unknown placeholders stay as literal text.
+ */
+public final class MessageTemplate {
+    private final String[] literals;  // One more literal than slots
+    private final int[] slots;
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compile a template against the parameter names its message takes.
+     */
+    public static MessageTemplate compile(String template, List<String> parameters) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int close = c == '{' ? template.indexOf('}', i) : -1;
+            int slot = close > i ? parameters.indexOf(template.substring(i + 1, close)) : -1;
+            if (slot >= 0) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(slot);
+                i = close + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        return new MessageTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public boolean hasArguments() {
+        return slots.length > 0;
+    }
+
+    /**
+     * Fill the slots with the given arguments, in parameter order.
+     */
+    public String render(Object... args) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder out = new StringBuilder(literalLength + slots.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            int slot = slots[i];
+            out.append(slot < args.length ? args[slot] : "");
+        }
+        out.append(literals[slots.length]);
+        return out.toString();
+    }
+}
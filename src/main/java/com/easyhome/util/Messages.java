@@ -1,79 +1,145 @@
 package com.easyhome.util;
 
 import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
 
 import java.awt.Color;
+import java.util.List;
 
 /**
  * Centralized message formatting for EasyHome.
+ * Text comes from the player's language bundle (see MessageBundles).
  */
 public class Messages {
     // Colors
-    private static final Color GREEN = new Color(85, 255, 85);
-    private static final Color RED = new Color(255, 85, 85);
-    private static final Color YELLOW = new Color(255, 255, 85);
-    private static final Color GOLD = new Color(255, 170, 0);
-    private static final Color GRAY = new Color(170, 170, 170);
-    private static final Color WHITE = new Color(255, 255, 255);
+    static final Color GREEN = new Color(85, 255, 85);
+    static final Color RED = new Color(255, 85, 85);
+    static final Color YELLOW = new Color(255, 255, 85);
+    static final Color GOLD = new Color(255, 170, 0);
+    static final Color GRAY = new Color(170, 170, 170);
+    static final Color WHITE = new Color(255, 255, 255);
+
+    // Shared separator for composite messages; never modified after creation
+    private static final Message NEWLINE = Message.raw("\n");
+
+    private static volatile MessageBundles bundles;
+
+    /**
+     * Use the plugin's loaded bundles. Until this is called, built-in English is used.
+     */
+    public static void setBundles(MessageBundles loaded) {
+        bundles = loaded;
+    }
+
+    private static MessageBundles.Bundle bundle(PlayerRef player) {
+        MessageBundles current = bundles;
+        return (current != null ? current : MessageBundles.DEFAULTS).forLanguage(player.getLanguage());
+    }
+
+    /**
+     * Combine several lines into one message so a response is sent as a single packet.
+     * The parts are referenced, not copied, so constants can be reused freely.
+     */
+    public static Message lines(List<Message> lines) {
+        if (lines.isEmpty()) {
+            return Message.raw("");
+        }
+        Message[] parts = new Message[lines.size() * 2 - 1];
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                parts[i * 2 - 1] = NEWLINE;
+            }
+            parts[i * 2] = lines.get(i);
+        }
+        return Message.join(parts);
+    }
+
+    public static Message lines(Message... lines) {
+        return lines(List.of(lines));
+    }
+
+    public static Message homeSet(PlayerRef player, String name) {
+        return bundle(player).message(MessageKey.HOME_SET, name);
+    }
+
+    public static Message homeDeleted(PlayerRef player, String name) {
+        return bundle(player).message(MessageKey.HOME_DELETED, name);
+    }
+
+    public static Message homeNotFound(PlayerRef player, String name) {
+        return bundle(player).message(MessageKey.HOME_NOT_FOUND, name);
+    }
+
+    public static Message noHomes(PlayerRef player) {
+        return bundle(player).message(MessageKey.NO_HOMES);
+    }
+
+    public static Message homesList(PlayerRef player, int count, int limit) {
+        MessageBundles.Bundle bundle = bundle(player);
+        Object limitStr = limit == Integer.MAX_VALUE ? bundle.text(MessageKey.HOMES_UNLIMITED) : limit;
+        return bundle.message(MessageKey.HOMES_LIST, count, limitStr);
+    }
 
-    public static Message homeSet(String name) {
-        return Message.raw("Home '" + name + "' has been set!").color(GREEN);
+    public static Message homeEntry(PlayerRef player, String name, String location) {
+        return bundle(player).message(MessageKey.HOME_ENTRY, name, location);
     }
 
-    public static Message homeDeleted(String name) {
-        return Message.raw("Home '" + name + "' has been deleted!").color(GREEN);
+    public static Message homeEntry(PlayerRef player, String name, String location, double distance) {
+        return bundle(player).message(MessageKey.HOME_ENTRY_DISTANCE, name, location, Math.round(distance));
     }
 
-    public static Message homeNotFound(String name) {
-        return Message.raw("Home '" + name + "' not found!").color(RED);
+    public static Message homesPage(PlayerRef player, int page, int pages) {
+        if (page < pages) {
+            return bundle(player).message(MessageKey.HOMES_PAGE_NEXT, page, pages, page + 1);
+        }
+        return bundle(player).message(MessageKey.HOMES_PAGE, page, pages);
     }
 
-    public static Message noHomes() {
-        return Message.raw("You don't have any homes set. Use /sethome to create one!").color(YELLOW);
+    public static Message noHomesInWorld(PlayerRef player) {
+        return bundle(player).message(MessageKey.NO_HOMES_IN_WORLD);
     }
 
-    public static Message homesList(int count, int limit) {
-        String limitStr = limit == Integer.MAX_VALUE ? "unlimited" : String.valueOf(limit);
-        return Message.raw("Your homes (" + count + "/" + limitStr + "):").color(GOLD);
+    public static Message homeLimitReached(PlayerRef player, int limit) {
+        return bundle(player).message(MessageKey.HOME_LIMIT_REACHED, limit);
     }
 
-    public static Message homeEntry(String name, String location) {
-        return Message.raw("- " + name + " (" + location + ")").color(GRAY);
+    public static Message invalidHomeName(PlayerRef player) {
+        return bundle(player).message(MessageKey.INVALID_HOME_NAME);
     }
 
-    public static Message homeLimitReached(int limit) {
-        return Message.raw("You've reached your home limit (" + limit + "). Delete a home first!").color(RED);
+    public static Message homeNameTooLong(PlayerRef player) {
+        return bundle(player).message(MessageKey.HOME_NAME_TOO_LONG);
     }
 
-    public static Message invalidHomeName() {
-        return Message.raw("Invalid home name! Use only letters, numbers, and underscores.").color(RED);
+    public static Message warmupStarted(PlayerRef player, String name, int seconds) {
+        return bundle(player).message(MessageKey.WARMUP_STARTED, name, seconds);
     }
 
-    public static Message homeNameTooLong() {
-        return Message.raw("Home name is too long! Maximum 32 characters.").color(RED);
+    public static Message teleportCancelled(PlayerRef player) {
+        return bundle(player).message(MessageKey.TELEPORT_CANCELLED);
     }
 
-    public static Message warmupStarted(String name, int seconds) {
-        return Message.raw("Teleporting to '" + name + "' in " + seconds + " seconds... Don't move!").color(YELLOW);
+    public static Message teleportedTo(PlayerRef player, String name) {
+        return bundle(player).message(MessageKey.TELEPORTED_TO, name);
     }
 
-    public static Message teleportCancelled() {
-        return Message.raw("Teleport cancelled - you moved!").color(RED);
+    public static Message teleportOnCooldown(PlayerRef player, int seconds) {
+        return bundle(player).message(MessageKey.TELEPORT_ON_COOLDOWN, seconds);
     }
 
-    public static Message teleportedTo(String name) {
-        return Message.raw("Teleported to '" + name + "'!").color(GREEN);
+    public static Message worldNotFound(PlayerRef player, String world) {
+        return bundle(player).message(MessageKey.WORLD_NOT_FOUND, world);
     }
 
-    public static Message worldNotFound(String world) {
-        return Message.raw("Cannot teleport - world '" + world + "' not found!").color(RED);
+    public static Message didYouMean(PlayerRef player, List<String> names) {
+        return bundle(player).message(MessageKey.DID_YOU_MEAN, String.join(", ", names));
     }
 
-    public static Message useHomesHint() {
-        return Message.raw("Use /homes to see your saved homes.").color(GRAY);
+    public static Message useHomesHint(PlayerRef player) {
+        return bundle(player).message(MessageKey.USE_HOMES_HINT);
     }
 
-    public static Message specifyHomeName() {
-        return Message.raw("Please specify a home name to delete!").color(RED);
+    public static Message specifyHomeName(PlayerRef player) {
+        return bundle(player).message(MessageKey.SPECIFY_HOME_NAME);
     }
 }
@@ -0,0 +1,184 @@
+package com.easyhome.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-plugin metrics: counters, gauges and latency timers by name.
+ *
+ * Recording is a LongAdder increment or a histogram bucket increment, cheap
+ * enough for the world thread. Names are dotted, e.g. "command.home" or
+ * "storage.homes.save". A snapshot can be written to metrics.json on a timer.
+ */
+public final class Metrics {
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final Map<String, LongAdder> counters;
+    private final Map<String, LongSupplier> gauges;
+    private final Map<String, LatencyHistogram> timers;
+    private final Map<String, LabeledCounter> labeledCounters;
+    private final Gson gson;
+    private ScheduledExecutorService snapshotScheduler;
+
+    private Metrics() {
+        this.counters = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
+        this.timers = new ConcurrentHashMap<>();
+        this.labeledCounters = new ConcurrentHashMap<>();
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * A counter split by one label, e.g. teleports by world.
+     * All values of a name must use the same label.
+     */
+    public LongAdder counter(String name, String label, String value) {
+        return labeledCounters.computeIfAbsent(name, n -> new LabeledCounter(label)).values
+                .computeIfAbsent(value != null ? value : "", v -> new LongAdder());
+    }
+
+    public LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Register a value read when a snapshot is taken (cache sizes, active warmups).
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Record the time since a System.nanoTime() start under a timer.
+     */
+    public void recordSince(String timer, long startNanos) {
+        timer(timer).recordNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Clear counters and timers. Gauges are live values and are kept.
+     */
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        labeledCounters.values().forEach(family -> family.values.values().forEach(LongAdder::reset));
+        timers.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Current values, sorted by name.
+     */
+    public Snapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, adder) -> counterValues.put(name, adder.sum()));
+        labeledCounters.forEach((name, family) -> family.values.forEach((value, adder) ->
+                counterValues.put(name + "{" + family.label + "=" + value + "}", adder.sum())));
+
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getAsLong()));
+
+        Map<String, TimerStats> timerValues = new TreeMap<>();
+        timers.forEach((name, histogram) -> {
+            if (histogram.getCount() > 0) {
+                timerValues.put(name, new TimerStats(histogram.getCount(), Math.round(histogram.getMeanMicros()),
+                        histogram.getPercentileMicros(50), histogram.getPercentileMicros(99),
+                        histogram.getMaxMicros()));
+            }
+        });
+
+        return new Snapshot(System.currentTimeMillis(), counterValues, gaugeValues, timerValues);
+    }
+
+    /**
+     * Write a snapshot to the given file every intervalSeconds.
+     * Does nothing if the interval is 0 or less.
+     */
+    public synchronized void startSnapshots(Path file, int intervalSeconds) {
+        stopSnapshots();
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "EasyHome-Metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotScheduler.scheduleAtFixedRate(() -> writeSnapshot(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopSnapshots() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+            snapshotScheduler = null;
+        }
+    }
+
+    public void writeSnapshot(Path file) {
+        Snapshot snapshot = snapshot();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("timestamp", snapshot.timestamp());
+        data.put("counters", snapshot.counters());
+        data.put("gauges", snapshot.gauges());
+        data.put("timers", snapshot.timers());
+        try {
+            Files.writeString(file, gson.toJson(data));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Live views for exporters in this package; iterate, don't modify
+
+    Map<String, LongAdder> counters() {
+        return counters;
+    }
+
+    Map<String, LabeledCounter> labeledCounters() {
+        return labeledCounters;
+    }
+
+    Map<String, LongSupplier> gauges() {
+        return gauges;
+    }
+
+    Map<String, LatencyHistogram> timers() {
+        return timers;
+    }
+
+    static final class LabeledCounter {
+        final String label;
+        final Map<String, LongAdder> values = new ConcurrentHashMap<>();
+
+        LabeledCounter(String label) {
+            this.label = label;
+        }
+    }
+
+    public record Snapshot(long timestamp, Map<String, Long> counters, Map<String, Long> gauges,
+                           Map<String, TimerStats> timers) {}
+
+    /**
+     * Summary of one timer, all values in microseconds.
+     */
+    public record TimerStats(long count, long meanMicros, long p50Micros, long p99Micros, long maxMicros) {}
+}
@@ -0,0 +1,265 @@
+package com.easyhome.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Serves Metrics in Prometheus text format on http://127.0.0.1:<port>/metrics.
+ *
+ * Only binds to the loopback address. Requests run on virtual threads and
+ * only read LongAdders, gauges and histogram buckets, never the world thread.
+ * The response is written into one reused byte buffer with metric names
+ * encoded once per series, so a scrape does no string building.
+ */
+public class MetricsHttpServer {
+    private static final String PREFIX = "easyhome_";
+    private static final byte[] NEWLINE = {'\n'};
+    private static final byte[] LONG_MIN = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    // Histogram bucket upper bounds, in microseconds (100us .. 5s)
+    private static final long[] BUCKET_BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 5_000_000
+    };
+    private static final byte[][] BUCKET_LABELS = new byte[BUCKET_BOUNDS_MICROS.length][];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            String seconds = BigDecimal.valueOf(BUCKET_BOUNDS_MICROS[i], 6).stripTrailingZeros().toPlainString();
+            BUCKET_LABELS[i] = ("_bucket{le=\"" + seconds + "\"} ")
+                    .getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final Metrics metrics;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // Encoded series names by metric type and name, and by labeled family and label value
+    private final Map<String, Map<String, byte[][]>> encoded;
+    private final Map<String, Map<String, byte[][]>> encodedLabeled;
+
+    // Render state, guarded by this
+    private byte[] buffer;
+    private int length;
+    private final long[] cumulative;
+
+    private MetricsHttpServer(Metrics metrics, HttpServer server, ExecutorService executor) {
+        this.metrics = metrics;
+        this.server = server;
+        this.executor = executor;
+        this.encoded = new ConcurrentHashMap<>();
+        this.encodedLabeled = new ConcurrentHashMap<>();
+        this.buffer = new byte[16 * 1024];
+        this.cumulative = new long[BUCKET_BOUNDS_MICROS.length];
+    }
+
+    /**
+     * Start serving on the loopback address.
+     */
+    public static MetricsHttpServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("EasyHome-Metrics-HTTP-", 0).factory());
+        MetricsHttpServer metricsServer = new MetricsHttpServer(Metrics.get(), server, executor);
+
+        server.createContext("/metrics", metricsServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        return metricsServer;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+
+            // One scrape at a time; they share the buffer
+            synchronized (this) {
+                render();
+                exchange.sendResponseHeaders(200, length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(buffer, 0, length);
+                }
+            }
+        }
+    }
+
+    private void render() {
+        length = 0;
+
+        for (Map.Entry<String, LongAdder> entry : metrics.counters().entrySet()) {
+            byte[][] names = names(entry.getKey(), "counter", "_total");
+            write(names[0]);
+            write(names[1]);
+            writeLong(entry.getValue().sum());
+            write(NEWLINE);
+        }
+
+        for (Map.Entry<String, Metrics.LabeledCounter> family : metrics.labeledCounters().entrySet()) {
+            boolean first = true;
+            for (Map.Entry<String, LongAdder> entry : family.getValue().values.entrySet()) {
+                byte[][] names = labeledNames(family.getKey(), family.getValue().label, entry.getKey());
+                if (first) {
+                    write(names[0]);
+                    first = false;
+                }
+                write(names[1]);
+                writeLong(entry.getValue().sum());
+                write(NEWLINE);
+            }
+        }
+
+        for (Map.Entry<String, LongSupplier> entry : metrics.gauges().entrySet()) {
+            byte[][] names = names(entry.getKey(), "gauge", "");
+            write(names[0]);
+            write(names[1]);
+            writeLong(entry.getValue().getAsLong());
+            write(NEWLINE);
+        }
+
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.timers().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            byte[][] names = names(entry.getKey(), "histogram", "_seconds");
+            write(names[0]);
+
+            long count = histogram.getCount();
+            histogram.cumulativeCounts(BUCKET_BOUNDS_MICROS, cumulative);
+            for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+                write(names[2]);
+                write(BUCKET_LABELS[i]);
+                writeLong(Math.min(cumulative[i], count));
+                write(NEWLINE);
+            }
+            write(names[3]);
+            writeLong(count);
+            write(NEWLINE);
+
+            write(names[4]);
+            writeMicrosAsSeconds(histogram.getTotalMicros());
+            write(NEWLINE);
+            write(names[5]);
+            writeLong(count);
+            write(NEWLINE);
+        }
+    }
+
+    /**
+     * [TYPE line, series prefix, then for histograms: base, +Inf bucket, sum, count].
+     */
+    private byte[][] names(String name, String type, String suffix) {
+        Map<String, byte[][]> ofType = encoded.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+        byte[][] names = ofType.get(name);
+        if (names == null) {
+            String base = PREFIX + sanitize(name) + suffix;
+            String typeLine = "# TYPE " + base + " " + type + "\n";
+            if (type.equals("histogram")) {
+                names = new byte[][]{ascii(typeLine), null, ascii(base), ascii(base + "_bucket{le=\"+Inf\"} "),
+                        ascii(base + "_sum "), ascii(base + "_count ")};
+            } else {
+                names = new byte[][]{ascii(typeLine), ascii(base + " ")};
+            }
+            ofType.put(name, names);
+        }
+        return names;
+    }
+
+    private byte[][] labeledNames(String name, String label, String value) {
+        Map<String, byte[][]> family = encodedLabeled.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+        byte[][] names = family.get(value);
+        if (names == null) {
+            String base = PREFIX + sanitize(name) + "_total";
+            String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+            names = new byte[][]{
+                    ascii("# TYPE " + base + " counter\n"),
+                    (base + "{" + sanitize(label) + "=\"" + escaped + "\"} ").getBytes(StandardCharsets.UTF_8)};
+            family.put(value, names);
+        }
+        return names;
+    }
+
+    private static String sanitize(String name) {
+        StringBuilder out = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            out.append(Character.isLetterOrDigit(c) && c < 128 ? c : '_');
+        }
+        return out.toString();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private void write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeLong(long value) {
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            // Has no positive counterpart to negate into
+            write(LONG_MIN);
+            return;
+        }
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        // Digits were written least significant first
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte swap = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = swap;
+        }
+    }
+
+    private void writeMicrosAsSeconds(long micros) {
+        writeLong(micros / 1_000_000);
+        ensure(7);
+        buffer[length++] = '.';
+        long fraction = micros % 1_000_000;
+        for (long divisor = 100_000; divisor > 0; divisor /= 10) {
+            buffer[length++] = (byte) ('0' + (fraction / divisor) % 10);
+        }
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
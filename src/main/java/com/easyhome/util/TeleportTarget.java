@@ -0,0 +1,60 @@
+package com.easyhome.util;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A player the home commands and WarmupManager can watch, teleport and tell
+ * what happened. The plugin wraps Hytale's player and entity store
+ * (HytaleTeleportTarget); the load test supplies its own.
+ *
+ * getPosition, getRotation and teleport are only called on the world thread.
+ */
+public interface TeleportTarget {
+
+    UUID getPlayerId();
+
+    /**
+     * The world the player was in when the teleport was asked for.
+     */
+    GameWorld getWorld();
+
+    /**
+     * The player's position as {x, y, z}, or null if they are gone.
+     */
+    double[] getPosition();
+
+    /**
+     * The player's facing as {yaw, pitch}, or null if they are gone.
+     */
+    float[] getRotation();
+
+    /**
+     * Move the player within their current world.
+     */
+    void teleport(double x, double y, double z, float yaw, float pitch);
+
+    void sendWarmupStarted(String homeName, int seconds);
+
+    void sendTeleportCancelled();
+
+    void sendTeleportedTo(String homeName);
+
+    void sendWorldNotFound(String world);
+
+    void sendHomeSet(String homeName);
+
+    void sendHomeDeleted(String homeName);
+
+    void sendHomeLimitReached(int limit);
+
+    void sendHomeNotFound(String homeName);
+
+    void sendDidYouMean(List<String> suggestions);
+
+    void sendUseHomesHint();
+
+    void sendNoHomesInWorld();
+
+    void sendOnCooldown(int seconds);
+}
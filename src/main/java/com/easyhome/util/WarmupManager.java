@@ -1,16 +1,6 @@
 package com.easyhome.util;
 
 import com.easyhome.data.Home;
-import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.Store;
-import com.hypixel.hytale.math.vector.Transform;
-import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.math.vector.Vector3f;
-import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
-import com.hypixel.hytale.server.core.modules.entity.teleport.Teleport;
-import com.hypixel.hytale.server.core.universe.PlayerRef;
-import com.hypixel.hytale.server.core.universe.world.World;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import java.util.Map;
 import java.util.UUID;
@@ -19,17 +9,30 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Manages teleport warmups with movement cancellation.
+ *
+ * Players and worlds are reached through TeleportTarget and GameWorld, so
+ * the load test runs this class unchanged against its simulated worlds.
  */
 public class WarmupManager {
+    private static final LongAdder TELEPORTS_COMPLETED = Metrics.get().counter("teleport.completed");
+    private static final LongAdder TELEPORTS_CANCELLED = Metrics.get().counter("teleport.cancelled");
+    private static final LongAdder TELEPORTS_WRONG_WORLD = Metrics.get().counter("teleport.wrong_world");
+    private static final LongAdder TELEPORTS_FAILED = Metrics.get().counter("teleport.failed");
+
     private final ScheduledExecutorService scheduler;
     private final Map<UUID, WarmupData> activeWarmups;
+    private final CooldownTracker cooldowns;
+    private final WorldTasks worldTasks;
 
-    public WarmupManager() {
+    public WarmupManager(WorldTasks worldTasks) {
+        this.worldTasks = worldTasks;
         this.scheduler = Executors.newScheduledThreadPool(1);
         this.activeWarmups = new ConcurrentHashMap<>();
+        this.cooldowns = new CooldownTracker();
     }
 
     /**
@@ -38,36 +41,39 @@ public class WarmupManager {
      * @param warmupSeconds    How long to wait before teleporting (0 = instant)
      * @param movementThreshold How far player can move before cancel (in blocks)
      * @param bypassWarmup     If true, teleport instantly regardless of warmupSeconds
+     * @param cooldownSeconds  Cooldown started once the teleport succeeds (0 = none)
      */
-    public void startWarmup(PlayerRef playerData,
-                           Ref<EntityStore> playerRef,
-                           Store<EntityStore> store,
-                           World currentWorld,
+    public void startWarmup(TeleportTarget player,
                            Home home,
                            int warmupSeconds,
                            double movementThreshold,
-                           boolean bypassWarmup) {
-        UUID playerId = playerData.getUuid();
+                           boolean bypassWarmup,
+                           int cooldownSeconds) {
+        UUID playerId = player.getPlayerId();
+        GameWorld currentWorld = player.getWorld();
 
         // Cancel any existing warmup
         cancelWarmup(playerId);
 
         // Instant teleport if bypassing or warmup is 0
         if (bypassWarmup || warmupSeconds <= 0) {
-            executeTeleport(playerData, playerRef, store, currentWorld, home);
+            executeTeleport(player, currentWorld, home, cooldownSeconds);
             return;
         }
 
         // Get starting position for movement check
-        TransformComponent transform = store.getComponent(playerRef, TransformComponent.getComponentType());
-        Vector3d startPos = transform.getPosition();
+        double[] startPos = player.getPosition();
+        if (startPos == null) {
+            return;
+        }
 
         // Send warmup message
-        playerData.sendMessage(Messages.warmupStarted(home.getName(), warmupSeconds));
+        player.sendWarmupStarted(home.getName(), warmupSeconds);
+        recordWarmup(playerId, home, "started", warmupSeconds);
 
         // Create warmup data
-        WarmupData data = new WarmupData(playerData, playerRef, store, currentWorld, home,
-                startPos.getX(), startPos.getY(), startPos.getZ(), movementThreshold);
+        WarmupData data = new WarmupData(player, currentWorld, home,
+                startPos[0], startPos[1], startPos[2], movementThreshold, cooldownSeconds);
 
         // Schedule position checks every 500ms
         ScheduledFuture<?> checkFuture = scheduler.scheduleAtFixedRate(() -> {
@@ -90,22 +96,27 @@ public class WarmupManager {
         }
 
         try {
-            // Run position check on world thread
-            data.currentWorld.execute(() -> {
+            // Movement checks can wait a tick if the world is busy; teleports can't
+            worldTasks.runDeferrable(data.currentWorld, "movement_check", playerId, data.detail, () -> {
+                // The warmup may have ended while this check was deferred
+                if (activeWarmups.get(playerId) != data) {
+                    return;
+                }
                 try {
-                    TransformComponent transform = data.store.getComponent(data.playerRef, TransformComponent.getComponentType());
-                    if (transform == null) {
+                    double[] currentPos = data.player.getPosition();
+                    if (currentPos == null) {
                         return;
                     }
 
-                    Vector3d currentPos = transform.getPosition();
-                    double dx = currentPos.getX() - data.startX;
-                    double dy = currentPos.getY() - data.startY;
-                    double dz = currentPos.getZ() - data.startZ;
+                    double dx = currentPos[0] - data.startX;
+                    double dy = currentPos[1] - data.startY;
+                    double dz = currentPos[2] - data.startZ;
                     double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
 
                     if (distance > data.movementThreshold) {
-                        data.playerData.sendMessage(Messages.teleportCancelled());
+                        data.player.sendTeleportCancelled();
+                        TELEPORTS_CANCELLED.increment();
+                        recordWarmup(playerId, data.home, "cancelled", 0);
                         cancelWarmup(playerId);
                     }
                 } catch (Exception e) {
@@ -129,7 +140,7 @@ public class WarmupManager {
         }
 
         // Execute teleport
-        executeTeleport(data.playerData, data.playerRef, data.store, data.currentWorld, data.home);
+        executeTeleport(data.player, data.currentWorld, data.home, data.cooldownSeconds);
     }
 
     public void cancelWarmup(UUID playerId) {
@@ -148,6 +159,22 @@ public class WarmupManager {
         return activeWarmups.containsKey(playerId);
     }
 
+    public int getActiveWarmupCount() {
+        return activeWarmups.size();
+    }
+
+    /**
+     * Get the remaining /home cooldown for a player in seconds (0 = ready).
+     */
+    public int getCooldownRemaining(UUID playerId) {
+        long millis = cooldowns.getRemainingMillis(playerId);
+        return (int) ((millis + 999) / 1000);
+    }
+
+    public CooldownTracker getCooldowns() {
+        return cooldowns;
+    }
+
     public void shutdown() {
         for (UUID playerId : activeWarmups.keySet()) {
             cancelWarmup(playerId);
@@ -155,56 +182,66 @@ public class WarmupManager {
         scheduler.shutdown();
     }
 
-    private void executeTeleport(PlayerRef playerData,
-                                Ref<EntityStore> playerRef,
-                                Store<EntityStore> store,
-                                World currentWorld,
-                                Home home) {
+    private void executeTeleport(TeleportTarget player, GameWorld currentWorld, Home home, int cooldownSeconds) {
+        UUID playerId = player.getPlayerId();
         if (!currentWorld.getName().equals(home.getWorld())) {
-            playerData.sendMessage(Messages.worldNotFound(home.getWorld()));
+            player.sendWorldNotFound(home.getWorld());
+            TELEPORTS_WRONG_WORLD.increment();
+            recordWarmup(playerId, home, "wrong world", 0);
             return;
         }
 
         // Execute teleport on world thread
-        currentWorld.execute(() -> {
+        worldTasks.runUrgent(currentWorld, "teleport", playerId, "home " + home.getName(), () -> {
             try {
-                Vector3d position = new Vector3d(home.getX(), home.getY(), home.getZ());
-                Vector3f rotation = new Vector3f(home.getYaw(), home.getPitch(), 0);
-                Transform transform = new Transform(position, rotation);
+                player.teleport(home.getX(), home.getY(), home.getZ(), home.getYaw(), home.getPitch());
+                cooldowns.start(playerId, cooldownSeconds * 1000L);
 
-                Teleport teleport = Teleport.createForPlayer(currentWorld, transform);
-                store.addComponent(playerRef, Teleport.getComponentType(), teleport);
-
-                playerData.sendMessage(Messages.teleportedTo(home.getName()));
+                player.sendTeleportedTo(home.getName());
+                TELEPORTS_COMPLETED.increment();
+                Metrics.get().counter("teleport.by_world", "world", home.getWorld()).increment();
+                recordWarmup(playerId, home, "teleported", 0);
             } catch (Exception e) {
-                playerData.sendMessage(Messages.worldNotFound(home.getWorld()));
+                player.sendWorldNotFound(home.getWorld());
+                TELEPORTS_FAILED.increment();
+                recordWarmup(playerId, home, "failed", 0);
             }
         });
     }
 
+    private static void recordWarmup(UUID playerId, Home home, String action, int warmupSeconds) {
+        JfrEvents.Warmup event = new JfrEvents.Warmup();
+        if (event.isEnabled()) {
+            event.playerId = playerId.toString();
+            event.home = home.getName();
+            event.action = action;
+            event.warmupSeconds = warmupSeconds;
+            event.commit();
+        }
+    }
+
     private static class WarmupData {
-        final PlayerRef playerData;
-        final Ref<EntityStore> playerRef;
-        final Store<EntityStore> store;
-        final World currentWorld;
+        final TeleportTarget player;
+        final GameWorld currentWorld;
         final Home home;
         final double startX, startY, startZ;
         final double movementThreshold;
+        final int cooldownSeconds;
+        final String detail;
         ScheduledFuture<?> checkFuture;
         ScheduledFuture<?> teleportFuture;
 
-        WarmupData(PlayerRef playerData, Ref<EntityStore> playerRef, Store<EntityStore> store,
-                  World currentWorld, Home home, double startX, double startY, double startZ,
-                  double movementThreshold) {
-            this.playerData = playerData;
-            this.playerRef = playerRef;
-            this.store = store;
+        WarmupData(TeleportTarget player, GameWorld currentWorld, Home home,
+                   double startX, double startY, double startZ, double movementThreshold, int cooldownSeconds) {
+            this.player = player;
             this.currentWorld = currentWorld;
             this.home = home;
             this.startX = startX;
             this.startY = startY;
             this.startZ = startZ;
             this.movementThreshold = movementThreshold;
+            this.cooldownSeconds = cooldownSeconds;
+            this.detail = "home " + home.getName();
         }
     }
 }
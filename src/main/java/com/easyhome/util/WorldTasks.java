@@ -0,0 +1,150 @@
+package com.easyhome.util;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Runs EasyHome work on world threads, timed and within a per-tick budget.
+ *
+ * Urgent tasks (teleports) are posted straight to the world. Deferrable
+ * tasks (warmup movement checks) go into a per-world queue that one drain
+ * task works through until the budget is spent; whatever is left is posted
+ * again and runs on the world's next pass. Every task is timed, and tasks
+ * over the slow threshold are logged with the player and home involved.
+ */
+public class WorldTasks {
+    private static final Logger LOGGER = Logger.getLogger("EasyHome");
+    private static final LongAdder SLOW_TASKS = Metrics.get().counter("world.tasks.slow");
+    // One count per task per tick it had to wait
+    private static final LongAdder DEFERRED_TASKS = Metrics.get().counter("world.tasks.deferred");
+
+    // Keyed by world name; a world that is reloaded keeps its (usually empty) queue
+    private final Map<String, WorldQueue> queues = new ConcurrentHashMap<>();
+    // Timer per task name, so running a task builds no metric name
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private volatile long budgetNanos;
+    private volatile long slowNanos;
+
+    /**
+     * @param budgetMicros   Time deferrable tasks may use per world per tick
+     * @param slowTaskMillis Tasks taking longer than this are logged
+     */
+    public WorldTasks(int budgetMicros, int slowTaskMillis) {
+        this.budgetNanos = budgetNanos(budgetMicros);
+        this.slowNanos = slowNanos(slowTaskMillis);
+    }
+
+    public void setBudgetMicros(int budgetMicros) {
+        this.budgetNanos = budgetNanos(budgetMicros);
+    }
+
+    public void setSlowTaskMillis(int slowTaskMillis) {
+        this.slowNanos = slowNanos(slowTaskMillis);
+    }
+
+    private static long budgetNanos(int budgetMicros) {
+        return TimeUnit.MICROSECONDS.toNanos(Math.max(1, budgetMicros));
+    }
+
+    private static long slowNanos(int slowTaskMillis) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(1, slowTaskMillis));
+    }
+
+    /**
+     * Run a task on the world thread as soon as possible, outside the budget.
+     */
+    public void runUrgent(GameWorld world, String name, UUID playerId, String detail, Runnable action) {
+        Task task = new Task(name, timerFor(name), playerId, detail, action);
+        world.execute(() -> run(world, task));
+    }
+
+    /**
+     * Run a task on the world thread within the per-tick budget.
+     * If the budget is used up it waits for a later tick.
+     */
+    public void runDeferrable(GameWorld world, String name, UUID playerId, String detail, Runnable action) {
+        WorldQueue queue = queues.computeIfAbsent(world.getName(), w -> new WorldQueue());
+        queue.tasks.add(new Task(name, timerFor(name), playerId, detail, action));
+        schedule(world, queue);
+    }
+
+    private LatencyHistogram timerFor(String name) {
+        return timers.computeIfAbsent(name, n -> Metrics.get().timer("world.task." + n));
+    }
+
+    /**
+     * Deferrable tasks still waiting, across all worlds.
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (WorldQueue queue : queues.values()) {
+            pending += queue.tasks.size();
+        }
+        return pending;
+    }
+
+    private void schedule(GameWorld world, WorldQueue queue) {
+        if (queue.scheduled.compareAndSet(false, true)) {
+            world.execute(() -> drain(world, queue));
+        }
+    }
+
+    private void drain(GameWorld world, WorldQueue queue) {
+        long deadline = System.nanoTime() + budgetNanos;
+        Task task;
+        while (System.nanoTime() < deadline && (task = queue.tasks.poll()) != null) {
+            run(world, task);
+        }
+
+        // Clear the flag before re-checking so a task added meanwhile is never stranded
+        queue.scheduled.set(false);
+        int remaining = queue.tasks.size();
+        if (remaining > 0) {
+            DEFERRED_TASKS.add(remaining);
+            schedule(world, queue);
+        }
+    }
+
+    private void run(GameWorld world, Task task) {
+        JfrEvents.WorldTask event = new JfrEvents.WorldTask();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            task.action.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            task.timer.recordNanos(elapsed);
+            if (elapsed > slowNanos) {
+                SLOW_TASKS.increment();
+                LOGGER.warning(String.format("Slow %s task on world %s took %.1f ms (player %s, %s)",
+                        task.name, world.getName(), elapsed / 1_000_000.0, task.playerId, task.detail));
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.task = task.name;
+                event.world = world.getName();
+                event.playerId = String.valueOf(task.playerId);
+                event.detail = task.detail;
+                event.commit();
+            }
+        }
+    }
+
+    private record Task(String name, LatencyHistogram timer, UUID playerId, String detail, Runnable action) {
+    }
+
+    private static class WorldQueue {
+        final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean(false);
+    }
+}
@@ -0,0 +1,59 @@
+package com.easyhome.data;
+
+import com.easyhome.util.IoExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GrantStorageBatchTest {
+
+    @Test
+    void updatesEveryPlayer() throws Exception {
+        Path directory = Files.createTempDirectory("easyhome-grants-");
+        IoExecutor io = new IoExecutor();
+        try {
+            GrantStorage storage = new GrantStorage(directory, io);
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            storage.updateHomesBatch(List.of(first, second, first), 2, null).join();
+
+            GrantStorage reread = new GrantStorage(directory, io);
+            assertEquals(2, reread.getBonusHomes(first));
+            assertEquals(2, reread.getBonusHomes(second));
+        } finally {
+            io.shutdown(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void failedLoadChangesNobody() throws Exception {
+        Path directory = Files.createTempDirectory("easyhome-grants-");
+        IoExecutor io = new IoExecutor();
+        try {
+            GrantStorage storage = new GrantStorage(directory, io);
+            UUID healthy = UUID.randomUUID();
+            UUID corrupt = UUID.randomUUID();
+            Files.writeString(directory.resolve("grants").resolve(corrupt + ".json"), "{ not json");
+
+            boolean failed = false;
+            try {
+                storage.updateHomesBatch(List.of(healthy, corrupt), 3, null).join();
+            } catch (CompletionException e) {
+                failed = true;
+            }
+
+            assertTrue(failed, "batch should fail");
+            assertEquals(0, storage.getBonusHomes(healthy));
+        } finally {
+            io.shutdown(10, TimeUnit.SECONDS);
+        }
+    }
+}
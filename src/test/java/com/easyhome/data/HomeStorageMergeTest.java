@@ -0,0 +1,114 @@
+package com.easyhome.data;
+
+import com.easyhome.util.IoExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HomeStorageMergeTest {
+
+    @Test
+    void keepsHomesSetOnBothSides() {
+        PlayerHomes base = homes(home("a", 0));
+        PlayerHomes merged = HomeStorage.merge(base, homes(home("a", 0), home("b", 0)),
+                homes(home("a", 0), home("c", 0)), HomeStorage.NO_LIMIT);
+
+        assertEquals(Set.of("a", "b", "c"), merged.getHomesMap().keySet());
+    }
+
+    @Test
+    void homeSetHereWinsOverDeleteElsewhere() {
+        PlayerHomes base = homes(home("a", 0), home("b", 0));
+        PlayerHomes merged = HomeStorage.merge(base, homes(home("a", 5), home("b", 0)),
+                homes(home("b", 0)), HomeStorage.NO_LIMIT);
+
+        assertEquals(Set.of("a", "b"), merged.getHomesMap().keySet());
+        assertEquals(5.0, merged.getHome("a").getX());
+    }
+
+    @Test
+    void deleteHereWinsOverModifyElsewhere() {
+        PlayerHomes base = homes(home("a", 0), home("b", 0));
+        PlayerHomes merged = HomeStorage.merge(base, homes(home("b", 0)),
+                homes(home("a", 7), home("b", 0)), HomeStorage.NO_LIMIT);
+
+        assertEquals(Set.of("b"), merged.getHomesMap().keySet());
+    }
+
+    @Test
+    void modifyElsewhereIsKeptWhenUnchangedHere() {
+        PlayerHomes base = homes(home("a", 0), home("b", 0));
+        PlayerHomes merged = HomeStorage.merge(base, homes(home("a", 0), home("b", 0), home("c", 0)),
+                homes(home("a", 7), home("b", 0)), HomeStorage.NO_LIMIT);
+
+        assertEquals(7.0, merged.getHome("a").getX());
+        assertTrue(merged.hasHome("c"));
+    }
+
+    @Test
+    void dropsHomesCreatedHereOverTheLimit() {
+        PlayerHomes base = homes(home("a", 0));
+        PlayerHomes merged = HomeStorage.merge(base, homes(home("a", 0), home("b", 0), home("d", 0)),
+                homes(home("a", 0), home("c", 0)), 3);
+
+        // Theirs is never dropped; of ours, the last name goes first
+        assertEquals(Set.of("a", "b", "c"), merged.getHomesMap().keySet());
+    }
+
+    @Test
+    void neverDropsHomesFromElsewhere() {
+        PlayerHomes base = homes(home("a", 0));
+        PlayerHomes merged = HomeStorage.merge(base, homes(home("a", 0), home("b", 0)),
+                homes(home("a", 0), home("c", 0), home("d", 0)), 2);
+
+        assertEquals(Set.of("a", "c", "d"), merged.getHomesMap().keySet());
+    }
+
+    @Test
+    void sharedSavesKeepTheLimit() throws Exception {
+        Path directory = Files.createTempDirectory("easyhome-merge-");
+        IoExecutor io = new IoExecutor();
+        try {
+            UUID playerId = UUID.randomUUID();
+            HomeStorage first = new HomeStorage(directory, io, null, null, true);
+            first.setHomeIfUnderLimit(playerId, home("a", 0), 2);
+            first.saveHomes(playerId);
+
+            // Both servers see one home and let the player create a second
+            HomeStorage second = new HomeStorage(directory, io, null, null, true);
+            assertEquals(HomeStorage.SetResult.CREATED, second.setHomeIfUnderLimit(playerId, home("c", 0), 2));
+            assertEquals(HomeStorage.SetResult.CREATED, first.setHomeIfUnderLimit(playerId, home("b", 0), 2));
+            second.saveHomes(playerId);
+            first.saveHomes(playerId);
+
+            PlayerHomes stored = new HomeStorage(directory, io).getHomes(playerId);
+            assertEquals(2, stored.getHomeCount());
+            assertTrue(stored.hasHome("c"));
+            assertFalse(first.getHomes(playerId).hasHome("b"));
+        } finally {
+            io.shutdown(10, TimeUnit.SECONDS);
+            try (var files = Files.walk(directory)) {
+                for (Path path : files.sorted((x, y) -> y.compareTo(x)).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    private static PlayerHomes homes(Home... homes) {
+        return PlayerHomes.of(List.of(homes));
+    }
+
+    private static Home home(String name, double x) {
+        return new Home(name, "default", x, 64, 0, 0, 0);
+    }
+}